@@ -54,4 +54,25 @@ public interface AsyncResult<T> {
    * @throws InterruptedException if the execution is interrupted
    */
   void await() throws InterruptedException;
+
+  /**
+   * Attempts to cancel the async task. A task that has not started yet never runs; a running task
+   * is interrupted if {@code mayInterruptIfRunning} is set. Does nothing by default, for executors
+   * that cannot cancel their tasks.
+   *
+   * @param mayInterruptIfRunning whether the thread running the task is interrupted
+   * @return <code>true</code> if the task has been cancelled
+   */
+  default boolean cancel(boolean mayInterruptIfRunning) {
+    return false;
+  }
+
+  /**
+   * Status of the cancellation of the async task.
+   *
+   * @return <code>true</code> if the task has been cancelled before it completed
+   */
+  default boolean isCancelled() {
+    return false;
+  }
 }
@@ -0,0 +1,288 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.async.method.invocation;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of async executor that runs the tasks on a pool of threads instead of starting a
+ * thread per task. At most a given number of tasks are in flight, queued or running: starting one
+ * more blocks the caller until a task completes, so a burst of invocations cannot pile up without
+ * bound.
+ *
+ * <p>The async results can be cancelled, and the callbacks run after the result is published,
+ * without holding any lock.
+ */
+public class PooledAsyncExecutor implements AsyncExecutor, AutoCloseable {
+
+  private final ExecutorService pool;
+  private final Semaphore inFlight;
+  private final int maxInFlight;
+
+  /**
+   * Creates an executor running the tasks on the given pool.
+   *
+   * @param pool        pool running the tasks, shut down on {@link #close()}
+   * @param maxInFlight maximum number of tasks queued or running
+   */
+  public PooledAsyncExecutor(ExecutorService pool, int maxInFlight) {
+    this.pool = pool;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Creates an executor running the tasks on a fixed pool of platform threads.
+   *
+   * @param threads     number of threads
+   * @param maxInFlight maximum number of tasks queued or running
+   * @return the executor
+   */
+  public static PooledAsyncExecutor fixed(int threads, int maxInFlight) {
+    var idx = new AtomicInteger(0);
+    return new PooledAsyncExecutor(Executors.newFixedThreadPool(threads,
+        runnable -> new Thread(runnable, "pooled-executor-" + idx.incrementAndGet())), maxInFlight);
+  }
+
+  /**
+   * Creates an executor running every task on its own virtual thread. Virtual threads are cheap
+   * to create and to block, so the number of tasks in flight is the only bound needed.
+   *
+   * @param maxInFlight maximum number of tasks running
+   * @return the executor
+   * @throws UnsupportedOperationException if the Java runtime has no virtual threads
+   */
+  public static PooledAsyncExecutor virtual(int maxInFlight) {
+    try {
+      // looked up at runtime, this module is compiled for a Java version without virtual threads
+      var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return new PooledAsyncExecutor((ExecutorService) factory.invoke(null), maxInFlight);
+    } catch (ReflectiveOperationException e) {
+      throw new UnsupportedOperationException("Virtual threads are not supported", e);
+    }
+  }
+
+  /**
+   * Tells whether {@link #virtual(int)} can be used on the running Java runtime.
+   *
+   * @return <code>true</code> if virtual threads are available
+   */
+  public static boolean isVirtualSupported() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public <T> AsyncResult<T> startProcess(Callable<T> task) {
+    return startProcess(task, null);
+  }
+
+  /**
+   * Starts processing of an async task, waiting first while the maximum number of tasks are in
+   * flight.
+   *
+   * @throws RejectedExecutionException if interrupted while waiting, or if the executor is closed
+   */
+  @Override
+  public <T> AsyncResult<T> startProcess(Callable<T> task, AsyncCallback<T> callback) {
+    try {
+      inFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted while waiting to start the task", e);
+    }
+    var result = new PooledResult<>(task, callback);
+    try {
+      pool.execute(() -> {
+        try {
+          result.run();
+        } finally {
+          inFlight.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      inFlight.release();
+      throw e;
+    }
+    return result;
+  }
+
+  @Override
+  public <T> T endProcess(AsyncResult<T> asyncResult) throws ExecutionException,
+      InterruptedException {
+    if (!asyncResult.isCompleted()) {
+      asyncResult.await();
+    }
+    return asyncResult.getValue();
+  }
+
+  /**
+   * Number of tasks queued or running.
+   *
+   * @return tasks in flight
+   */
+  public int getInFlight() {
+    return maxInFlight - inFlight.availablePermits();
+  }
+
+  /**
+   * Stops accepting tasks and waits for the tasks in flight to complete.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    pool.shutdown();
+    pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Async result that runs its task. Its state is only changed by compare-and-set, so the thread
+   * completing the task and a thread cancelling it never block each other, and the callback runs
+   * once the state is published.
+   */
+  private static class PooledResult<T> implements AsyncResult<T> {
+
+    static final int NEW = 0;
+    static final int RUNNING = 1;
+    static final int COMPLETED = 2;
+    static final int FAILED = 3;
+    static final int CANCELLING = 4;
+    static final int CANCELLED = 5;
+
+    final Callable<T> task;
+    final Optional<AsyncCallback<T>> callback;
+    final AtomicInteger state = new AtomicInteger(NEW);
+    final CountDownLatch done = new CountDownLatch(1);
+
+    volatile Thread runner;
+    T value;
+    Exception exception;
+
+    PooledResult(Callable<T> task, AsyncCallback<T> callback) {
+      this.task = task;
+      this.callback = Optional.ofNullable(callback);
+    }
+
+    void run() {
+      if (!state.compareAndSet(NEW, RUNNING)) {
+        return;
+      }
+      runner = Thread.currentThread();
+      T result = null;
+      Exception failure = null;
+      try {
+        result = task.call();
+      } catch (Exception ex) {
+        failure = ex;
+      }
+      runner = null;
+      if (failure == null) {
+        value = result;
+        if (state.compareAndSet(RUNNING, COMPLETED)) {
+          finish(result, Optional.empty());
+          return;
+        }
+      } else {
+        exception = failure;
+        if (state.compareAndSet(RUNNING, FAILED)) {
+          finish(null, Optional.of(failure));
+          return;
+        }
+      }
+      // cancelled while running: wait for the interrupt and clear it before the next task
+      while (state.get() == CANCELLING) {
+        Thread.onSpinWait();
+      }
+      Thread.interrupted();
+    }
+
+    private void finish(T result, Optional<Exception> ex) {
+      done.countDown();
+      callback.ifPresent(ac -> ac.onComplete(result, ex));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      var current = state.get();
+      while (current == NEW || current == RUNNING) {
+        if (state.compareAndSet(current, CANCELLING)) {
+          if (mayInterruptIfRunning && current == RUNNING) {
+            var thread = runner;
+            if (thread != null) {
+              thread.interrupt();
+            }
+          }
+          state.set(CANCELLED);
+          finish(null, Optional.of(new CancellationException()));
+          return true;
+        }
+        current = state.get();
+      }
+      return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return state.get() >= CANCELLING;
+    }
+
+    @Override
+    public boolean isCompleted() {
+      return state.get() > RUNNING;
+    }
+
+    @Override
+    public T getValue() throws ExecutionException {
+      switch (state.get()) {
+        case COMPLETED:
+          return value;
+        case FAILED:
+          throw new ExecutionException(exception);
+        case CANCELLING:
+        case CANCELLED:
+          throw new CancellationException();
+        default:
+          throw new IllegalStateException("Execution not completed yet");
+      }
+    }
+
+    @Override
+    public void await() throws InterruptedException {
+      done.await();
+    }
+  }
+}
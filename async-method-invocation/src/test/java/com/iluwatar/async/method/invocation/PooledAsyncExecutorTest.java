@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.async.method.invocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests the pooled async executor.
+ */
+class PooledAsyncExecutorTest {
+
+  private final PooledAsyncExecutor executor = PooledAsyncExecutor.fixed(1, 2);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    release.countDown();
+    executor.close();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testSuccessfulTaskWithCallback() throws Exception {
+    AsyncCallback<String> callback = Mockito.mock(AsyncCallback.class);
+
+    var asyncResult = executor.startProcess(() -> "result", callback);
+
+    assertEquals("result", executor.endProcess(asyncResult));
+    verify(callback, timeout(2000)).onComplete(eq("result"), eq(Optional.empty()));
+    assertFalse(asyncResult.isCancelled());
+  }
+
+  @Test
+  void testFailedTask() {
+    var exception = new IllegalStateException("barf");
+    var asyncResult = executor.startProcess(() -> {
+      throw exception;
+    });
+
+    var thrown = assertThrows(ExecutionException.class, () -> executor.endProcess(asyncResult));
+    assertEquals(exception, thrown.getCause());
+  }
+
+  @Test
+  void testInFlightTasksAreBounded() throws Exception {
+    executor.startProcess(this::blocked);
+    executor.startProcess(this::blocked);
+    assertEquals(2, executor.getInFlight());
+
+    var started = new AtomicBoolean();
+    var starter = new Thread(() -> {
+      executor.startProcess(() -> 3);
+      started.set(true);
+    });
+    starter.start();
+    starter.join(100);
+    assertFalse(started.get());
+
+    release.countDown();
+    starter.join(2000);
+    assertTrue(started.get());
+  }
+
+  @Test
+  void testCancelQueuedTask() throws Exception {
+    executor.startProcess(this::blocked);
+    var ran = new AtomicBoolean();
+    var queued = executor.startProcess(() -> ran.getAndSet(true));
+
+    assertTrue(queued.cancel(false));
+    assertTrue(queued.isCancelled());
+    assertTrue(queued.isCompleted());
+    assertThrows(CancellationException.class, queued::getValue);
+
+    release.countDown();
+    executor.close();
+    assertFalse(ran.get());
+    assertFalse(queued.cancel(false));
+  }
+
+  @Test
+  void testCancelRunningTaskInterruptsIt() throws Exception {
+    var started = new CountDownLatch(1);
+    var interrupted = new CountDownLatch(1);
+    var running = executor.startProcess(() -> {
+      started.countDown();
+      try {
+        Thread.sleep(10000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      return null;
+    });
+    started.await();
+
+    assertTrue(running.cancel(true));
+    assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    // the worker thread is not left interrupted for the next task
+    var next = executor.startProcess(() -> Thread.currentThread().isInterrupted());
+    assertFalse(executor.endProcess(next));
+  }
+
+  @Test
+  void testVirtualVariantMatchesRuntime() throws Exception {
+    if (!PooledAsyncExecutor.isVirtualSupported()) {
+      assertThrows(UnsupportedOperationException.class, () -> PooledAsyncExecutor.virtual(10));
+      return;
+    }
+    try (var virtual = PooledAsyncExecutor.virtual(10)) {
+      assertEquals(Integer.valueOf(1), virtual.endProcess(virtual.startProcess(() -> 1)));
+    }
+  }
+
+  private Integer blocked() throws InterruptedException {
+    release.await();
+    return 0;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limiter for a {@link RemoteService} whose limit adapts to the measured latency,
+ * following the additive-increase/multiplicative-decrease (AIMD) scheme of TCP congestion control.
+ *
+ * <p>Every call that completes within the latency threshold while the limit is being used grows
+ * the limit by {@code 1 / limit}, i.e. by about one per round of calls. A call that is slower than
+ * the threshold or fails shrinks the limit by the backoff ratio. Calls beyond the current limit are
+ * rejected immediately, so when the offered load exceeds what the service can handle the excess is
+ * shed instead of queueing up and inflating the latency of every call.
+ */
+public class AdaptiveConcurrencyLimiter implements RemoteService {
+
+  private final RemoteService service;
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThreshold;
+  private final double backoffRatio;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile double limit;
+
+  /**
+   * Constructor to create an adaptive concurrency limiter.
+   *
+   * @param service          the service to protect
+   * @param initialLimit     concurrency limit to start with
+   * @param minLimit         the limit never drops below this value
+   * @param maxLimit         the limit never grows above this value
+   * @param latencyThreshold latency above which a call signals overload, in nanoseconds
+   * @param backoffRatio     factor, between 0 and 1, the limit is multiplied by on overload
+   */
+  public AdaptiveConcurrencyLimiter(RemoteService service, int initialLimit, int minLimit,
+      int maxLimit, long latencyThreshold, double backoffRatio) {
+    this.service = service;
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThreshold = latencyThreshold;
+    this.backoffRatio = backoffRatio;
+  }
+
+  @Override
+  public String call() throws RemoteServiceException {
+    var concurrency = tryAcquire();
+    if (concurrency < 0) {
+      throw new RemoteServiceException("Concurrency limit reached");
+    }
+    var start = System.nanoTime();
+    try {
+      var response = service.call();
+      onSample(System.nanoTime() - start, concurrency, false);
+      return response;
+    } catch (RemoteServiceException e) {
+      onSample(System.nanoTime() - start, concurrency, true);
+      throw e;
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Takes a slot if the number of calls in flight is below the limit.
+   *
+   * @return the number of calls in flight including this one, or -1 if the limit is reached
+   */
+  private int tryAcquire() {
+    while (true) {
+      var current = inFlight.get();
+      if (current >= (int) limit) {
+        return -1;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return current + 1;
+      }
+    }
+  }
+
+  private synchronized void onSample(long latency, int concurrency, boolean failed) {
+    if (failed || latency > latencyThreshold) {
+      limit = Math.max(minLimit, limit * backoffRatio);
+    } else if (concurrency * 2 >= limit) {
+      // only grow while the current limit is actually being used
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+  }
+}
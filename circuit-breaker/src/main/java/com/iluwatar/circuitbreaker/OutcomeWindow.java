@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A count based sliding window holding the outcomes of the last N calls in a lock-free ring
+ * buffer. Every recorded outcome overwrites the oldest slot with an atomic swap, and the aggregate
+ * counters are adjusted by the difference between the new and the evicted outcome, so they match
+ * the contents of the ring without any locking.
+ */
+class OutcomeWindow {
+
+  static final int FAILURE = 1;
+  static final int SLOW = 2;
+  private static final int RECORDED = 4;
+
+  private final AtomicIntegerArray slots;
+  private final AtomicLong cursor = new AtomicLong();
+  private final AtomicInteger calls = new AtomicInteger();
+  private final AtomicInteger failures = new AtomicInteger();
+  private final AtomicInteger slowCalls = new AtomicInteger();
+
+  OutcomeWindow(int size) {
+    this.slots = new AtomicIntegerArray(size);
+  }
+
+  /**
+   * Records the outcome of a call.
+   *
+   * @param outcome combination of the {@link #FAILURE} and {@link #SLOW} flags, 0 for a fast
+   *                success
+   */
+  void record(int outcome) {
+    var index = (int) Math.floorMod(cursor.getAndIncrement(), (long) slots.length());
+    var evicted = slots.getAndSet(index, outcome | RECORDED);
+    if (evicted == 0) {
+      calls.incrementAndGet();
+    }
+    // only touch the counters whose flag differs between the evicted and the new outcome
+    var changed = evicted ^ outcome;
+    if ((changed & FAILURE) != 0) {
+      failures.addAndGet((outcome & FAILURE) != 0 ? 1 : -1);
+    }
+    if ((changed & SLOW) != 0) {
+      slowCalls.addAndGet((outcome & SLOW) != 0 ? 1 : -1);
+    }
+  }
+
+  /**
+   * Empties the window.
+   */
+  void reset() {
+    for (var i = 0; i < slots.length(); i++) {
+      uncount(slots.getAndSet(i, 0));
+    }
+  }
+
+  int calls() {
+    return calls.get();
+  }
+
+  /**
+   * Percentage of failed calls in the window.
+   */
+  float failureRate() {
+    return rate(failures.get());
+  }
+
+  /**
+   * Percentage of slow calls in the window.
+   */
+  float slowCallRate() {
+    return rate(slowCalls.get());
+  }
+
+  private float rate(int count) {
+    var total = calls.get();
+    return total == 0 ? 0 : count * 100f / total;
+  }
+
+  private void uncount(int outcome) {
+    if ((outcome & RECORDED) == 0) {
+      return;
+    }
+    calls.decrementAndGet();
+    if ((outcome & FAILURE) != 0) {
+      failures.decrementAndGet();
+    }
+    if ((outcome & SLOW) != 0) {
+      slowCalls.decrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.circuitbreaker;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bulkhead that caps the number of concurrent calls to a {@link RemoteService}. Calls run on the
+ * caller's thread; a call that cannot get a permit within the maximum wait is rejected instead of
+ * piling up behind a slow service. Being a {@link RemoteService} itself, it can be wrapped by a
+ * {@link CircuitBreaker}, which then counts rejections as failures.
+ */
+public class SemaphoreBulkhead implements RemoteService {
+
+  private final RemoteService service;
+  private final Semaphore permits;
+  private final long maxWait;
+
+  /**
+   * Constructor to create a semaphore bulkhead.
+   *
+   * @param service       the service to protect
+   * @param maxConcurrent maximum number of calls in flight at the same time
+   * @param maxWait       how long a call may wait for a permit, in nanoseconds
+   */
+  public SemaphoreBulkhead(RemoteService service, int maxConcurrent, long maxWait) {
+    this.service = service;
+    this.permits = new Semaphore(maxConcurrent);
+    this.maxWait = maxWait;
+  }
+
+  @Override
+  public String call() throws RemoteServiceException {
+    try {
+      if (!permits.tryAcquire(maxWait, TimeUnit.NANOSECONDS)) {
+        throw new RemoteServiceException("Bulkhead is full");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RemoteServiceException("Interrupted while waiting for the bulkhead");
+    }
+    try {
+      return service.call();
+    } finally {
+      permits.release();
+    }
+  }
+
+  public int availablePermits() {
+    return permits.availablePermits();
+  }
+}
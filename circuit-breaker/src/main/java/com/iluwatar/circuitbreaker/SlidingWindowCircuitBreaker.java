@@ -0,0 +1,265 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe Circuit breaker implementation that decides on the failure rate and the slow call
+ * rate over a sliding window of the most recent calls, instead of on consecutive failures.
+ *
+ * <p>While CLOSED every outcome goes to a lock-free {@link OutcomeWindow}. Once the window holds
+ * enough calls and either rate crosses its threshold the circuit opens. After the retry time period
+ * it becomes HALF_OPEN and admits only a fixed number of probe calls: a single failed probe opens
+ * the circuit again, while a full set of successful probes closes it. All state is kept in atomics,
+ * so {@link #attemptRequest()} can be called from any number of threads.
+ */
+public class SlidingWindowCircuitBreaker implements CircuitBreaker {
+
+  private final RemoteService service;
+  private final OutcomeWindow window;
+  private final int minimumCalls;
+  private final float failureRateThreshold;
+  private final float slowCallRateThreshold;
+  private final long slowCallDuration;
+  private final long retryTimePeriod;
+  private final int probeCalls;
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicInteger probePermits = new AtomicInteger();
+  private final AtomicInteger probeSuccesses = new AtomicInteger();
+  private volatile long openedAt;
+  private volatile String lastFailureResponse;
+
+  private SlidingWindowCircuitBreaker(Builder builder) {
+    this.service = builder.service;
+    this.window = new OutcomeWindow(builder.windowSize);
+    this.minimumCalls = builder.minimumCalls;
+    this.failureRateThreshold = builder.failureRateThreshold;
+    this.slowCallRateThreshold = builder.slowCallRateThreshold;
+    this.slowCallDuration = builder.slowCallDuration;
+    this.retryTimePeriod = builder.retryTimePeriod;
+    this.probeCalls = builder.probeCalls;
+  }
+
+  @Override
+  public void recordSuccess() {
+    record(0);
+  }
+
+  @Override
+  public void recordFailure(String response) {
+    this.lastFailureResponse = response;
+    record(OutcomeWindow.FAILURE);
+  }
+
+  @Override
+  public String getState() {
+    return currentState().name();
+  }
+
+  /**
+   * Break the circuit beforehand if it is known service is down Or connect the circuit manually if
+   * service comes online before expected.
+   *
+   * @param state State at which circuit is in
+   */
+  @Override
+  public void setState(State state) {
+    switch (state) {
+      case OPEN:
+        open();
+        break;
+      case HALF_OPEN:
+        halfOpen();
+        break;
+      default:
+        close();
+    }
+  }
+
+  /**
+   * Executes service call.
+   *
+   * @return Value from the remote resource, stale response or a custom exception
+   */
+  @Override
+  public String attemptRequest() throws RemoteServiceException {
+    var current = currentState();
+    if (current == State.OPEN
+        || current == State.HALF_OPEN && probePermits.getAndDecrement() <= 0) {
+      // return cached response while the circuit is OPEN or all probes are in flight
+      return this.lastFailureResponse;
+    }
+    var start = System.nanoTime();
+    try {
+      var response = service.call();
+      record(slowFlag(start));
+      return response;
+    } catch (RemoteServiceException ex) {
+      this.lastFailureResponse = ex.getMessage();
+      record(OutcomeWindow.FAILURE | slowFlag(start));
+      throw ex;
+    }
+  }
+
+  private int slowFlag(long start) {
+    return System.nanoTime() - start >= slowCallDuration ? OutcomeWindow.SLOW : 0;
+  }
+
+  private State currentState() {
+    var current = state.get();
+    if (current == State.OPEN && System.nanoTime() - openedAt > retryTimePeriod) {
+      //We have waited long enough and should try checking if service is up
+      if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+        probeSuccesses.set(0);
+        probePermits.set(probeCalls);
+      }
+      return state.get();
+    }
+    return current;
+  }
+
+  private void record(int outcome) {
+    var current = state.get();
+    if (current == State.HALF_OPEN) {
+      if ((outcome & OutcomeWindow.FAILURE) != 0) {
+        openFrom(State.HALF_OPEN);
+      } else if (probeSuccesses.incrementAndGet() >= probeCalls
+          && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+        window.reset();
+      }
+    } else if (current == State.CLOSED) {
+      window.record(outcome);
+      if (window.calls() >= minimumCalls
+          && (window.failureRate() >= failureRateThreshold
+          || window.slowCallRate() >= slowCallRateThreshold)) {
+        openFrom(State.CLOSED);
+      }
+    }
+  }
+
+  private void openFrom(State expected) {
+    this.openedAt = System.nanoTime();
+    if (state.compareAndSet(expected, State.OPEN)) {
+      window.reset();
+    }
+  }
+
+  private void open() {
+    this.openedAt = System.nanoTime();
+    state.set(State.OPEN);
+  }
+
+  private void halfOpen() {
+    state.set(State.HALF_OPEN);
+    probeSuccesses.set(0);
+    probePermits.set(probeCalls);
+  }
+
+  private void close() {
+    window.reset();
+    state.set(State.CLOSED);
+  }
+
+  /**
+   * Builder for {@link SlidingWindowCircuitBreaker}. Durations are given in nanoseconds, like the
+   * retry time period of {@link DefaultCircuitBreaker}.
+   */
+  public static class Builder {
+
+    private final RemoteService service;
+    private int windowSize = 100;
+    private int minimumCalls = 10;
+    private float failureRateThreshold = 50;
+    private float slowCallRateThreshold = 100;
+    private long slowCallDuration = Long.MAX_VALUE;
+    private long retryTimePeriod = 2000L * 1000 * 1000;
+    private int probeCalls = 1;
+
+    public Builder(RemoteService service) {
+      this.service = service;
+    }
+
+    /**
+     * Number of most recent calls the rates are computed over.
+     */
+    public Builder windowSize(int windowSize) {
+      this.windowSize = windowSize;
+      return this;
+    }
+
+    /**
+     * Number of calls the window must hold before the rates are evaluated.
+     */
+    public Builder minimumCalls(int minimumCalls) {
+      this.minimumCalls = minimumCalls;
+      return this;
+    }
+
+    /**
+     * Percentage of failed calls at which the circuit opens.
+     */
+    public Builder failureRateThreshold(float failureRateThreshold) {
+      this.failureRateThreshold = failureRateThreshold;
+      return this;
+    }
+
+    /**
+     * Percentage of slow calls at which the circuit opens.
+     */
+    public Builder slowCallRateThreshold(float slowCallRateThreshold) {
+      this.slowCallRateThreshold = slowCallRateThreshold;
+      return this;
+    }
+
+    /**
+     * Duration above which a call counts as slow.
+     */
+    public Builder slowCallDuration(long slowCallDuration) {
+      this.slowCallDuration = slowCallDuration;
+      return this;
+    }
+
+    /**
+     * Time the circuit stays OPEN before probe calls are admitted.
+     */
+    public Builder retryTimePeriod(long retryTimePeriod) {
+      this.retryTimePeriod = retryTimePeriod;
+      return this;
+    }
+
+    /**
+     * Number of probe calls admitted, and required to succeed, in the HALF_OPEN state.
+     */
+    public Builder probeCalls(int probeCalls) {
+      this.probeCalls = probeCalls;
+      return this;
+    }
+
+    public SlidingWindowCircuitBreaker build() {
+      return new SlidingWindowCircuitBreaker(this);
+    }
+  }
+}
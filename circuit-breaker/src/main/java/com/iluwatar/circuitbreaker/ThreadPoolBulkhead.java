@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.circuitbreaker;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A bulkhead that runs the calls to a {@link RemoteService} on its own fixed size thread pool with
+ * a bounded queue. A slow service can only exhaust the threads of its own pool, and the caller
+ * stops waiting once the call timeout elapses. Calls are rejected when the queue is full.
+ */
+public class ThreadPoolBulkhead implements RemoteService, AutoCloseable {
+
+  private final RemoteService service;
+  private final ThreadPoolExecutor executor;
+  private final long timeout;
+
+  /**
+   * Constructor to create a thread pool bulkhead.
+   *
+   * @param service   the service to protect
+   * @param threads   number of threads calling the service
+   * @param queueSize number of calls that may wait for a thread
+   * @param timeout   how long the caller waits for the response, in nanoseconds
+   */
+  public ThreadPoolBulkhead(RemoteService service, int threads, int queueSize, long timeout) {
+    this.service = service;
+    this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.NANOSECONDS,
+        new ArrayBlockingQueue<>(queueSize));
+    this.timeout = timeout;
+  }
+
+  @Override
+  public String call() throws RemoteServiceException {
+    var future = submit();
+    try {
+      return future.get(timeout, TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RemoteServiceException) {
+        throw (RemoteServiceException) e.getCause();
+      }
+      throw new RemoteServiceException(String.valueOf(e.getCause()));
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      throw new RemoteServiceException("Remote service timed out");
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new RemoteServiceException("Interrupted while waiting for the remote service");
+    }
+  }
+
+  private Future<String> submit() throws RemoteServiceException {
+    try {
+      return executor.submit(service::call);
+    } catch (RejectedExecutionException e) {
+      throw new RemoteServiceException("Bulkhead is full");
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
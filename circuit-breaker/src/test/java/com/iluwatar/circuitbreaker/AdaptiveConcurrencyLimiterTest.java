@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.circuitbreaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Adaptive concurrency limiter test
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+  @Test
+  public void testRejectsCallsBeyondTheLimit() throws Exception {
+    var entered = new CountDownLatch(2);
+    var release = new CountDownLatch(1);
+    RemoteService service = () -> {
+      entered.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "Remote Success";
+    };
+    var limiter = new AdaptiveConcurrencyLimiter(service, 2, 1, 10, Long.MAX_VALUE, 0.5);
+    var executor = Executors.newFixedThreadPool(2);
+    for (var i = 0; i < 2; i++) {
+      executor.submit(limiter::call);
+    }
+    assertTrue(entered.await(1, TimeUnit.SECONDS));
+    assertEquals(2, limiter.getInFlight());
+    assertThrows(RemoteServiceException.class, limiter::call);
+
+    release.countDown();
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  public void testLimitShrinksOnSlowCallsAndGrowsBack() throws Exception {
+    var slow = new boolean[] {true};
+    RemoteService service = () -> {
+      if (slow[0]) {
+        try {
+          Thread.sleep(2);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return "Remote Success";
+    };
+    var limiter = new AdaptiveConcurrencyLimiter(service, 8, 1, 8, 1000 * 1000, 0.5);
+    for (var i = 0; i < 3; i++) {
+      limiter.call();
+    }
+    //8 -> 4 -> 2 -> 1
+    assertEquals(1, limiter.getLimit());
+
+    slow[0] = false;
+    for (var i = 0; i < 10; i++) {
+      limiter.call();
+    }
+    assertTrue(limiter.getLimit() > 1);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.circuitbreaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bulkhead test
+ */
+public class BulkheadTest {
+
+  @Test
+  public void testSemaphoreBulkheadRejectsWhenFull() throws Exception {
+    var entered = new CountDownLatch(2);
+    var release = new CountDownLatch(1);
+    var bulkhead = new SemaphoreBulkhead(blockingService(entered, release), 2, 0);
+    var executor = Executors.newFixedThreadPool(2);
+    for (var i = 0; i < 2; i++) {
+      executor.submit(bulkhead::call);
+    }
+    assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+    var exception = assertThrows(RemoteServiceException.class, bulkhead::call);
+    assertEquals("Bulkhead is full", exception.getMessage());
+
+    release.countDown();
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+    assertEquals(2, bulkhead.availablePermits());
+    assertEquals("Remote Success", bulkhead.call());
+  }
+
+  @Test
+  public void testThreadPoolBulkheadTimesOutAndRejects() throws Exception {
+    var entered = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    //a hung service that does not even react to interruption
+    RemoteService service = () -> {
+      entered.countDown();
+      while (release.getCount() > 0) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          //keep hanging
+        }
+      }
+      return "Remote Success";
+    };
+    try (var bulkhead = new ThreadPoolBulkhead(service, 1, 1, 50 * 1000 * 1000)) {
+      //the only thread is stuck on the slow call and the caller gives up
+      var timeout = assertThrows(RemoteServiceException.class, bulkhead::call);
+      assertEquals("Remote service timed out", timeout.getMessage());
+      assertTrue(entered.await(1, TimeUnit.SECONDS));
+      //the next call waits in the queue until it times out as well, the one after is rejected
+      assertThrows(RemoteServiceException.class, bulkhead::call);
+      var rejected = assertThrows(RemoteServiceException.class, bulkhead::call);
+      assertEquals("Bulkhead is full", rejected.getMessage());
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testCircuitBreakerOpensOnBulkheadRejections() throws Exception {
+    var entered = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var bulkhead = new SemaphoreBulkhead(blockingService(entered, release), 1, 0);
+    var circuitBreaker = new SlidingWindowCircuitBreaker.Builder(bulkhead)
+        .windowSize(2)
+        .minimumCalls(2)
+        .build();
+    var executor = Executors.newSingleThreadExecutor();
+    executor.submit(bulkhead::call);
+    assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+    assertThrows(RemoteServiceException.class, circuitBreaker::attemptRequest);
+    assertThrows(RemoteServiceException.class, circuitBreaker::attemptRequest);
+    assertEquals("OPEN", circuitBreaker.getState());
+    assertEquals("Bulkhead is full", circuitBreaker.attemptRequest());
+
+    release.countDown();
+    executor.shutdown();
+  }
+
+  private static RemoteService blockingService(CountDownLatch entered, CountDownLatch release) {
+    return () -> {
+      entered.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "Remote Success";
+    };
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.circuitbreaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sliding window Circuit Breaker test
+ */
+public class SlidingWindowCircuitBreakerTest {
+
+  @Test
+  public void testOpensOnFailureRate() {
+    var responses = new ArrayDeque<>(List.of(true, false, true, false, false));
+    RemoteService service = () -> {
+      if (!responses.pop()) {
+        throw new RemoteServiceException("Remote Failure");
+      }
+      return "Remote Success";
+    };
+    var circuitBreaker = new SlidingWindowCircuitBreaker.Builder(service)
+        .windowSize(4)
+        .minimumCalls(4)
+        .failureRateThreshold(50)
+        .build();
+    for (var i = 0; i < 3; i++) {
+      try {
+        circuitBreaker.attemptRequest();
+      } catch (RemoteServiceException e) {
+        //expected for the failing responses
+      }
+    }
+    //Only 3 calls recorded so far, below the minimum number of calls
+    assertEquals("CLOSED", circuitBreaker.getState());
+    assertThrows(RemoteServiceException.class, circuitBreaker::attemptRequest);
+    //2 failures out of the last 4 calls reach the 50% threshold
+    assertEquals("OPEN", circuitBreaker.getState());
+    assertEquals(1, responses.size());
+  }
+
+  @Test
+  public void testOpensOnSlowCallRate() throws RemoteServiceException {
+    RemoteService service = () -> {
+      try {
+        Thread.sleep(2);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "Remote Success";
+    };
+    var circuitBreaker = new SlidingWindowCircuitBreaker.Builder(service)
+        .windowSize(2)
+        .minimumCalls(2)
+        .slowCallRateThreshold(100)
+        .slowCallDuration(1000 * 1000)
+        .build();
+    circuitBreaker.attemptRequest();
+    circuitBreaker.attemptRequest();
+    assertEquals("OPEN", circuitBreaker.getState());
+  }
+
+  @Test
+  public void testHalfOpenAdmitsOnlyProbeCalls() throws Exception {
+    var calls = new AtomicInteger();
+    var release = new CountDownLatch(1);
+    RemoteService service = () -> {
+      calls.incrementAndGet();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "Remote Success";
+    };
+    var circuitBreaker = new SlidingWindowCircuitBreaker.Builder(service)
+        .probeCalls(2)
+        .retryTimePeriod(0)
+        .build();
+    circuitBreaker.recordFailure("Remote Failure");
+    circuitBreaker.setState(State.OPEN);
+    Thread.sleep(1);
+    assertEquals("HALF_OPEN", circuitBreaker.getState());
+
+    var rejected = new CountDownLatch(6);
+    var executor = Executors.newFixedThreadPool(8);
+    for (var i = 0; i < 8; i++) {
+      executor.execute(() -> {
+        try {
+          if ("Remote Failure".equals(circuitBreaker.attemptRequest())) {
+            rejected.countDown();
+          }
+        } catch (RemoteServiceException e) {
+          //not expected
+        }
+      });
+    }
+    //While the 2 probes are in flight every other call gets the cached response
+    assertTrue(rejected.await(1, TimeUnit.SECONDS));
+    release.countDown();
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+    assertEquals(2, calls.get());
+    assertEquals("CLOSED", circuitBreaker.getState());
+  }
+}
@@ -23,6 +23,7 @@
 
 package com.iluwatar.commander;
 
+import java.io.Serializable;
 import java.util.Hashtable;
 import java.util.Random;
 
@@ -30,7 +31,9 @@ import java.util.Random;
  * Order class holds details of the order.
  */
 
-public class Order { //can store all transactions ids also
+public class Order implements Serializable { //can store all transactions ids also
+
+  private static final long serialVersionUID = 3125784L;
 
   enum PaymentStatus {
     NOT_DONE, TRYING, DONE
@@ -23,11 +23,15 @@
 
 package com.iluwatar.commander;
 
+import java.io.Serializable;
+
 /**
  * User class contains details of user who places order.
  */
 
-public class User {
+public class User implements Serializable {
+  private static final long serialVersionUID = 4632817L;
+
   String name;
   String address;
 
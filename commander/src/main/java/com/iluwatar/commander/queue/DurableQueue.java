@@ -0,0 +1,487 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.queue;
+
+import com.iluwatar.commander.exceptions.IsEmptyException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * DurableQueue is a thread-safe queue backed by an append-only log. Every enqueued item and every
+ * acknowledgement is appended to the log, and the position of the oldest unacknowledged item is
+ * checkpointed so that recovery only replays the tail of the log. Consumers lease batches of items
+ * for a visibility timeout; an item that is not acknowledged before its lease expires becomes
+ * visible again and is redelivered, giving at-least-once delivery to any number of consumers.
+ *
+ * <p>Every record is framed with its length and a CRC32 of its body. Recovery stops at the first
+ * record that is incomplete or fails its checksum, which is where a crash tore the log, and
+ * truncates the log there.
+ *
+ * @param <T> is the type of object the queue will hold.
+ */
+
+public class DurableQueue<T extends Serializable> implements Closeable {
+
+  static final String LOG_FILE = "queue.log";
+  static final String CHECKPOINT_FILE = "queue.checkpoint";
+
+  private static final byte ENQUEUE = 1;
+  private static final byte ACK = 2;
+  private static final int ACKS_PER_CHECKPOINT = 64;
+  /**
+   * Length and checksum in front of every record.
+   */
+  private static final int HEADER = 2 * Integer.BYTES;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final TreeMap<Long, Entry<T>> unacked = new TreeMap<>();
+  private final TreeMap<Long, Entry<T>> visible = new TreeMap<>();
+  private final PriorityQueue<Lease<T>> leases =
+      new PriorityQueue<>(Comparator.comparingLong(l -> l.deadline));
+  private final Path directory;
+  private final FileChannel log;
+  private long nextSeq;
+  private int acksSinceCheckpoint;
+
+  /**
+   * Delivery is a leased item handed to a consumer.
+   *
+   * @param <V> is the type of the delivered object.
+   */
+  public static final class Delivery<V> {
+    private final long seq;
+    private final V value;
+
+    Delivery(long seq, V value) {
+      this.seq = seq;
+      this.value = value;
+    }
+
+    public long getSeq() {
+      return seq;
+    }
+
+    public V getValue() {
+      return value;
+    }
+  }
+
+  private static class Entry<V> {
+    final long seq;
+    final long position;
+    final V value;
+    int leaseId;
+
+    Entry(long seq, long position, V value) {
+      this.seq = seq;
+      this.position = position;
+      this.value = value;
+    }
+  }
+
+  private static class Lease<V> {
+    final Entry<V> entry;
+    final int leaseId;
+    final long deadline;
+
+    Lease(Entry<V> entry, int leaseId, long deadline) {
+      this.entry = entry;
+      this.leaseId = leaseId;
+      this.deadline = deadline;
+    }
+  }
+
+  /**
+   * Creates a queue that is only held in memory and is lost on restart.
+   */
+  public DurableQueue() {
+    this.directory = null;
+    this.log = null;
+  }
+
+  /**
+   * Opens (or creates) a queue persisted in the given directory, recovering every item that was
+   * enqueued but not acknowledged before the last shutdown or crash.
+   *
+   * @param directory directory holding the log and checkpoint files
+   * @throws IOException if the log cannot be opened or read
+   */
+  public DurableQueue(Path directory) throws IOException {
+    this.directory = directory;
+    Files.createDirectories(directory);
+    this.log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    recover();
+  }
+
+  /**
+   * Appends an item to the queue; the call returns once the item is forced to disk.
+   *
+   * @param obj item to enqueue
+   * @return sequence number assigned to the item
+   * @throws IOException if the item cannot be written to the log
+   */
+  public long enqueue(T obj) throws IOException {
+    return enqueueAll(List.of(obj));
+  }
+
+  /**
+   * Appends a batch of items with a single write and a single force to disk.
+   *
+   * @param objs items to enqueue, in order
+   * @return sequence number assigned to the last item
+   * @throws IOException if the items cannot be written to the log
+   */
+  public long enqueueAll(Collection<? extends T> objs) throws IOException {
+    var payloads = new ArrayList<byte[]>(objs.size());
+    for (var obj : objs) {
+      payloads.add(serialize(obj));
+    }
+    lock.lock();
+    try {
+      var position = log == null ? 0 : log.size();
+      var firstSeq = nextSeq;
+      var entries = new ArrayList<Entry<T>>(objs.size());
+      var out = new ByteArrayOutputStream();
+      var it = objs.iterator();
+      for (var payload : payloads) {
+        var entry = new Entry<T>(nextSeq++, position + out.size(), it.next());
+        entries.add(entry);
+        var record = frame(ByteBuffer.allocate(HEADER + Byte.BYTES + Long.BYTES + payload.length)
+            .position(HEADER).put(ENQUEUE).putLong(entry.seq).put(payload));
+        out.write(record, 0, record.length);
+      }
+      if (log != null) {
+        try {
+          append(out.toByteArray());
+          log.force(false);
+        } catch (IOException e) {
+          nextSeq = firstSeq;
+          truncate(position, e);
+          throw e;
+        }
+      }
+      for (var entry : entries) {
+        unacked.put(entry.seq, entry);
+        visible.put(entry.seq, entry);
+      }
+      notEmpty.signalAll();
+      return nextSeq - 1;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Leases up to {@code maxItems} visible items, waiting up to {@code maxWait} for at least one to
+   * become available. Leased items are hidden from other consumers until they are acknowledged or
+   * until {@code visibilityTimeout} elapses.
+   *
+   * @param maxItems          maximum number of items to lease
+   * @param visibilityTimeout how long the leased items stay hidden
+   * @param maxWait           how long to wait for an item if none is visible
+   * @param unit              unit of both timeouts
+   * @return leased items in queue order, empty if none became visible in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public List<Delivery<T>> poll(int maxItems, long visibilityTimeout, long maxWait, TimeUnit unit)
+      throws InterruptedException {
+    var waitNanos = unit.toNanos(maxWait);
+    lock.lock();
+    try {
+      var now = System.nanoTime();
+      expireLeases(now);
+      while (visible.isEmpty() && waitNanos > 0) {
+        var wait = waitNanos;
+        if (!leases.isEmpty()) {
+          wait = Math.min(wait, Math.max(leases.peek().deadline - now, 1));
+        }
+        notEmpty.awaitNanos(wait);
+        var after = System.nanoTime();
+        waitNanos -= after - now;
+        now = after;
+        expireLeases(now);
+      }
+      var deadline = now + unit.toNanos(visibilityTimeout);
+      var batch = new ArrayList<Delivery<T>>(Math.min(maxItems, visible.size()));
+      while (batch.size() < maxItems && !visible.isEmpty()) {
+        var entry = visible.pollFirstEntry().getValue();
+        leases.add(new Lease<>(entry, ++entry.leaseId, deadline));
+        batch.add(new Delivery<>(entry.seq, entry.value));
+      }
+      return batch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Acknowledges an item so it is never delivered again. Acknowledging an item twice is a no-op.
+   *
+   * @param seq sequence number of the item
+   * @throws IOException if the acknowledgement cannot be written to the log
+   */
+  public void ack(long seq) throws IOException {
+    lock.lock();
+    try {
+      var entry = unacked.get(seq);
+      if (entry == null) {
+        return;
+      }
+      if (log != null) {
+        append(frame(ByteBuffer.allocate(HEADER + Byte.BYTES + Long.BYTES).position(HEADER)
+            .put(ACK).putLong(seq)));
+      }
+      unacked.remove(seq);
+      visible.remove(seq);
+      entry.leaseId++;
+      if (log != null && ++acksSinceCheckpoint >= ACKS_PER_CHECKPOINT) {
+        checkpoint();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the oldest visible item without leasing it.
+   *
+   * @return object at front of queue
+   * @throws IsEmptyException if no item is visible
+   */
+  public T peek() throws IsEmptyException {
+    lock.lock();
+    try {
+      expireLeases(System.nanoTime());
+      if (visible.isEmpty()) {
+        throw new IsEmptyException();
+      }
+      return visible.firstEntry().getValue().value;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes and acknowledges the oldest visible item.
+   *
+   * @return object at front of queue
+   * @throws IsEmptyException if no item is visible
+   * @throws IOException      if the acknowledgement cannot be written to the log
+   */
+  public T dequeue() throws IsEmptyException, IOException {
+    lock.lock();
+    try {
+      var front = peek();
+      ack(visible.firstKey());
+      return front;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of items that are enqueued and not yet acknowledged.
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return unacked.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Writes a final checkpoint and closes the log.
+   */
+  @Override
+  public void close() throws IOException {
+    if (log == null) {
+      return;
+    }
+    lock.lock();
+    try {
+      checkpoint();
+      log.close();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void expireLeases(long now) {
+    while (!leases.isEmpty() && leases.peek().deadline - now <= 0) {
+      var lease = leases.poll();
+      var entry = lease.entry;
+      if (entry.leaseId == lease.leaseId && unacked.containsKey(entry.seq)) {
+        visible.put(entry.seq, entry);
+      }
+    }
+  }
+
+  /**
+   * Writes records at the end of the log. If the write fails part way, the torn record is cut off
+   * again, so that the records appended later are not lost behind it on recovery.
+   */
+  private void append(byte[] record) throws IOException {
+    var buffer = ByteBuffer.wrap(record);
+    var start = log.size();
+    var position = start;
+    try {
+      while (buffer.hasRemaining()) {
+        position += log.write(buffer, position);
+      }
+    } catch (IOException e) {
+      truncate(start, e);
+      throw e;
+    }
+  }
+
+  private void truncate(long position, IOException cause) {
+    try {
+      log.truncate(position);
+    } catch (IOException e) {
+      cause.addSuppressed(e);
+    }
+  }
+
+  /**
+   * Persists the log position of the oldest unacknowledged item and the next sequence number.
+   * The file is replaced atomically so that a crash never leaves a torn checkpoint behind.
+   */
+  private void checkpoint() throws IOException {
+    log.force(false);
+    var position = unacked.isEmpty() ? log.size() : unacked.firstEntry().getValue().position;
+    var tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+    Files.write(tmp, ByteBuffer.allocate(2 * Long.BYTES).putLong(position).putLong(nextSeq)
+        .array());
+    Files.move(tmp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    acksSinceCheckpoint = 0;
+  }
+
+  private void recover() throws IOException {
+    var start = 0L;
+    var checkpointFile = directory.resolve(CHECKPOINT_FILE);
+    if (Files.exists(checkpointFile)) {
+      var checkpoint = ByteBuffer.wrap(Files.readAllBytes(checkpointFile));
+      start = checkpoint.getLong();
+      nextSeq = checkpoint.getLong();
+    }
+    var position = start;
+    var end = log.size();
+    log.position(start);
+    var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(log)));
+    while (end - position >= HEADER) {
+      var length = in.readInt();
+      final var checksum = in.readInt();
+      if (length < Byte.BYTES + Long.BYTES || length > end - position - HEADER) {
+        break;
+      }
+      var body = new byte[length];
+      in.readFully(body);
+      var crc = new CRC32();
+      crc.update(body);
+      if ((int) crc.getValue() != checksum) {
+        break;
+      }
+      var record = ByteBuffer.wrap(body);
+      var type = record.get();
+      var seq = record.getLong();
+      if (type == ENQUEUE) {
+        var payload = new byte[record.remaining()];
+        record.get(payload);
+        var entry = new Entry<T>(seq, position, deserialize(payload));
+        unacked.put(seq, entry);
+        visible.put(seq, entry);
+        nextSeq = Math.max(nextSeq, seq + 1);
+      } else if (type == ACK) {
+        unacked.remove(seq);
+        visible.remove(seq);
+      } else {
+        break;
+      }
+      position += HEADER + length;
+    }
+    // anything after the last valid record was torn by a crash
+    log.truncate(position);
+  }
+
+  /**
+   * Fills in the length and the checksum in front of a record written after {@link #HEADER}.
+   */
+  private static byte[] frame(ByteBuffer record) {
+    var length = record.position() - HEADER;
+    var crc = new CRC32();
+    crc.update(record.array(), HEADER, length);
+    record.putInt(0, length).putInt(Integer.BYTES, (int) crc.getValue());
+    return record.array();
+  }
+
+  private static byte[] serialize(Object obj) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new ObjectOutputStream(bytes)) {
+      out.writeObject(obj);
+    }
+    return bytes.toByteArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  private T deserialize(byte[] payload) throws IOException {
+    try (var in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+      return (T) in.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException(e);
+    }
+  }
+}
@@ -26,7 +26,8 @@ package com.iluwatar.commander.queue;
 import com.iluwatar.commander.exceptions.IsEmptyException;
 
 /**
- * Queue data structure implementation.
+ * Queue data structure implementation. All operations synchronize on the queue, so it can be
+ * shared between the threads the commander starts to work on queued tasks.
  *
  * @param <T> is the type of object the queue will hold.
  */
@@ -56,11 +57,11 @@ public class Queue<T> {
     size = 0;
   }
 
-  boolean isEmpty() {
+  synchronized boolean isEmpty() {
     return size == 0;
   }
 
-  void enqueue(T obj) {
+  synchronized void enqueue(T obj) {
     if (front == null) {
       front = new Node<>(obj, null);
       rear = front;
@@ -72,7 +73,7 @@ public class Queue<T> {
     size++;
   }
 
-  T dequeue() throws IsEmptyException {
+  synchronized T dequeue() throws IsEmptyException {
     if (isEmpty()) {
       throw new IsEmptyException();
     } else {
@@ -83,7 +84,7 @@ public class Queue<T> {
     }
   }
 
-  T peek() throws IsEmptyException {
+  synchronized T peek() throws IsEmptyException {
     if (isEmpty()) {
       throw new IsEmptyException();
     } else {
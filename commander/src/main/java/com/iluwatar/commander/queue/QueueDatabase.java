@@ -26,26 +26,55 @@ package com.iluwatar.commander.queue;
 import com.iluwatar.commander.Database;
 import com.iluwatar.commander.exceptions.DatabaseUnavailableException;
 import com.iluwatar.commander.exceptions.IsEmptyException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * QueueDatabase id where the instructions to be implemented are queued.
+ * QueueDatabase id where the instructions to be implemented are queued. By default the tasks are
+ * held in memory; when constructed with a {@link DurableQueue} pending tasks survive a restart.
  */
 
 public class QueueDatabase extends Database<QueueTask> {
 
   private final Queue<QueueTask> data;
+  private final DurableQueue<QueueTask> durable;
   public List<Exception> exceptionsList;
 
+  /**
+   * QueueDatabase constructor for a queue held in memory.
+   *
+   * @param exc are the exceptions to be thrown while accessing the database
+   */
   public QueueDatabase(Exception... exc) {
     this.data = new Queue<>();
+    this.durable = null;
+    this.exceptionsList = new ArrayList<>(List.of(exc));
+  }
+
+  /**
+   * QueueDatabase constructor for a queue persisted to disk.
+   *
+   * @param durable is the log backed queue holding the tasks
+   * @param exc     are the exceptions to be thrown while accessing the database
+   */
+  public QueueDatabase(DurableQueue<QueueTask> durable, Exception... exc) {
+    this.data = null;
+    this.durable = durable;
     this.exceptionsList = new ArrayList<>(List.of(exc));
   }
 
   @Override
-  public QueueTask add(QueueTask t) {
-    data.enqueue(t);
+  public QueueTask add(QueueTask t) throws DatabaseUnavailableException {
+    if (durable == null) {
+      data.enqueue(t);
+    } else {
+      try {
+        durable.enqueue(t);
+      } catch (IOException e) {
+        throw unavailable(e);
+      }
+    }
     return t;
     //even if same thing queued twice, it is taken care of in other dbs
   }
@@ -58,7 +87,7 @@ public class QueueDatabase extends Database<QueueTask> {
    */
 
   public QueueTask peek() throws IsEmptyException {
-    return this.data.peek();
+    return durable == null ? this.data.peek() : this.durable.peek();
   }
 
   /**
@@ -66,10 +95,18 @@ public class QueueDatabase extends Database<QueueTask> {
    *
    * @return object at front of queue
    * @throws IsEmptyException             if queue is empty
+   * @throws DatabaseUnavailableException if the removal cannot be persisted
    */
 
-  public QueueTask dequeue() throws IsEmptyException {
-    return this.data.dequeue();
+  public QueueTask dequeue() throws IsEmptyException, DatabaseUnavailableException {
+    if (durable == null) {
+      return this.data.dequeue();
+    }
+    try {
+      return this.durable.dequeue();
+    } catch (IOException e) {
+      throw unavailable(e);
+    }
   }
 
   @Override
@@ -77,4 +114,10 @@ public class QueueDatabase extends Database<QueueTask> {
     return null;
   }
 
+  private static DatabaseUnavailableException unavailable(IOException cause) {
+    var e = new DatabaseUnavailableException();
+    e.initCause(cause);
+    return e;
+  }
+
 }
@@ -24,12 +24,15 @@
 package com.iluwatar.commander.queue;
 
 import com.iluwatar.commander.Order;
+import java.io.Serializable;
 
 /**
  * QueueTask object is the object enqueued in queue.
  */
 
-public class QueueTask {
+public class QueueTask implements Serializable {
+
+  private static final long serialVersionUID = 5213645L;
 
   /**
    * TaskType is the type of task to be done.
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.commander.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DurableQueueTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void recoversUnacknowledgedItemsAfterCrash() throws Exception {
+    var queue = new DurableQueue<String>(dir);
+    queue.enqueueAll(List.of("a", "b", "c", "d"));
+    var leased = queue.poll(2, 1, 0, TimeUnit.MINUTES);
+    queue.ack(leased.get(0).getSeq());
+    // simulate a crash: the queue is never closed and a write is torn half way
+    Files.write(dir.resolve(DurableQueue.LOG_FILE), new byte[] {1, 0, 0},
+        StandardOpenOption.APPEND);
+
+    var recovered = new DurableQueue<String>(dir);
+    assertEquals(3, recovered.size());
+    assertEquals("b", recovered.dequeue());
+    assertEquals("c", recovered.dequeue());
+    recovered.enqueue("e");
+    recovered.close();
+
+    var reopened = new DurableQueue<String>(dir);
+    assertEquals(2, reopened.size());
+    assertEquals("d", reopened.dequeue());
+    assertEquals("e", reopened.dequeue());
+    assertTrue(reopened.isEmpty());
+    reopened.close();
+  }
+
+  @Test
+  void dropsRecordWithGarbageLength() throws Exception {
+    var queue = new DurableQueue<String>(dir);
+    queue.enqueue("a");
+    var log = dir.resolve(DurableQueue.LOG_FILE);
+    var size = Files.size(log);
+    // a torn header claiming a huge record
+    Files.write(log, new byte[] {(byte) 0x7f, -1, -1, -1, 0, 0, 0, 0, 1},
+        StandardOpenOption.APPEND);
+
+    var recovered = new DurableQueue<String>(dir);
+    assertEquals(1, recovered.size());
+    assertEquals(size, Files.size(log));
+    assertEquals("a", recovered.dequeue());
+    recovered.close();
+  }
+
+  @Test
+  void truncatesAtFirstCorruptRecord() throws Exception {
+    var queue = new DurableQueue<String>(dir);
+    queue.enqueue("a");
+    var log = dir.resolve(DurableQueue.LOG_FILE);
+    var valid = Files.size(log);
+    queue.enqueueAll(List.of("b", "c"));
+    var bytes = Files.readAllBytes(log);
+    // corrupt the payload of "b": it and everything after it is dropped
+    bytes[(int) valid + 20] ^= 0x55;
+    Files.write(log, bytes);
+
+    var recovered = new DurableQueue<String>(dir);
+    assertEquals(1, recovered.size());
+    assertEquals(valid, Files.size(log));
+    assertEquals("a", recovered.dequeue());
+    recovered.enqueue("d");
+    recovered.close();
+
+    var reopened = new DurableQueue<String>(dir);
+    assertEquals(1, reopened.size());
+    assertEquals("d", reopened.dequeue());
+    reopened.close();
+  }
+
+  @Test
+  void redeliversItemsWhoseLeaseExpired() throws Exception {
+    var queue = new DurableQueue<String>();
+    queue.enqueueAll(List.of("a", "b"));
+    assertEquals(2, queue.poll(10, 50, 0, TimeUnit.MILLISECONDS).size());
+    assertTrue(queue.poll(10, 50, 0, TimeUnit.MILLISECONDS).isEmpty());
+
+    var redelivered = queue.poll(10, 1, 1, TimeUnit.SECONDS);
+    assertEquals(2, redelivered.size());
+    redelivered.forEach(d -> ack(queue, d.getSeq()));
+    assertTrue(queue.isEmpty());
+  }
+
+  private static void ack(DurableQueue<String> queue, long seq) {
+    try {
+      queue.ack(seq);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
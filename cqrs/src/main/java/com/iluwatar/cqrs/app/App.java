@@ -25,8 +25,10 @@ package com.iluwatar.cqrs.app;
 
 import com.iluwatar.cqrs.commandes.CommandServiceImpl;
 import com.iluwatar.cqrs.constants.AppConstants;
-import com.iluwatar.cqrs.queries.QueryServiceImpl;
+import com.iluwatar.cqrs.queries.ReadModel;
+import com.iluwatar.cqrs.queries.ReadModelQueryService;
 import com.iluwatar.cqrs.util.HibernateUtil;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +42,9 @@ import org.slf4j.LoggerFactory;
  * of books and authors is done according to the CQRS architecture. A command side that deals with a
  * data model to persist(insert,update,delete) objects to a database. And a query side that uses
  * native queries to get data from the database and return objects as DTOs (Data transfer Objects).
+ *
+ * <p>Instead of querying the database, the query side can also be served by a {@link ReadModel}
+ * that the command side keeps up to date as it commits changes, which is what this example does.
  */
 public class App {
   private static final Logger LOGGER = LoggerFactory.getLogger(App.class);
@@ -50,7 +55,8 @@ public class App {
    * @param args command line args
    */
   public static void main(String[] args) {
-    var commands = new CommandServiceImpl();
+    var readModel = ReadModel.fromWriteStore(HibernateUtil.getSessionFactory());
+    var commands = new CommandServiceImpl(List.of(readModel));
 
     // Create Authors and Books using CommandService
     commands.authorCreated(AppConstants.E_EVANS, "Eric Evans", "evans@email.com");
@@ -66,7 +72,7 @@ public class App {
     commands.bookAddedToAuthor("Domain Specific Languages", 48.89, AppConstants.M_FOWLER);
     commands.authorNameUpdated(AppConstants.E_EVANS, "Eric J. Evans");
 
-    var queries = new QueryServiceImpl();
+    var queries = new ReadModelQueryService(readModel);
 
     // Query the database using QueryService
     var nullAuthor = queries.getAuthorByUsername("username");
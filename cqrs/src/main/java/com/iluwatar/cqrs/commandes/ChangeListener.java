@@ -0,0 +1,52 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.commandes;
+
+import com.iluwatar.cqrs.dto.Author;
+import com.iluwatar.cqrs.dto.Book;
+
+/**
+ * Receives the changes made by the {@link ICommandService} once they have been committed to the
+ * write store. Each notification carries the complete new state of the changed author or book, so
+ * a listener never has to read the write store to apply it.
+ */
+public interface ChangeListener {
+
+  /**
+   * Called after an author has been created or updated.
+   *
+   * @param previousUsername the username before the change, or null if the author is new
+   * @param author           the author after the change
+   */
+  void authorChanged(String previousUsername, Author author);
+
+  /**
+   * Called after a book has been added or updated.
+   *
+   * @param previousTitle  the title before the change, or null if the book is new
+   * @param book           the book after the change
+   * @param authorUsername the username of the book's author
+   */
+  void bookChanged(String previousTitle, Book book, String authorUsername);
+}
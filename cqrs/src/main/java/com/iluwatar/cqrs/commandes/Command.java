@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.commandes;
+
+import java.util.function.Consumer;
+
+/**
+ * One command of the {@link ICommandService}, as a value that can be queued and executed in bulk
+ * with {@link CommandServiceImpl#executeAll(java.util.stream.Stream, int, int)}.
+ */
+public final class Command {
+
+  private final String description;
+  private final Consumer<CommandBatch> action;
+
+  private Command(String description, Consumer<CommandBatch> action) {
+    this.description = description;
+    this.action = action;
+  }
+
+  public static Command authorCreated(String username, String name, String email) {
+    return new Command("authorCreated " + username, b -> b.createAuthor(username, name, email));
+  }
+
+  public static Command bookAddedToAuthor(String title, double price, String username) {
+    return new Command("bookAddedToAuthor " + title, b -> b.addBook(title, price, username));
+  }
+
+  /**
+   * Creates a command that renames an author.
+   *
+   * @param username the author's username
+   * @param name     the new name
+   * @return the command
+   */
+  public static Command authorNameUpdated(String username, String name) {
+    return new Command("authorNameUpdated " + username,
+        b -> b.updateAuthor(username, author -> author.setName(name)));
+  }
+
+  /**
+   * Creates a command that changes an author's username.
+   *
+   * @param oldUsername the current username
+   * @param newUsername the new username
+   * @return the command
+   */
+  public static Command authorUsernameUpdated(String oldUsername, String newUsername) {
+    return new Command("authorUsernameUpdated " + oldUsername,
+        b -> b.updateAuthor(oldUsername, author -> author.setUsername(newUsername)));
+  }
+
+  /**
+   * Creates a command that changes an author's email.
+   *
+   * @param username the author's username
+   * @param email    the new email
+   * @return the command
+   */
+  public static Command authorEmailUpdated(String username, String email) {
+    return new Command("authorEmailUpdated " + username,
+        b -> b.updateAuthor(username, author -> author.setEmail(email)));
+  }
+
+  /**
+   * Creates a command that changes a book's title.
+   *
+   * @param oldTitle the current title
+   * @param newTitle the new title
+   * @return the command
+   */
+  public static Command bookTitleUpdated(String oldTitle, String newTitle) {
+    return new Command("bookTitleUpdated " + oldTitle,
+        b -> b.updateBook(oldTitle, book -> book.setTitle(newTitle)));
+  }
+
+  /**
+   * Creates a command that changes a book's price.
+   *
+   * @param title the book's title
+   * @param price the new price
+   * @return the command
+   */
+  public static Command bookPriceUpdated(String title, double price) {
+    return new Command("bookPriceUpdated " + title,
+        b -> b.updateBook(title, book -> book.setPrice(price)));
+  }
+
+  void execute(CommandBatch batch) {
+    action.accept(batch);
+  }
+
+  @Override
+  public String toString() {
+    return description;
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.commandes;
+
+import com.iluwatar.cqrs.domain.model.Author;
+import com.iluwatar.cqrs.domain.model.Book;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.hibernate.Session;
+
+/**
+ * The state of one transaction of a bulk import: the session, the entities it currently manages
+ * by their natural keys, and the change notifications to publish once it commits.
+ */
+final class CommandBatch {
+
+  private final Session session;
+  private final Map<String, Long> authorIds;
+  private final Map<String, Author> authors = new HashMap<>();
+  private final Map<String, Book> books = new HashMap<>();
+  private final List<Consumer<ChangeListener>> notifications = new ArrayList<>();
+
+  /**
+   * Creates a batch.
+   *
+   * @param session   the session of the transaction
+   * @param authorIds ids of authors by username, shared between transactions so that looking an
+   *                  author up is a primary key read; entries may be stale and are verified
+   */
+  CommandBatch(Session session, Map<String, Long> authorIds) {
+    this.session = session;
+    this.authorIds = authorIds;
+  }
+
+  void createAuthor(String username, String name, String email) {
+    var author = new Author(username, name, email);
+    session.save(author);
+    authors.put(username, author);
+    authorIds.put(username, author.getId());
+    notifyAuthor(null, author);
+  }
+
+  void addBook(String title, double price, String username) {
+    var book = new Book(title, price, author(username));
+    session.save(book);
+    books.put(title, book);
+    notifyBook(null, book);
+  }
+
+  void updateAuthor(String username, Consumer<Author> change) {
+    var author = author(username);
+    change.accept(author);
+    if (!author.getUsername().equals(username)) {
+      authors.remove(username);
+      authorIds.remove(username);
+      authors.put(author.getUsername(), author);
+      authorIds.put(author.getUsername(), author.getId());
+    }
+    notifyAuthor(username, author);
+  }
+
+  void updateBook(String title, Consumer<Book> change) {
+    var book = book(title);
+    change.accept(book);
+    if (!book.getTitle().equals(title)) {
+      books.remove(title);
+      books.put(book.getTitle(), book);
+    }
+    notifyBook(title, book);
+  }
+
+  /**
+   * Sends pending statements to the database and detaches every entity, so the session does not
+   * grow with the size of the transaction.
+   */
+  void flushAndClear() {
+    session.flush();
+    session.clear();
+    authors.clear();
+    books.clear();
+  }
+
+  void publish(List<ChangeListener> listeners) {
+    for (var listener : listeners) {
+      notifications.forEach(notification -> notification.accept(listener));
+    }
+  }
+
+  private Author author(String username) {
+    var author = authors.get(username);
+    if (author != null) {
+      return author;
+    }
+    var id = authorIds.get(username);
+    if (id != null) {
+      author = session.get(Author.class, id);
+    }
+    if (author == null || !author.getUsername().equals(username)) {
+      author = session.createQuery("from Author where username=:username", Author.class)
+          .setParameter("username", username).uniqueResult();
+    }
+    if (author == null) {
+      throw new NullPointerException("Author " + username + " doesn't exist!");
+    }
+    authors.put(username, author);
+    authorIds.put(username, author.getId());
+    return author;
+  }
+
+  private Book book(String title) {
+    var book = books.get(title);
+    if (book == null) {
+      book = session.createQuery("from Book where title=:title", Book.class)
+          .setParameter("title", title).uniqueResult();
+    }
+    if (book == null) {
+      throw new NullPointerException("Book " + title + " doesn't exist!");
+    }
+    books.put(title, book);
+    return book;
+  }
+
+  private void notifyAuthor(String previousUsername, Author author) {
+    var dto = new com.iluwatar.cqrs.dto.Author(author.getName(), author.getEmail(),
+        author.getUsername());
+    notifications.add(listener -> listener.authorChanged(previousUsername, dto));
+  }
+
+  private void notifyBook(String previousTitle, Book book) {
+    var dto = new com.iluwatar.cqrs.dto.Book(book.getTitle(), book.getPrice());
+    var username = book.getAuthor().getUsername();
+    notifications.add(listener -> listener.bookChanged(previousTitle, dto, username));
+  }
+}
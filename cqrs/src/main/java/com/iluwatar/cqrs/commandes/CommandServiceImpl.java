@@ -26,15 +26,41 @@ package com.iluwatar.cqrs.commandes;
 import com.iluwatar.cqrs.domain.model.Author;
 import com.iluwatar.cqrs.domain.model.Book;
 import com.iluwatar.cqrs.util.HibernateUtil;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 import org.hibernate.SessionFactory;
 
 /**
  * This class is an implementation of {@link ICommandService} interface. It uses Hibernate as an api
  * for persistence.
+ *
+ * <p>The commands of a service are executed one at a time, and each one publishes its change
+ * before the next one starts. Listeners thus see the changes in the order they were committed;
+ * as every change carries the full state, a read model applying two changes of the same author
+ * or book in the opposite order would otherwise keep the older state for good.
  */
 public class CommandServiceImpl implements ICommandService {
 
   private final SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+  private final List<ChangeListener> listeners;
+  private final Map<String, Long> authorIds = new ConcurrentHashMap<>();
+
+  public CommandServiceImpl() {
+    this(List.of());
+  }
+
+  /**
+   * Creates a command service that notifies listeners of every committed change, for instance to
+   * keep a read model up to date.
+   *
+   * @param listeners the listeners, notified in order on the thread that issued the command and
+   *                  before the next command starts
+   */
+  public CommandServiceImpl(List<ChangeListener> listeners) {
+    this.listeners = List.copyOf(listeners);
+  }
 
   private Author getAuthorByUsername(String username) {
     Author author;
@@ -64,18 +90,31 @@ public class CommandServiceImpl implements ICommandService {
     return book;
   }
 
+  private void publish(String previousUsername, Author author) {
+    var dto = new com.iluwatar.cqrs.dto.Author(author.getName(), author.getEmail(),
+        author.getUsername());
+    listeners.forEach(listener -> listener.authorChanged(previousUsername, dto));
+  }
+
+  private void publish(String previousTitle, Book book) {
+    var dto = new com.iluwatar.cqrs.dto.Book(book.getTitle(), book.getPrice());
+    var username = book.getAuthor().getUsername();
+    listeners.forEach(listener -> listener.bookChanged(previousTitle, dto, username));
+  }
+
   @Override
-  public void authorCreated(String username, String name, String email) {
+  public synchronized void authorCreated(String username, String name, String email) {
     var author = new Author(username, name, email);
     try (var session = sessionFactory.openSession()) {
       session.beginTransaction();
       session.save(author);
       session.getTransaction().commit();
     }
+    publish(null, author);
   }
 
   @Override
-  public void bookAddedToAuthor(String title, double price, String username) {
+  public synchronized void bookAddedToAuthor(String title, double price, String username) {
     var author = getAuthorByUsername(username);
     var book = new Book(title, price, author);
     try (var session = sessionFactory.openSession()) {
@@ -83,10 +122,11 @@ public class CommandServiceImpl implements ICommandService {
       session.save(book);
       session.getTransaction().commit();
     }
+    publish(null, book);
   }
 
   @Override
-  public void authorNameUpdated(String username, String name) {
+  public synchronized void authorNameUpdated(String username, String name) {
     var author = getAuthorByUsername(username);
     author.setName(name);
     try (var session = sessionFactory.openSession()) {
@@ -94,10 +134,11 @@ public class CommandServiceImpl implements ICommandService {
       session.update(author);
       session.getTransaction().commit();
     }
+    publish(username, author);
   }
 
   @Override
-  public void authorUsernameUpdated(String oldUsername, String newUsername) {
+  public synchronized void authorUsernameUpdated(String oldUsername, String newUsername) {
     var author = getAuthorByUsername(oldUsername);
     author.setUsername(newUsername);
     try (var session = sessionFactory.openSession()) {
@@ -105,10 +146,11 @@ public class CommandServiceImpl implements ICommandService {
       session.update(author);
       session.getTransaction().commit();
     }
+    publish(oldUsername, author);
   }
 
   @Override
-  public void authorEmailUpdated(String username, String email) {
+  public synchronized void authorEmailUpdated(String username, String email) {
     var author = getAuthorByUsername(username);
     author.setEmail(email);
     try (var session = sessionFactory.openSession()) {
@@ -116,10 +158,11 @@ public class CommandServiceImpl implements ICommandService {
       session.update(author);
       session.getTransaction().commit();
     }
+    publish(username, author);
   }
 
   @Override
-  public void bookTitleUpdated(String oldTitle, String newTitle) {
+  public synchronized void bookTitleUpdated(String oldTitle, String newTitle) {
     var book = getBookByTitle(oldTitle);
     book.setTitle(newTitle);
     try (var session = sessionFactory.openSession()) {
@@ -127,10 +170,11 @@ public class CommandServiceImpl implements ICommandService {
       session.update(book);
       session.getTransaction().commit();
     }
+    publish(oldTitle, book);
   }
 
   @Override
-  public void bookPriceUpdated(String title, double price) {
+  public synchronized void bookPriceUpdated(String title, double price) {
     var book = getBookByTitle(title);
     book.setPrice(price);
     try (var session = sessionFactory.openSession()) {
@@ -138,6 +182,59 @@ public class CommandServiceImpl implements ICommandService {
       session.update(book);
       session.getTransaction().commit();
     }
+    publish(title, book);
   }
 
+  /**
+   * Executes a stream of commands in bulk, for instance to import data.
+   *
+   * <p>All commands run in one session. They are committed every {@code transactionSize} commands,
+   * and every {@code batchSize} commands the session is flushed, which sends the pending inserts
+   * and updates as JDBC batches, and then cleared, so memory use does not grow with the size of the
+   * import. Listeners are notified of a transaction's changes once it has committed.
+   *
+   * @param commands        the commands, executed in order
+   * @param transactionSize the number of commands per transaction
+   * @param batchSize       the number of commands between flushes, also the JDBC batch size
+   * @return the number of commands executed
+   * @throws IllegalStateException if a command fails; its transaction is rolled back, while the
+   *                               transactions before it stay committed
+   */
+  public synchronized long executeAll(Stream<Command> commands, int transactionSize,
+      int batchSize) {
+    if (transactionSize <= 0 || batchSize <= 0) {
+      throw new IllegalArgumentException("transactionSize and batchSize must be positive");
+    }
+    var committed = 0L;
+    var iterator = commands.iterator();
+    try (var session = sessionFactory.openSession()) {
+      session.setJdbcBatchSize(batchSize);
+      while (iterator.hasNext()) {
+        var batch = new CommandBatch(session, authorIds);
+        var transaction = session.beginTransaction();
+        var executed = 0;
+        Command command = null;
+        try {
+          while (executed < transactionSize && iterator.hasNext()) {
+            command = iterator.next();
+            command.execute(batch);
+            if (++executed % batchSize == 0) {
+              batch.flushAndClear();
+            }
+          }
+          batch.flushAndClear();
+          transaction.commit();
+        } catch (RuntimeException e) {
+          transaction.rollback();
+          session.clear();
+          authorIds.clear();
+          throw new IllegalStateException("Command " + command + " failed after " + committed
+              + " commands were committed", e);
+        }
+        committed += executed;
+        batch.publish(listeners);
+      }
+    }
+    return committed;
+  }
 }
@@ -27,6 +27,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 
 /**
  * This is an Author entity. It is used by Hibernate for persistence.
@@ -34,7 +35,8 @@ import javax.persistence.Id;
 @Entity
 public class Author {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+  @SequenceGenerator(name = "author_seq", allocationSize = 50)
   private long id;
   private String username;
   private String name;
@@ -28,6 +28,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 
 /**
  * This is a Book entity. It is used by Hibernate for persistence. Many books can be written by one
@@ -36,7 +37,8 @@ import javax.persistence.ManyToOne;
 @Entity
 public class Book {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+  @SequenceGenerator(name = "book_seq", allocationSize = 50)
   private long id;
   private String title;
   private double price;
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs.queries;
+
+import com.iluwatar.cqrs.commandes.ChangeListener;
+import com.iluwatar.cqrs.dto.Author;
+import com.iluwatar.cqrs.dto.Book;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.SessionFactory;
+
+/**
+ * A denormalized, in-memory copy of the write store shaped for the queries of {@link
+ * IQueryService}: authors by username, books by title, and each author's books.
+ *
+ * <p>It is kept up to date incrementally by listening to the command side, so answering a query
+ * is a map lookup. Changes are applied one at a time under a lock, while queries read without
+ * locking. Consistency is per key only: each lookup returns a complete value, either from before
+ * or from after a change, but a change updates several maps one after another, so lookups of
+ * different keys made while it runs may see it partly applied. For instance, during a username
+ * change the author may already be found under the new username while its books are still only
+ * listed under the old one.
+ *
+ * <p>The model is not persisted on its own; {@link #fromWriteStore(SessionFactory)} rebuilds it
+ * when the application starts.
+ */
+public class ReadModel implements ChangeListener {
+
+  private final Map<String, Author> authors = new ConcurrentHashMap<>();
+  private final Map<String, BookEntry> books = new ConcurrentHashMap<>();
+  private final Map<String, List<Book>> authorBooks = new ConcurrentHashMap<>();
+
+  private static final class BookEntry {
+    private final Book book;
+    private final String authorUsername;
+
+    private BookEntry(Book book, String authorUsername) {
+      this.book = book;
+      this.authorUsername = authorUsername;
+    }
+  }
+
+  /**
+   * Builds a read model from everything currently in the write store.
+   *
+   * @param sessionFactory the write store
+   * @return a read model that should then be registered with the command service
+   */
+  public static ReadModel fromWriteStore(SessionFactory sessionFactory) {
+    var model = new ReadModel();
+    try (var session = sessionFactory.openSession()) {
+      var authors = session.createQuery("from Author",
+          com.iluwatar.cqrs.domain.model.Author.class).list();
+      for (var author : authors) {
+        model.authorChanged(null,
+            new Author(author.getName(), author.getEmail(), author.getUsername()));
+      }
+      var books = session.createQuery("from Book",
+          com.iluwatar.cqrs.domain.model.Book.class).list();
+      for (var book : books) {
+        model.bookChanged(null, new Book(book.getTitle(), book.getPrice()),
+            book.getAuthor().getUsername());
+      }
+    }
+    return model;
+  }
+
+  public Author getAuthor(String username) {
+    return authors.get(username);
+  }
+
+  /**
+   * Returns a book by title.
+   *
+   * @param title the title
+   * @return the book, or null if there is none
+   */
+  public Book getBook(String title) {
+    var entry = books.get(title);
+    return entry == null ? null : entry.book;
+  }
+
+  /**
+   * Returns an author's books in the order they were added.
+   *
+   * @param username the author's username
+   * @return an unmodifiable list, empty if the author is unknown
+   */
+  public List<Book> getAuthorBooks(String username) {
+    return authorBooks.getOrDefault(username, List.of());
+  }
+
+  public int getAuthorsCount() {
+    return authors.size();
+  }
+
+  @Override
+  public synchronized void authorChanged(String previousUsername, Author author) {
+    var username = author.getUsername();
+    authors.put(username, author);
+    if (previousUsername != null && !previousUsername.equals(username)) {
+      var moved = authorBooks.get(previousUsername);
+      if (moved != null) {
+        authorBooks.put(username, moved);
+        for (var book : moved) {
+          books.put(book.getTitle(), new BookEntry(book, username));
+        }
+        authorBooks.remove(previousUsername);
+      }
+      authors.remove(previousUsername);
+    }
+  }
+
+  @Override
+  public synchronized void bookChanged(String previousTitle, Book book, String authorUsername) {
+    var previous = previousTitle == null ? null : books.remove(previousTitle);
+    books.put(book.getTitle(), new BookEntry(book, authorUsername));
+    if (previous != null && !previous.authorUsername.equals(authorUsername)) {
+      var old = new ArrayList<>(authorBooks.getOrDefault(previous.authorUsername, List.of()));
+      old.remove(previous.book);
+      authorBooks.put(previous.authorUsername, List.copyOf(old));
+      previous = null;
+    }
+    var list = new ArrayList<>(authorBooks.getOrDefault(authorUsername, List.of()));
+    var index = previous == null ? -1 : list.indexOf(previous.book);
+    if (index >= 0) {
+      list.set(index, book);
+    } else {
+      list.add(book);
+    }
+    authorBooks.put(authorUsername, List.copyOf(list));
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.iluwatar.cqrs.commandes.Command;
+import com.iluwatar.cqrs.commandes.CommandServiceImpl;
+import com.iluwatar.cqrs.dto.Author;
+import com.iluwatar.cqrs.dto.Book;
+import com.iluwatar.cqrs.queries.QueryServiceImpl;
+import com.iluwatar.cqrs.queries.ReadModel;
+import com.iluwatar.cqrs.util.HibernateUtil;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the bulk command API of {@link CommandServiceImpl}.
+ */
+public class BulkCommandTest {
+
+  private ReadModel readModel;
+  private CommandServiceImpl commandService;
+  private QueryServiceImpl queryService;
+
+  @BeforeEach
+  public void setUp() {
+    readModel = new ReadModel();
+    commandService = new CommandServiceImpl(List.of(readModel));
+    queryService = new QueryServiceImpl();
+  }
+
+  /**
+   * Removes the rows created by the test so the counts seen by other tests are unaffected.
+   */
+  @AfterEach
+  public void deleteCreatedRows() {
+    try (var session = HibernateUtil.getSessionFactory().openSession()) {
+      session.beginTransaction();
+      session.createQuery("delete from Book where title like 'bulk_%'").executeUpdate();
+      session.createQuery("delete from Author where username like 'bulk_%'").executeUpdate();
+      session.getTransaction().commit();
+    }
+  }
+
+  @Test
+  public void bulkCommandsShouldBeAppliedInOrder() {
+    var books = IntStream.range(0, 10)
+        .mapToObj(i -> Command.bookAddedToAuthor("bulk_title" + i, i, "bulk_author" + i % 2));
+    var commands = Stream.of(
+        Stream.of(Command.authorCreated("bulk_author0", "name0", "email0"),
+            Command.authorCreated("bulk_author1", "name1", "email1")),
+        books,
+        Stream.of(Command.bookPriceUpdated("bulk_title3", 33),
+            Command.bookTitleUpdated("bulk_title3", "bulk_new_title3"),
+            Command.authorNameUpdated("bulk_author1", "new_name1"),
+            Command.authorUsernameUpdated("bulk_author1", "bulk_new_author1"),
+            Command.authorEmailUpdated("bulk_new_author1", "new_email1")))
+        .flatMap(s -> s);
+
+    assertEquals(17, commandService.executeAll(commands, 4, 3));
+
+    assertEquals(new Author("new_name1", "new_email1", "bulk_new_author1"),
+        queryService.getAuthorByUsername("bulk_new_author1"));
+    assertNull(queryService.getAuthorByUsername("bulk_author1"));
+    assertEquals(BigInteger.valueOf(5), queryService.getAuthorBooksCount("bulk_new_author1"));
+    assertEquals(new Book("bulk_new_title3", 33), queryService.getBook("bulk_new_title3"));
+    assertEquals(Set.of(new Book("bulk_title1", 1), new Book("bulk_new_title3", 33),
+        new Book("bulk_title5", 5), new Book("bulk_title7", 7), new Book("bulk_title9", 9)),
+        new HashSet<>(queryService.getAuthorBooks("bulk_new_author1")));
+  }
+
+  @Test
+  public void listenersShouldSeeCommittedChanges() {
+    commandService.executeAll(Stream.of(
+        Command.authorCreated("bulk_author", "name", "email"),
+        Command.bookAddedToAuthor("bulk_title", 10, "bulk_author"),
+        Command.bookPriceUpdated("bulk_title", 12)), 2, 1);
+
+    assertEquals(queryService.getAuthorByUsername("bulk_author"),
+        readModel.getAuthor("bulk_author"));
+    assertEquals(List.of(new Book("bulk_title", 12)), readModel.getAuthorBooks("bulk_author"));
+  }
+
+  @Test
+  public void failedCommandShouldRollBackOnlyItsTransaction() {
+    var commands = Stream.of(
+        Command.authorCreated("bulk_author", "name", "email"),
+        Command.bookAddedToAuthor("bulk_title1", 10, "bulk_author"),
+        Command.bookAddedToAuthor("bulk_title2", 20, "bulk_author"),
+        Command.bookAddedToAuthor("bulk_title3", 30, "bulk_missing"));
+
+    assertThrows(IllegalStateException.class, () -> commandService.executeAll(commands, 2, 2));
+
+    assertNotNull(queryService.getAuthorByUsername("bulk_author"));
+    assertNotNull(queryService.getBook("bulk_title1"));
+    assertNull(queryService.getBook("bulk_title2"));
+    assertNull(readModel.getBook("bulk_title2"));
+    assertEquals(List.of(new Book("bulk_title1", 10)), readModel.getAuthorBooks("bulk_author"));
+  }
+
+  @Test
+  public void sizesShouldBePositive() {
+    assertThrows(IllegalArgumentException.class,
+        () -> commandService.executeAll(Stream.empty(), 0, 1));
+  }
+}
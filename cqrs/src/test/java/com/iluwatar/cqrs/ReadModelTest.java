@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.cqrs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.iluwatar.cqrs.commandes.CommandServiceImpl;
+import com.iluwatar.cqrs.dto.Author;
+import com.iluwatar.cqrs.dto.Book;
+import com.iluwatar.cqrs.queries.IQueryService;
+import com.iluwatar.cqrs.queries.QueryServiceImpl;
+import com.iluwatar.cqrs.queries.ReadModel;
+import com.iluwatar.cqrs.queries.ReadModelQueryService;
+import com.iluwatar.cqrs.util.HibernateUtil;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a {@link ReadModel} kept up to date by the command side answers queries the same way
+ * as the database.
+ */
+public class ReadModelTest {
+
+  private static final List<String> USERNAMES = List.of("rm_author1", "rm_new_author2");
+  private static final List<String> TITLES = List.of("rm_title1", "rm_new_title2", "rm_title3");
+
+  private static ReadModel readModel;
+  private static IQueryService sqlQueries;
+  private static IQueryService modelQueries;
+
+  @BeforeAll
+  public static void initializeAndPopulateDatabase() {
+    readModel = new ReadModel();
+    var commandService = new CommandServiceImpl(List.of(readModel));
+    sqlQueries = new QueryServiceImpl();
+    modelQueries = new ReadModelQueryService(readModel);
+
+    commandService.authorCreated("rm_author1", "name1", "email1");
+    commandService.authorCreated("rm_author2", "name2", "email2");
+    commandService.bookAddedToAuthor("rm_title1", 10, "rm_author1");
+    commandService.bookAddedToAuthor("rm_title2", 20, "rm_author1");
+    commandService.bookAddedToAuthor("rm_title3", 5, "rm_author2");
+    commandService.bookPriceUpdated("rm_title2", 30);
+    commandService.bookTitleUpdated("rm_title2", "rm_new_title2");
+    commandService.authorEmailUpdated("rm_author2", "new_email2");
+    commandService.authorNameUpdated("rm_author2", "new_name2");
+    commandService.authorUsernameUpdated("rm_author2", "rm_new_author2");
+  }
+
+  /**
+   * Removes the rows created by this test so the counts seen by other tests are unaffected.
+   */
+  @AfterAll
+  public static void deleteCreatedRows() {
+    try (var session = HibernateUtil.getSessionFactory().openSession()) {
+      session.beginTransaction();
+      session.createQuery("delete from Book where title in (:titles)")
+          .setParameter("titles", TITLES).executeUpdate();
+      session.createQuery("delete from Author where username in (:usernames)")
+          .setParameter("usernames", USERNAMES).executeUpdate();
+      session.getTransaction().commit();
+    }
+  }
+
+  @Test
+  public void readModelShouldAnswerLikeTheDatabase() {
+    for (var username : List.of("rm_author1", "rm_author2", "rm_new_author2", "unknown")) {
+      assertEquals(sqlQueries.getAuthorByUsername(username),
+          modelQueries.getAuthorByUsername(username));
+      assertEquals(new HashSet<>(sqlQueries.getAuthorBooks(username)),
+          new HashSet<>(modelQueries.getAuthorBooks(username)));
+      assertEquals(sqlQueries.getAuthorBooksCount(username),
+          modelQueries.getAuthorBooksCount(username));
+    }
+    for (var title : List.of("rm_title1", "rm_title2", "rm_new_title2", "rm_title3")) {
+      assertEquals(sqlQueries.getBook(title), modelQueries.getBook(title));
+    }
+  }
+
+  @Test
+  public void readModelRebuiltFromWriteStoreShouldAnswerLikeTheDatabase() {
+    var rebuilt = new ReadModelQueryService(
+        ReadModel.fromWriteStore(HibernateUtil.getSessionFactory()));
+
+    assertEquals(sqlQueries.getAuthorsCount(), rebuilt.getAuthorsCount());
+    for (var username : USERNAMES) {
+      assertEquals(sqlQueries.getAuthorByUsername(username), rebuilt.getAuthorByUsername(username));
+      assertEquals(new HashSet<>(sqlQueries.getAuthorBooks(username)),
+          new HashSet<>(rebuilt.getAuthorBooks(username)));
+    }
+  }
+
+  @Test
+  public void renamedAuthorShouldKeepBooks() {
+    assertNull(modelQueries.getAuthorByUsername("rm_author2"));
+    assertEquals(new Author("new_name2", "new_email2", "rm_new_author2"),
+        modelQueries.getAuthorByUsername("rm_new_author2"));
+    assertEquals(List.of(new Book("rm_title3", 5)), modelQueries.getAuthorBooks("rm_new_author2"));
+    assertTrue(modelQueries.getAuthorBooks("rm_author2").isEmpty());
+  }
+
+  @Test
+  public void updatedBookShouldReplaceOldEntry() {
+    assertEquals(List.of(new Book("rm_title1", 10), new Book("rm_new_title2", 30)),
+        modelQueries.getAuthorBooks("rm_author1"));
+    assertEquals(BigInteger.TWO, modelQueries.getAuthorBooksCount("rm_author1"));
+    assertNull(modelQueries.getBook("rm_title2"));
+  }
+
+  @Test
+  public void bookMovedToAnotherAuthorShouldLeaveTheFirst() {
+    var model = new ReadModel();
+    model.bookChanged(null, new Book("t", 1), "a");
+    model.bookChanged("t", new Book("t", 1), "b");
+
+    assertTrue(model.getAuthorBooks("a").isEmpty());
+    assertEquals(List.of(new Book("t", 1)), model.getAuthorBooks("b"));
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.dao;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * A {@link CustomerDao} decorator that caches {@link #getById(int)} lookups.
+ *
+ * <p>The cache holds at most {@code capacity} ids, evicting the least recently used one, and an
+ * entry expires {@code ttl} after it was loaded. Lookups of missing customers are cached too.
+ * Every write through this DAO invalidates the ids it touches after the delegate has been updated,
+ * and a lookup that raced with a write does not store what it read, so readers never see a value
+ * older than the last write made through this DAO. Writes made to the underlying store by other
+ * means are seen once the entry expires.
+ *
+ * <p>Customers are mutable, so the cache hands out copies.
+ */
+public class CachingCustomerDao implements CustomerDao {
+
+  private final CustomerDao delegate;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+  private final Map<Integer, Entry> cache;
+  private long writes;
+  private long hits;
+  private long misses;
+
+  private static final class Entry {
+    private final Customer customer;
+    private final long expiresAt;
+
+    private Entry(Customer customer, long expiresAt) {
+      this.customer = customer;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  /**
+   * Creates a caching decorator.
+   *
+   * @param delegate the DAO that owns the customers.
+   * @param capacity the maximum number of cached ids.
+   * @param ttl      how long a cached lookup stays valid.
+   */
+  public CachingCustomerDao(CustomerDao delegate, int capacity, Duration ttl) {
+    this(delegate, capacity, ttl, System::nanoTime);
+  }
+
+  CachingCustomerDao(CustomerDao delegate, int capacity, Duration ttl, LongSupplier clock) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.delegate = delegate;
+    this.ttlNanos = ttl.toNanos();
+    this.clock = clock;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Not cached; always reads from the delegate.
+   */
+  @Override
+  public Stream<Customer> getAll() throws Exception {
+    return delegate.getAll();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Optional<Customer> getById(int id) throws Exception {
+    long writesBefore;
+    synchronized (this) {
+      var entry = cache.get(id);
+      if (entry != null && clock.getAsLong() - entry.expiresAt < 0) {
+        hits++;
+        return Optional.ofNullable(copy(entry.customer));
+      }
+      misses++;
+      writesBefore = writes;
+    }
+    var customer = delegate.getById(id);
+    synchronized (this) {
+      if (writes == writesBefore) {
+        cache.put(id, new Entry(copy(customer.orElse(null)), clock.getAsLong() + ttlNanos));
+      }
+    }
+    return customer;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean add(Customer customer) throws Exception {
+    try {
+      return delegate.add(customer);
+    } finally {
+      invalidate(customer);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean update(Customer customer) throws Exception {
+    try {
+      return delegate.update(customer);
+    } finally {
+      invalidate(customer);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean delete(Customer customer) throws Exception {
+    try {
+      return delegate.delete(customer);
+    } finally {
+      invalidate(customer);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int addAll(Collection<Customer> customers) throws Exception {
+    try {
+      return delegate.addAll(customers);
+    } finally {
+      invalidate(customers);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int updateAll(Collection<Customer> customers) throws Exception {
+    try {
+      return delegate.updateAll(customers);
+    } finally {
+      invalidate(customers);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int deleteAll(Collection<Customer> customers) throws Exception {
+    try {
+      return delegate.deleteAll(customers);
+    } finally {
+      invalidate(customers);
+    }
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  private synchronized void invalidate(Customer customer) {
+    writes++;
+    cache.remove(customer.getId());
+  }
+
+  private synchronized void invalidate(Collection<Customer> customers) {
+    writes++;
+    for (var customer : customers) {
+      cache.remove(customer.getId());
+    }
+  }
+
+  private static Customer copy(Customer customer) {
+    return customer == null
+        ? null
+        : new Customer(customer.getId(), customer.getFirstName(), customer.getLastName());
+  }
+}
@@ -23,6 +23,7 @@
 
 package com.iluwatar.dao;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -88,4 +89,55 @@ public interface CustomerDao {
    * @throws Exception if any error occurs.
    */
   boolean delete(Customer customer) throws Exception;
+
+  /**
+   * Add every customer that does not exist yet.
+   *
+   * @param customers the customers to be added.
+   * @return the number of customers added.
+   * @throws Exception if any error occurs.
+   */
+  default int addAll(Collection<Customer> customers) throws Exception {
+    var added = 0;
+    for (var customer : customers) {
+      if (add(customer)) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Update every customer that exists.
+   *
+   * @param customers the customers to be updated.
+   * @return the number of customers updated.
+   * @throws Exception if any error occurs.
+   */
+  default int updateAll(Collection<Customer> customers) throws Exception {
+    var updated = 0;
+    for (var customer : customers) {
+      if (update(customer)) {
+        updated++;
+      }
+    }
+    return updated;
+  }
+
+  /**
+   * Delete every customer that exists.
+   *
+   * @param customers the customers to be deleted.
+   * @return the number of customers deleted.
+   * @throws Exception if any error occurs.
+   */
+  default int deleteAll(Collection<Customer> customers) throws Exception {
+    var deleted = 0;
+    for (var customer : customers) {
+      if (delete(customer)) {
+        deleted++;
+      }
+    }
+    return deleted;
+  }
 }
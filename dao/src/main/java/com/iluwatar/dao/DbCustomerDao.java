@@ -27,10 +27,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
@@ -44,6 +49,26 @@ public class DbCustomerDao implements CustomerDao {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DbCustomerDao.class);
 
+  private static final int BATCH_SIZE = 1000;
+
+  /**
+   * Columns of the customers table, for reading only part of each row.
+   */
+  public enum Column {
+    ID("ID"), FIRST_NAME("FNAME"), LAST_NAME("LNAME");
+
+    private final String name;
+
+    Column(String name) {
+      this.name = name;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Binder {
+    void bind(PreparedStatement statement, Customer customer) throws SQLException;
+  }
+
   private final DataSource dataSource;
 
   /**
@@ -61,7 +86,8 @@ public class DbCustomerDao implements CustomerDao {
    *
    * @return a lazily populated stream of customers. Note the stream returned must be closed to free
    *     all the acquired resources. The stream keeps an open connection to the database till it is
-   *     complete or is closed manually.
+   *     complete or is closed manually. {@link #getAll(int, Column...)} holds no connection
+   *     between pages.
    */
   @Override
   public Stream<Customer> getAll() throws Exception {
@@ -76,6 +102,7 @@ public class DbCustomerDao implements CustomerDao {
         public boolean tryAdvance(Consumer<? super Customer> action) {
           try {
             if (!resultSet.next()) {
+              mutedClose(connection, statement, resultSet);
               return false;
             }
             action.accept(createCustomer(resultSet));
@@ -90,6 +117,77 @@ public class DbCustomerDao implements CustomerDao {
     }
   }
 
+  /**
+   * Get all customers ordered by id, reading a page of customers at a time.
+   *
+   * <p>Each page is fetched with a keyset query ({@code WHERE ID > last id of previous page}), so
+   * fetching a page costs the same however deep into the table it is, and the connection is
+   * returned to the data source as soon as the page has been read. The stream therefore never
+   * leaks database resources, even if it is abandoned without being closed.</p>
+   *
+   * @param pageSize the number of customers fetched per query, also used as the JDBC fetch size.
+   * @param columns  the columns to read; customer fields for the other columns are left
+   *                 {@code null}. The id is always read. Reads all columns if none are given.
+   * @return a lazily populated stream of customers.
+   */
+  public Stream<Customer> getAll(int pageSize, Column... columns) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+    }
+    var selected = columns.length == 0 ? Arrays.asList(Column.values()) : Arrays.asList(columns);
+    var sql = "SELECT ID"
+        + selected.stream().filter(c -> c != Column.ID).map(c -> ", " + c.name)
+            .collect(Collectors.joining())
+        + " FROM CUSTOMERS WHERE ID > ? ORDER BY ID LIMIT ?";
+    var readFirstName = selected.contains(Column.FIRST_NAME);
+    var readLastName = selected.contains(Column.LAST_NAME);
+    return StreamSupport.stream(new Spliterators.AbstractSpliterator<Customer>(Long.MAX_VALUE,
+        Spliterator.ORDERED | Spliterator.NONNULL) {
+
+      private List<Customer> page = List.of();
+      private int index;
+      private boolean lastPage;
+
+      @Override
+      public boolean tryAdvance(Consumer<? super Customer> action) {
+        if (index == page.size()) {
+          if (lastPage) {
+            return false;
+          }
+          var lastId = page.isEmpty() ? Integer.MIN_VALUE : page.get(page.size() - 1).getId();
+          page = fetchPage(lastId);
+          index = 0;
+          lastPage = page.size() < pageSize;
+          if (page.isEmpty()) {
+            return false;
+          }
+        }
+        action.accept(page.get(index++));
+        return true;
+      }
+
+      private List<Customer> fetchPage(int lastId) {
+        try (var connection = getConnection();
+             var statement = connection.prepareStatement(sql)) {
+          statement.setFetchSize(pageSize);
+          statement.setInt(1, lastId);
+          statement.setInt(2, pageSize);
+          try (var resultSet = statement.executeQuery()) {
+            var customers = new ArrayList<Customer>(pageSize);
+            while (resultSet.next()) {
+              customers.add(new Customer(resultSet.getInt("ID"),
+                  readFirstName ? resultSet.getString("FNAME") : null,
+                  readLastName ? resultSet.getString("LNAME") : null));
+            }
+            return customers;
+          }
+        } catch (SQLException e) {
+          throw new RuntimeException(e); // NOSONAR
+        }
+      }
+    }, false);
+  }
+
   private Connection getConnection() throws SQLException {
     return dataSource.getConnection();
   }
@@ -189,4 +287,96 @@ public class DbCustomerDao implements CustomerDao {
       throw new CustomException(ex.getMessage(), ex);
     }
   }
+
+  /**
+   * Add every customer that does not exist yet, in a single transaction using JDBC batches.
+   *
+   * @param customers the customers to be added.
+   * @return the number of customers added.
+   * @throws Exception if any error occurs, in which case no customer is added.
+   */
+  @Override
+  public int addAll(Collection<Customer> customers) throws Exception {
+    return executeBatch("INSERT INTO CUSTOMERS SELECT ?, ?, ? FROM DUAL "
+        + "WHERE NOT EXISTS (SELECT 1 FROM CUSTOMERS WHERE ID = ?)", customers, (s, c) -> {
+          s.setInt(1, c.getId());
+          s.setString(2, c.getFirstName());
+          s.setString(3, c.getLastName());
+          s.setInt(4, c.getId());
+        });
+  }
+
+  /**
+   * Update every customer that exists, in a single transaction using JDBC batches.
+   *
+   * @param customers the customers to be updated.
+   * @return the number of customers updated.
+   * @throws Exception if any error occurs, in which case no customer is updated.
+   */
+  @Override
+  public int updateAll(Collection<Customer> customers) throws Exception {
+    return executeBatch("UPDATE CUSTOMERS SET FNAME = ?, LNAME = ? WHERE ID = ?", customers,
+        (s, c) -> {
+          s.setString(1, c.getFirstName());
+          s.setString(2, c.getLastName());
+          s.setInt(3, c.getId());
+        });
+  }
+
+  /**
+   * Delete every customer that exists, in a single transaction using JDBC batches.
+   *
+   * @param customers the customers to be deleted.
+   * @return the number of customers deleted.
+   * @throws Exception if any error occurs, in which case no customer is deleted.
+   */
+  @Override
+  public int deleteAll(Collection<Customer> customers) throws Exception {
+    return executeBatch("DELETE FROM CUSTOMERS WHERE ID = ?", customers,
+        (s, c) -> s.setInt(1, c.getId()));
+  }
+
+  private int executeBatch(String sql, Collection<Customer> customers, Binder binder)
+      throws Exception {
+    if (customers.isEmpty()) {
+      return 0;
+    }
+    try (var connection = getConnection()) {
+      var autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try (var statement = connection.prepareStatement(sql)) {
+        var affected = 0;
+        var batched = 0;
+        for (var customer : customers) {
+          binder.bind(statement, customer);
+          statement.addBatch();
+          if (++batched == BATCH_SIZE) {
+            affected += sum(statement.executeBatch());
+            batched = 0;
+          }
+        }
+        if (batched > 0) {
+          affected += sum(statement.executeBatch());
+        }
+        connection.commit();
+        return affected;
+      } catch (Throwable ex) {
+        // restoring auto-commit would otherwise commit the batches already executed
+        connection.rollback();
+        throw ex;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch (SQLException ex) {
+      throw new CustomException(ex.getMessage(), ex);
+    }
+  }
+
+  private static int sum(int[] updateCounts) {
+    var sum = 0;
+    for (var count : updateCounts) {
+      sum += Math.max(count, 0);
+    }
+    return sum;
+  }
 }
@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.dao;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * A {@link DataSource} wrapper that measures how long the application spends acquiring
+ * connections, executing each SQL statement and closing connections.
+ *
+ * <p>Connections and statements handed out are dynamic proxies around the real ones. Statement
+ * latencies are kept per SQL text, so parameterised statements aggregate across their parameters.
+ */
+public class InstrumentedDataSource implements DataSource {
+
+  private final DataSource delegate;
+  private final LatencyHistogram acquireLatency = new LatencyHistogram();
+  private final LatencyHistogram closeLatency = new LatencyHistogram();
+  private final Map<String, LatencyHistogram> statementLatency = new ConcurrentHashMap<>();
+
+  public InstrumentedDataSource(DataSource delegate) {
+    this.delegate = delegate;
+  }
+
+  public LatencyHistogram getAcquireLatency() {
+    return acquireLatency;
+  }
+
+  public LatencyHistogram getCloseLatency() {
+    return closeLatency;
+  }
+
+  /**
+   * Returns the execution latency of every statement run so far, keyed by SQL text.
+   *
+   * @return an unmodifiable live view
+   */
+  public Map<String, LatencyHistogram> getStatementLatencies() {
+    return Collections.unmodifiableMap(statementLatency);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    var start = System.nanoTime();
+    var connection = delegate.getConnection();
+    acquireLatency.record(System.nanoTime() - start);
+    return wrap(connection);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    var start = System.nanoTime();
+    var connection = delegate.getConnection(username, password);
+    acquireLatency.record(System.nanoTime() - start);
+    return wrap(connection);
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || delegate.isWrapperFor(iface);
+  }
+
+  private Connection wrap(Connection connection) {
+    return proxy(Connection.class, connection, (target, method, args) -> {
+      var start = System.nanoTime();
+      var result = invoke(target, method, args);
+      var name = method.getName();
+      if ("close".equals(name)) {
+        closeLatency.record(System.nanoTime() - start);
+      } else if ("prepareStatement".equals(name)) {
+        return wrap(PreparedStatement.class, (PreparedStatement) result, (String) args[0]);
+      } else if ("createStatement".equals(name)) {
+        return wrap(Statement.class, (Statement) result, null);
+      }
+      return result;
+    });
+  }
+
+  private <T extends Statement> T wrap(Class<T> type, T statement, String sql) {
+    return proxy(type, statement, (target, method, args) -> {
+      if (!method.getName().startsWith("execute")) {
+        return invoke(target, method, args);
+      }
+      var key = sql != null ? sql : args != null && args[0] instanceof String
+          ? (String) args[0] : method.getName();
+      var start = System.nanoTime();
+      try {
+        return invoke(target, method, args);
+      } finally {
+        statementLatency.computeIfAbsent(key, k -> new LatencyHistogram())
+            .record(System.nanoTime() - start);
+      }
+    });
+  }
+
+  private interface Handler<T> {
+    Object handle(T target, Method method, Object[] args) throws Throwable;
+  }
+
+  private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+    InvocationHandler invocationHandler = (proxy, method, args) -> {
+      if ("unwrap".equals(method.getName()) && type.equals(args[0])) {
+        return proxy;
+      }
+      return handler.handle(target, method, args);
+    };
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+        invocationHandler));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
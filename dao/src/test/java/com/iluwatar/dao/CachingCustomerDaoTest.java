@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link CachingCustomerDao}.
+ */
+public class CachingCustomerDaoTest {
+
+  private static final Customer CUSTOMER = new Customer(1, "Freddy", "Krueger");
+
+  private final AtomicLong clock = new AtomicLong();
+  private CustomerDao delegate;
+  private CachingCustomerDao dao;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    delegate = spy(new InMemoryCustomerDao());
+    dao = new CachingCustomerDao(delegate, 2, Duration.ofSeconds(10), clock::get);
+    assertTrue(dao.add(CUSTOMER));
+    clearInvocations(delegate);
+  }
+
+  @Test
+  public void repeatedLookupsShouldBeServedFromCache() throws Exception {
+    assertEquals(CUSTOMER, dao.getById(1).get());
+    assertEquals(CUSTOMER, dao.getById(1).get());
+    assertFalse(dao.getById(2).isPresent());
+    assertFalse(dao.getById(2).isPresent());
+
+    verify(delegate, times(1)).getById(1);
+    verify(delegate, times(1)).getById(2);
+    assertEquals(2, dao.getHits());
+    assertEquals(2, dao.getMisses());
+  }
+
+  @Test
+  public void cachedCustomerShouldNotBeSharedWithCallers() throws Exception {
+    dao.getById(1).get().setFirstName("Changed");
+
+    var cached = dao.getById(1).get();
+
+    assertEquals("Freddy", cached.getFirstName());
+    assertNotSame(cached, dao.getById(1).get());
+  }
+
+  @Test
+  public void entriesShouldExpireAfterTtl() throws Exception {
+    dao.getById(1);
+    clock.addAndGet(Duration.ofSeconds(10).toNanos());
+    dao.getById(1);
+
+    verify(delegate, times(2)).getById(1);
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryShouldBeEvicted() throws Exception {
+    dao.getById(1);
+    dao.getById(2);
+    dao.getById(1);
+    dao.getById(3);
+
+    assertEquals(2, dao.size());
+    dao.getById(1);
+    dao.getById(2);
+    verify(delegate, times(1)).getById(1);
+    verify(delegate, times(2)).getById(2);
+  }
+
+  @Test
+  public void writesShouldInvalidateCachedEntries() throws Exception {
+    dao.getById(1);
+    dao.update(new Customer(1, "Robert", "Englund"));
+    assertEquals("Robert", dao.getById(1).get().getFirstName());
+
+    dao.delete(CUSTOMER);
+    assertFalse(dao.getById(1).isPresent());
+
+    dao.addAll(List.of(CUSTOMER));
+    assertEquals("Freddy", dao.getById(1).get().getFirstName());
+  }
+}
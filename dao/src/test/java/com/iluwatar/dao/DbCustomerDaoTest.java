@@ -25,6 +25,7 @@ package com.iluwatar.dao;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
@@ -35,6 +36,10 @@ import static org.mockito.Mockito.mock;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.sql.DataSource;
 import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.AfterEach;
@@ -173,6 +178,88 @@ public class DbCustomerDaoTest {
         assertEquals(newLastname, cust.getLastName());
       }
     }
+    /**
+     * Represents the scenario when DAO operations are performed on many customers at once.
+     */
+    @Nested
+    public class BulkOperations {
+
+      private final List<Customer> customers = IntStream.rangeClosed(1, 25)
+          .mapToObj(id -> new Customer(id, "First" + id, "Last" + id))
+          .collect(Collectors.toList());
+
+      @Test
+      public void addingAllShouldSkipExistingCustomers() throws Exception {
+        assertEquals(24, dao.addAll(customers));
+
+        assertCustomerCountIs(25);
+        assertEquals("Freddy", dao.getById(existingCustomer.getId()).get().getFirstName());
+        assertEquals("First25", dao.getById(25).get().getFirstName());
+      }
+
+      @Test
+      public void addingAllShouldAddNothingIfAnyCustomerFails() throws Exception {
+        var tooLong = new Customer(26, "x".repeat(101), "Englund");
+        var batch = List.of(new Customer(2, "Robert", "Englund"), tooLong);
+
+        assertThrows(CustomException.class, () -> dao.addAll(batch));
+        assertCustomerCountIs(1);
+      }
+
+      @Test
+      public void addingAllShouldAddNothingIfAnElementFailsAfterAFullBatch() throws Exception {
+        var batch = IntStream.rangeClosed(2, 1001)
+            .mapToObj(id -> new Customer(id, "First" + id, "Last" + id))
+            .collect(Collectors.toCollection(ArrayList<Customer>::new));
+        batch.add(null);
+
+        assertThrows(NullPointerException.class, () -> dao.addAll(batch));
+        assertCustomerCountIs(1);
+      }
+
+      @Test
+      public void updatingAllShouldOnlyUpdateExistingCustomers() throws Exception {
+        dao.add(new Customer(2, "Robert", "Englund"));
+
+        assertEquals(2, dao.updateAll(customers));
+
+        assertEquals("First2", dao.getById(2).get().getFirstName());
+        assertFalse(dao.getById(3).isPresent());
+      }
+
+      @Test
+      public void deletingAllShouldOnlyDeleteExistingCustomers() throws Exception {
+        dao.addAll(customers.subList(0, 10));
+
+        assertEquals(10, dao.deleteAll(customers));
+        assertCustomerCountIs(0);
+      }
+
+      @Test
+      public void pagedRetrievalShouldReturnAllCustomersInIdOrder() throws Exception {
+        dao.addAll(customers);
+
+        var ids = dao.getAll(4).map(Customer::getId).collect(Collectors.toList());
+
+        assertEquals(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()), ids);
+      }
+
+      @Test
+      public void pagedRetrievalShouldReadOnlyRequestedColumns() throws Exception {
+        dao.addAll(customers);
+
+        var customer = dao.getAll(10, DbCustomerDao.Column.LAST_NAME)
+            .filter(c -> c.getId() == 7).findFirst().get();
+
+        assertNull(customer.getFirstName());
+        assertEquals("Last7", customer.getLastName());
+      }
+
+      @Test
+      public void pagedRetrievalShouldRejectNonPositivePageSize() {
+        assertThrows(IllegalArgumentException.class, () -> dao.getAll(0));
+      }
+    }
   }
 
   /**
@@ -233,6 +320,13 @@ public class DbCustomerDaoTest {
       });
     }
 
+    @Test
+    public void addingAllCustomersFailsWithExceptionAsFeedbackToClient() {
+      assertThrows(Exception.class, () -> {
+        dao.addAll(List.of(new Customer(2, "Bernard", "Montgomery")));
+      });
+    }
+
     @Test
     public void retrievingAllCustomersFailsWithExceptionAsFeedbackToClient() {
       assertThrows(Exception.class, () -> {
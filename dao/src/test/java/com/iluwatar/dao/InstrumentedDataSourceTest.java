@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link InstrumentedDataSource}.
+ */
+public class InstrumentedDataSourceTest {
+
+  private InstrumentedDataSource dataSource;
+
+  /**
+   * Creates the customers schema in an in-memory database.
+   *
+   * @throws SQLException if there is any error while creating schema.
+   */
+  @BeforeEach
+  public void setUp() throws SQLException {
+    var h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+    dataSource = new InstrumentedDataSource(h2);
+    try (var connection = dataSource.getConnection();
+         var statement = connection.createStatement()) {
+      statement.execute(CustomerSchemaSql.CREATE_SCHEMA_SQL);
+    }
+  }
+
+  /**
+   * Drops the customers schema.
+   *
+   * @throws SQLException if any error occurs.
+   */
+  @AfterEach
+  public void tearDown() throws SQLException {
+    try (var connection = dataSource.getConnection();
+         var statement = connection.createStatement()) {
+      statement.execute(CustomerSchemaSql.DELETE_SCHEMA_SQL);
+    }
+  }
+
+  @Test
+  public void shouldRecordLatenciesPerStatement() throws Exception {
+    var dao = new DbCustomerDao(dataSource);
+    dao.add(new Customer(1, "Freddy", "Krueger"));
+    dao.getById(1);
+    dao.getById(2);
+
+    var latencies = dataSource.getStatementLatencies();
+    assertEquals(3, latencies.get("SELECT * FROM CUSTOMERS WHERE ID = ?").getCount());
+    assertEquals(1, latencies.get("INSERT INTO CUSTOMERS VALUES (?,?,?)").getCount());
+    assertEquals(1, latencies.get(CustomerSchemaSql.CREATE_SCHEMA_SQL).getCount());
+    assertEquals(5, dataSource.getAcquireLatency().getCount());
+    assertEquals(5, dataSource.getCloseLatency().getCount());
+  }
+
+  @Test
+  public void shouldUnwrapToItself() throws Exception {
+    assertSame(dataSource, dataSource.unwrap(InstrumentedDataSource.class));
+    assertTrue(dataSource.isWrapperFor(InstrumentedDataSource.class));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+  @Test
+  public void emptyHistogramShouldReportZero() {
+    var histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentile(99));
+    assertEquals(0.0, histogram.getMean());
+  }
+
+  @Test
+  public void percentilesShouldBeWithinBucketPrecision() {
+    var histogram = new LatencyHistogram();
+    for (var i = 1; i <= 100_000; i++) {
+      histogram.record(i * 1_000L);
+    }
+
+    assertEquals(100_000, histogram.getCount());
+    assertEquals(100_000_000, histogram.getMax());
+    assertWithin(50_000_000, histogram.getPercentile(50));
+    assertWithin(99_000_000, histogram.getPercentile(99));
+    assertEquals(100_000_000, histogram.getPercentile(100));
+  }
+
+  @Test
+  public void smallValuesShouldBeExact() {
+    var histogram = new LatencyHistogram();
+    histogram.record(3);
+    histogram.record(7);
+    histogram.record(-5);
+
+    assertEquals(0, histogram.getPercentile(1));
+    assertEquals(3, histogram.getPercentile(50));
+    assertEquals(7, histogram.getPercentile(100));
+  }
+
+  @Test
+  public void percentileShouldBeInRange() {
+    assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram().getPercentile(101));
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected + expected / 16,
+        () -> "expected about " + expected + " but was " + actual);
+  }
+}
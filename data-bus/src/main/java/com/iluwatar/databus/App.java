@@ -47,7 +47,9 @@ import java.time.LocalDateTime;
  *     <p>Members may unsubscribe from the Data-Bus to stop receiving data.</p>
  *     <p>This example of the pattern implements a Synchronous Data-Bus, meaning that
  *     when data is published to the Data-Bus, the publish method will not return until all members
- *     have received the data and returned.</p>
+ *     have received the data and returned. A member may instead be registered with a {@link
+ *     Subscription} that only delivers the {@link DataType}s it asks for, or that queues events in
+ *     a bounded mailbox and delivers them on an executor.</p>
  *     <p>The {@link DataBus} class is a Singleton.</p>
  *     <p>Members of the Data-Bus must implement the {@link Member} interface.</p>
  *     <p>Data to be published via the Data-Bus must implement the {@link DataType} interface.</p>
@@ -23,33 +23,63 @@
 
 package com.iluwatar.databus;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The Data-Bus implementation.
  *
  * <p>This implementation uses a Singleton.</p>
  *
+ * <p>Subscribers are held in an immutable snapshot which is replaced whenever a member subscribes
+ * or unsubscribes, so publishing never takes a lock and members may (un)subscribe while an event
+ * is being delivered. Each snapshot caches, per event class, the subscriptions that accept it.</p>
+ *
  * @author Paul Campbell (pcampbell@kemitix.net)
  */
 public class DataBus {
 
   private static final DataBus INSTANCE = new DataBus();
 
-  private final Set<Member> listeners = new HashSet<>();
+  private volatile Routes routes = new Routes(new Subscription[0]);
 
   public static DataBus getInstance() {
     return INSTANCE;
   }
 
   /**
-   * Register a member with the data-bus to start receiving events.
+   * Register a member with the data-bus to start receiving events. The member receives every event
+   * on the publisher's thread. Does nothing if the member is already subscribed.
    *
    * @param member The member to register
    */
-  public void subscribe(final Member member) {
-    this.listeners.add(member);
+  public synchronized void subscribe(final Member member) {
+    for (var subscription : routes.all) {
+      if (subscription.getMember().equals(member)) {
+        return;
+      }
+    }
+    subscribe(Subscription.builder(member).build());
+  }
+
+  /**
+   * Register a subscription with the data-bus to start delivering events to its member.
+   *
+   * @param subscription The subscription to register
+   * @return the subscription
+   * @throws IllegalStateException if the subscription is registered with a data-bus already
+   */
+  public synchronized Subscription subscribe(final Subscription subscription) {
+    if (subscription.dataBus != null) {
+      throw new IllegalStateException("Subscription is already registered");
+    }
+    var all = Arrays.copyOf(routes.all, routes.all.length + 1);
+    all[all.length - 1] = subscription;
+    subscription.dataBus = this;
+    routes = new Routes(all);
+    return subscription;
   }
 
   /**
@@ -57,17 +87,71 @@ public class DataBus {
    *
    * @param member The member to deregister
    */
-  public void unsubscribe(final Member member) {
-    this.listeners.remove(member);
+  public synchronized void unsubscribe(final Member member) {
+    var remaining = new ArrayList<Subscription>(routes.all.length);
+    for (var subscription : routes.all) {
+      if (subscription.getMember().equals(member)) {
+        subscription.dataBus = null;
+      } else {
+        remaining.add(subscription);
+      }
+    }
+    routes = new Routes(remaining.toArray(new Subscription[0]));
   }
 
   /**
-   * Publish and event to all members.
+   * Deregister a subscription to stop delivering events to its member. Events already in its
+   * mailbox are still delivered.
+   *
+   * @param subscription The subscription to deregister
+   * @return whether the subscription was registered
+   */
+  public synchronized boolean unsubscribe(final Subscription subscription) {
+    if (subscription.dataBus != this) {
+      return false;
+    }
+    var remaining = new ArrayList<Subscription>(routes.all.length);
+    for (var registered : routes.all) {
+      if (registered != subscription) {
+        remaining.add(registered);
+      }
+    }
+    subscription.dataBus = null;
+    routes = new Routes(remaining.toArray(new Subscription[0]));
+    return true;
+  }
+
+  /**
+   * Publish and event to all members that subscribed to its type.
    *
    * @param event The event
    */
   public void publish(final DataType event) {
     event.setDataBus(this);
-    listeners.forEach(listener -> listener.accept(event));
+    for (var subscription : routes.lookup(event.getClass())) {
+      subscription.deliver(event);
+    }
+  }
+
+  /**
+   * An immutable set of subscriptions.
+   */
+  private static final class Routes {
+
+    private final Subscription[] all;
+    private final Map<Class<?>, Subscription[]> byType = new ConcurrentHashMap<>();
+
+    private Routes(Subscription[] all) {
+      this.all = all;
+    }
+
+    private Subscription[] lookup(Class<?> eventType) {
+      var matching = byType.get(eventType);
+      return matching != null ? matching : byType.computeIfAbsent(eventType, this::match);
+    }
+
+    private Subscription[] match(Class<?> eventType) {
+      return Arrays.stream(all).filter(s -> s.accepts(eventType)).toArray(Subscription[]::new);
+    }
   }
 }
@@ -0,0 +1,238 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.databus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link Member}'s registration with a {@link DataBus}.
+ *
+ * <p>A subscription decides which events reach the member and on which thread. By default the
+ * member receives every event on the publisher's thread. {@link Builder#on(Class)} narrows this to
+ * particular {@link DataType}s, and {@link Builder#async(Executor, int, SlowSubscriberPolicy)}
+ * gives the member a bounded mailbox which is drained on an {@link Executor}, so a slow member
+ * only holds up the publisher as far as its {@link SlowSubscriberPolicy} allows.</p>
+ */
+public final class Subscription {
+
+  private static final Logger LOGGER = Logger.getLogger(Subscription.class.getName());
+
+  private static final int BATCH_SIZE = 64;
+
+  private final Member member;
+  private final Class<?>[] types;
+  private final Executor executor;
+  private final BlockingQueue<DataType> mailbox;
+  private final SlowSubscriberPolicy policy;
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final AtomicLong dropped = new AtomicLong();
+
+  volatile DataBus dataBus;
+
+  private Subscription(Builder builder) {
+    this.member = builder.member;
+    this.types = builder.types.isEmpty()
+        ? new Class<?>[]{DataType.class}
+        : builder.types.toArray(new Class<?>[0]);
+    this.executor = builder.executor;
+    this.mailbox = builder.executor == null ? null : new ArrayBlockingQueue<>(builder.capacity);
+    this.policy = builder.policy;
+  }
+
+  public static Builder builder(final Member member) {
+    return new Builder(member);
+  }
+
+  public Member getMember() {
+    return member;
+  }
+
+  public boolean isAsynchronous() {
+    return executor != null;
+  }
+
+  /**
+   * Returns whether the subscription is currently registered with a data-bus.
+   *
+   * @return false once unsubscribed or disconnected
+   */
+  public boolean isActive() {
+    return dataBus != null;
+  }
+
+  /**
+   * Returns the number of events discarded because the mailbox was full.
+   *
+   * @return the dropped event count
+   */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  /**
+   * Returns the number of events waiting in the mailbox.
+   *
+   * @return the mailbox size, always 0 for a synchronous subscription
+   */
+  public int getPending() {
+    return mailbox == null ? 0 : mailbox.size();
+  }
+
+  boolean accepts(final Class<?> eventType) {
+    for (var type : types) {
+      if (type.isAssignableFrom(eventType)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  void deliver(final DataType event) {
+    if (executor == null) {
+      member.accept(event);
+      return;
+    }
+    if (!mailbox.offer(event) && !overflow(event)) {
+      return;
+    }
+    schedule();
+  }
+
+  /**
+   * Applies the slow-subscriber policy to an event that did not fit in the mailbox.
+   *
+   * @return whether the event was queued after all
+   */
+  private boolean overflow(final DataType event) {
+    if (policy == SlowSubscriberPolicy.BLOCK) {
+      try {
+        mailbox.put(event);
+        return true;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    dropped.incrementAndGet();
+    var bus = dataBus;
+    if (policy == SlowSubscriberPolicy.DISCONNECT && bus != null) {
+      LOGGER.warning(() -> "Disconnecting slow member " + member);
+      bus.unsubscribe(this);
+    }
+    return false;
+  }
+
+  private void schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        scheduled.set(false);
+        throw e;
+      }
+    }
+  }
+
+  private void drain() {
+    try {
+      for (var i = 0; i < BATCH_SIZE; i++) {
+        var event = mailbox.poll();
+        if (event == null) {
+          break;
+        }
+        try {
+          member.accept(event);
+        } catch (RuntimeException e) {
+          LOGGER.log(Level.WARNING, "Member " + member + " failed to accept " + event, e);
+        }
+      }
+    } finally {
+      scheduled.set(false);
+    }
+    if (!mailbox.isEmpty()) {
+      schedule();
+    }
+  }
+
+  /**
+   * Builder for {@link Subscription}.
+   */
+  public static final class Builder {
+
+    private final Member member;
+    private final List<Class<? extends DataType>> types = new ArrayList<>();
+    private Executor executor;
+    private int capacity;
+    private SlowSubscriberPolicy policy;
+
+    private Builder(final Member member) {
+      this.member = Objects.requireNonNull(member);
+    }
+
+    /**
+     * Delivers events of the given type, including its subtypes. May be called several times; if
+     * it is never called the member receives every event.
+     *
+     * @param type the event type
+     * @return this builder
+     */
+    public Builder on(final Class<? extends DataType> type) {
+      types.add(Objects.requireNonNull(type));
+      return this;
+    }
+
+    /**
+     * Delivers events through a bounded mailbox drained on the executor. Each member is drained by
+     * at most one task at a time, so it still sees events in publish order.
+     *
+     * @param executor runs the member
+     * @param capacity maximum number of undelivered events
+     * @param policy   what to do with an event when the mailbox is full
+     * @return this builder
+     */
+    public Builder async(final Executor executor, final int capacity,
+                         final SlowSubscriberPolicy policy) {
+      if (capacity <= 0) {
+        throw new IllegalArgumentException("capacity must be positive: " + capacity);
+      }
+      this.executor = Objects.requireNonNull(executor);
+      this.capacity = capacity;
+      this.policy = Objects.requireNonNull(policy);
+      return this;
+    }
+
+    public Subscription build() {
+      return new Subscription(this);
+    }
+  }
+}
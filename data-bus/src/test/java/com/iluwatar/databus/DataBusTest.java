@@ -23,9 +23,22 @@
 
 package com.iluwatar.databus;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.never;
 
+import com.iluwatar.databus.data.MessageData;
+import com.iluwatar.databus.data.StartingData;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -72,4 +85,120 @@ public class DataBusTest {
     then(member).should(never()).accept(event);
   }
 
+  @Test
+  public void memberOnlyReceivesSubscribedTypes() {
+    //given
+    final var dataBus = new DataBus();
+    final var received = new ArrayList<DataType>();
+    dataBus.subscribe(Subscription.builder(received::add).on(MessageData.class).build());
+    final var message = MessageData.of("hello");
+    //when
+    dataBus.publish(StartingData.of(LocalDateTime.now()));
+    dataBus.publish(message);
+    //then
+    assertEquals(List.of(message), received);
+  }
+
+  @Test
+  public void memberMaySubscribeWhileEventIsPublished() {
+    //given
+    final var dataBus = new DataBus();
+    dataBus.subscribe(event -> dataBus.subscribe(member));
+    //when
+    dataBus.publish(event);
+    dataBus.publish(event);
+    //then only the second event reaches the member
+    then(member).should().accept(event);
+  }
+
+  @Test
+  public void asynchronousMemberReceivesEventsInOrder() throws InterruptedException {
+    //given
+    final var dataBus = new DataBus();
+    final var executor = Executors.newFixedThreadPool(4);
+    final var received = Collections.synchronizedList(new ArrayList<String>());
+    final var done = new CountDownLatch(1000);
+    dataBus.subscribe(Subscription.builder(data -> {
+      received.add(((MessageData) data).getMessage());
+      done.countDown();
+    }).async(executor, 1000, SlowSubscriberPolicy.BLOCK).build());
+    //when
+    for (var i = 0; i < 1000; i++) {
+      dataBus.publish(MessageData.of(Integer.toString(i)));
+    }
+    //then
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    for (var i = 0; i < 1000; i++) {
+      assertEquals(Integer.toString(i), received.get(i));
+    }
+    executor.shutdown();
+  }
+
+  @Test
+  public void fullMailboxDropsEvents() {
+    //given
+    final var dataBus = new DataBus();
+    final var subscription = dataBus.subscribe(Subscription.builder(member)
+        .async(task -> { }, 2, SlowSubscriberPolicy.DROP).build());
+    //when
+    for (var i = 0; i < 5; i++) {
+      dataBus.publish(event);
+    }
+    //then
+    assertEquals(2, subscription.getPending());
+    assertEquals(3, subscription.getDropped());
+    assertTrue(subscription.isActive());
+  }
+
+  @Test
+  public void fullMailboxDisconnectsMember() {
+    //given
+    final var dataBus = new DataBus();
+    final var subscription = dataBus.subscribe(Subscription.builder(member)
+        .async(task -> { }, 1, SlowSubscriberPolicy.DISCONNECT).build());
+    //when
+    dataBus.publish(event);
+    dataBus.publish(event);
+    dataBus.publish(event);
+    //then
+    assertFalse(subscription.isActive());
+    assertEquals(1, subscription.getDropped());
+    assertFalse(dataBus.unsubscribe(subscription));
+  }
+
+  @Test
+  public void fullMailboxBlocksPublisher() throws InterruptedException {
+    //given
+    final var dataBus = new DataBus();
+    final var executor = Executors.newSingleThreadExecutor();
+    final var release = new CountDownLatch(1);
+    final var subscription = dataBus.subscribe(Subscription.builder(data -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }).async(executor, 1, SlowSubscriberPolicy.BLOCK).build());
+    dataBus.publish(event);
+    dataBus.publish(event);
+    final var publisher = new Thread(() -> dataBus.publish(event));
+    //when
+    publisher.start();
+    publisher.join(100);
+    //then
+    assertTrue(publisher.isAlive());
+    release.countDown();
+    publisher.join(2000);
+    assertFalse(publisher.isAlive());
+    assertEquals(0, subscription.getDropped());
+    executor.shutdown();
+  }
+
+  @Test
+  public void subscriptionCannotBeRegisteredTwice() {
+    final var dataBus = new DataBus();
+    final var subscription = dataBus.subscribe(Subscription.builder(member).build());
+    assertThrows(IllegalStateException.class, () -> dataBus.subscribe(subscription));
+  }
+
 }
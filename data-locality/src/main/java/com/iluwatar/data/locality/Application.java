@@ -24,6 +24,16 @@
 package com.iluwatar.data.locality;
 
 import com.iluwatar.data.locality.game.GameEntity;
+import com.iluwatar.data.locality.game.component.store.AiComponentStore;
+import com.iluwatar.data.locality.game.component.store.PhysicsComponentStore;
+import com.iluwatar.data.locality.game.component.store.RenderComponentStore;
+import com.iluwatar.data.locality.game.ecs.Chunk;
+import com.iluwatar.data.locality.game.ecs.ComponentType;
+import com.iluwatar.data.locality.game.ecs.GameSystem;
+import com.iluwatar.data.locality.game.ecs.SystemScheduler;
+import com.iluwatar.data.locality.game.ecs.World;
+import java.util.Arrays;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,5 +59,107 @@ public class Application {
     var gameEntity = new GameEntity(NUM_ENTITIES);
     gameEntity.start();
     gameEntity.update();
+
+    LOGGER.info("Update components stored as arrays of fields");
+    var ai = new AiComponentStore();
+    var physics = new PhysicsComponentStore();
+    var render = new RenderComponentStore();
+    for (var entity = 0; entity < NUM_ENTITIES; entity++) {
+      ai.add(entity, 0, entity * 0.1f);
+      physics.add(entity, entity, 0, 1, 1);
+      render.add(entity, entity, 4);
+    }
+    ai.update(1);
+    physics.update(1);
+    LOGGER.info("Rendered {} components, checksum {}", render.size(), render.render());
+    physics.remove(0);
+    LOGGER.info("Entity {} moved to index 0 after removing entity 0", physics.entityAt(0));
+
+    LOGGER.info("Update entities of an entity-component-system world");
+    var world = new World();
+    var position = world.componentType("Position", 2);
+    var velocity = world.componentType("Velocity", 2);
+    var heading = world.componentType("Heading", 1);
+    for (var i = 0; i < NUM_ENTITIES; i++) {
+      var entity = world.createEntity(position, velocity);
+      world.set(entity, velocity, 0, i);
+      if (i % 2 == 0) {
+        world.addComponent(entity, heading);
+      }
+    }
+    var scheduler = new SystemScheduler(world);
+    scheduler.add(new MoveSystem(position, velocity));
+    scheduler.add(new TurnSystem(heading));
+    LOGGER.info("Systems run in {} stage(s)", scheduler.getStages().size());
+    scheduler.update(1);
+    world.forEachChunk(chunk -> LOGGER.info("Positions: {}",
+        Arrays.toString(Arrays.copyOf(chunk.column(position, 0),
+            chunk.size()))), position);
+  }
+
+  /**
+   * Physics system: moves every entity by its velocity.
+   */
+  private static class MoveSystem implements GameSystem {
+
+    private final ComponentType position;
+    private final ComponentType velocity;
+
+    MoveSystem(ComponentType position, ComponentType velocity) {
+      this.position = position;
+      this.velocity = velocity;
+    }
+
+    @Override
+    public Set<ComponentType> reads() {
+      return Set.of(velocity);
+    }
+
+    @Override
+    public Set<ComponentType> writes() {
+      return Set.of(position);
+    }
+
+    @Override
+    public void update(Chunk chunk, float delta) {
+      var x = chunk.column(position, 0);
+      var y = chunk.column(position, 1);
+      var vx = chunk.column(velocity, 0);
+      var vy = chunk.column(velocity, 1);
+      for (var row = 0; row < chunk.size(); row++) {
+        x[row] += vx[row] * delta;
+        y[row] += vy[row] * delta;
+      }
+    }
+  }
+
+  /**
+   * AI system: turns every entity that has a heading.
+   */
+  private static class TurnSystem implements GameSystem {
+
+    private final ComponentType heading;
+
+    TurnSystem(ComponentType heading) {
+      this.heading = heading;
+    }
+
+    @Override
+    public Set<ComponentType> reads() {
+      return Set.of();
+    }
+
+    @Override
+    public Set<ComponentType> writes() {
+      return Set.of(heading);
+    }
+
+    @Override
+    public void update(Chunk chunk, float delta) {
+      var angle = chunk.column(heading, 0);
+      for (var row = 0; row < chunk.size(); row++) {
+        angle[row] += 0.1f * delta;
+      }
+    }
   }
 }
@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.component.store;
+
+import java.util.Arrays;
+
+/**
+ * AI components stored as parallel arrays. Each agent turns its heading at its own rate.
+ */
+public class AiComponentStore extends ComponentStore {
+
+  private static final float FULL_TURN = (float) (2 * Math.PI);
+
+  private float[] heading = new float[initialCapacity()];
+  private float[] turnRate = new float[initialCapacity()];
+
+  /**
+   * Adds an AI component to an entity.
+   *
+   * @param entity   entity id
+   * @param heading  initial heading in radians
+   * @param turnRate change of heading per unit of time, in radians
+   */
+  public void add(int entity, float heading, float turnRate) {
+    var index = allocate(entity);
+    this.heading[index] = heading;
+    this.turnRate[index] = turnRate;
+  }
+
+  /**
+   * Turns every agent by its turn rate, keeping headings within [0, 2π) however far an
+   * agent turns in one update.
+   *
+   * @param delta elapsed time
+   */
+  public void update(float delta) {
+    var heading = this.heading;
+    var turnRate = this.turnRate;
+    for (var i = 0; i < size; i++) {
+      var h = heading[i] + turnRate[i] * delta;
+      if (h < 0 || h >= FULL_TURN) {
+        h -= FULL_TURN * (float) Math.floor(h / FULL_TURN);
+        // rounding can land a tiny negative heading exactly on a full turn
+        heading[i] = h < FULL_TURN ? h : 0;
+      } else {
+        heading[i] = h;
+      }
+    }
+  }
+
+  public float getHeading(int index) {
+    return heading[index];
+  }
+
+  @Override
+  protected void grow(int capacity) {
+    heading = Arrays.copyOf(heading, capacity);
+    turnRate = Arrays.copyOf(turnRate, capacity);
+  }
+
+  @Override
+  protected void move(int from, int to) {
+    heading[to] = heading[from];
+    turnRate[to] = turnRate[from];
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.component.store;
+
+import java.util.Arrays;
+
+/**
+ * Base of the component stores. A store keeps one component per entity in parallel primitive
+ * arrays, one array per field, so that an update walks each field front to back in memory.
+ *
+ * <p>Components are densely packed: the components of the stored entities occupy indices
+ * {@code 0} to {@code size() - 1} without gaps, so update loops need no null or liveness checks.
+ * Removing an entity moves the last component into the freed slot. A sparse array maps entity ids
+ * to dense indices and another maps indices back to entity ids.
+ */
+public abstract class ComponentStore {
+
+  private static final int ABSENT = -1;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] indexOfEntity = new int[0];
+
+  private int[] entityAt = new int[INITIAL_CAPACITY];
+
+  protected int size;
+
+  /**
+   * Number of stored components.
+   *
+   * @return the number of entities with a component in this store
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean contains(int entity) {
+    return indexOf(entity) != ABSENT;
+  }
+
+  /**
+   * Entity id of the component at a dense index.
+   *
+   * @param index index between 0 and {@code size() - 1}
+   * @return the entity id
+   */
+  public int entityAt(int index) {
+    return entityAt[index];
+  }
+
+  /**
+   * Dense index of an entity's component.
+   *
+   * @param entity entity id
+   * @return the index, or -1 if the entity has no component in this store
+   */
+  public int indexOf(int entity) {
+    return entity >= 0 && entity < indexOfEntity.length ? indexOfEntity[entity] : ABSENT;
+  }
+
+  /**
+   * Removes an entity's component, moving the last component into its slot.
+   *
+   * @param entity entity id
+   * @return whether the entity had a component
+   */
+  public boolean remove(int entity) {
+    var index = indexOf(entity);
+    if (index == ABSENT) {
+      return false;
+    }
+    var last = size - 1;
+    if (index != last) {
+      var moved = entityAt[last];
+      move(last, index);
+      entityAt[index] = moved;
+      indexOfEntity[moved] = index;
+    }
+    indexOfEntity[entity] = ABSENT;
+    size--;
+    return true;
+  }
+
+  /**
+   * Reserves the slot for a new component. Subclasses call this and then fill in the fields at
+   * the returned index.
+   *
+   * @param entity entity id, not negative
+   * @return the dense index of the new component
+   * @throws IllegalArgumentException if the entity already has a component in this store
+   */
+  protected int allocate(int entity) {
+    if (entity < 0) {
+      throw new IllegalArgumentException("Negative entity id: " + entity);
+    }
+    if (contains(entity)) {
+      throw new IllegalArgumentException("Entity " + entity + " already has a component");
+    }
+    if (entity >= indexOfEntity.length) {
+      var oldLength = indexOfEntity.length;
+      indexOfEntity = Arrays.copyOf(indexOfEntity, Math.max(entity + 1, oldLength * 2));
+      Arrays.fill(indexOfEntity, oldLength, indexOfEntity.length, ABSENT);
+    }
+    if (size == entityAt.length) {
+      entityAt = Arrays.copyOf(entityAt, size * 2);
+      grow(entityAt.length);
+    }
+    var index = size++;
+    entityAt[index] = entity;
+    indexOfEntity[entity] = index;
+    return index;
+  }
+
+  /**
+   * Capacity of the field arrays before the first call to {@link #grow(int)}.
+   *
+   * @return initial length of every field array
+   */
+  protected static int initialCapacity() {
+    return INITIAL_CAPACITY;
+  }
+
+  /**
+   * Resizes every field array to the given capacity, keeping its contents.
+   *
+   * @param capacity the new length
+   */
+  protected abstract void grow(int capacity);
+
+  /**
+   * Copies every field of the component at one index to another.
+   *
+   * @param from source index
+   * @param to   target index
+   */
+  protected abstract void move(int from, int to);
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.component.store;
+
+import java.util.Arrays;
+
+/**
+ * Physics components stored as parallel arrays of position and velocity.
+ */
+public class PhysicsComponentStore extends ComponentStore {
+
+  private float[] positionX = new float[initialCapacity()];
+  private float[] positionY = new float[initialCapacity()];
+  private float[] velocityX = new float[initialCapacity()];
+  private float[] velocityY = new float[initialCapacity()];
+
+  /**
+   * Adds a physics component to an entity.
+   *
+   * @param entity entity id
+   * @param x      horizontal position
+   * @param y      vertical position
+   * @param vx     horizontal velocity
+   * @param vy     vertical velocity
+   */
+  public void add(int entity, float x, float y, float vx, float vy) {
+    var index = allocate(entity);
+    positionX[index] = x;
+    positionY[index] = y;
+    velocityX[index] = vx;
+    velocityY[index] = vy;
+  }
+
+  /**
+   * Moves every body by its velocity.
+   *
+   * @param delta elapsed time
+   */
+  public void update(float delta) {
+    var x = positionX;
+    var y = positionY;
+    var vx = velocityX;
+    var vy = velocityY;
+    for (var i = 0; i < size; i++) {
+      x[i] += vx[i] * delta;
+      y[i] += vy[i] * delta;
+    }
+  }
+
+  public float getX(int index) {
+    return positionX[index];
+  }
+
+  public float getY(int index) {
+    return positionY[index];
+  }
+
+  public float getVelocityX(int index) {
+    return velocityX[index];
+  }
+
+  public float getVelocityY(int index) {
+    return velocityY[index];
+  }
+
+  @Override
+  protected void grow(int capacity) {
+    positionX = Arrays.copyOf(positionX, capacity);
+    positionY = Arrays.copyOf(positionY, capacity);
+    velocityX = Arrays.copyOf(velocityX, capacity);
+    velocityY = Arrays.copyOf(velocityY, capacity);
+  }
+
+  @Override
+  protected void move(int from, int to) {
+    positionX[to] = positionX[from];
+    positionY[to] = positionY[from];
+    velocityX[to] = velocityX[from];
+    velocityY[to] = velocityY[from];
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.component.store;
+
+import java.util.Arrays;
+
+/**
+ * Render components stored as parallel arrays of sprite and animation state.
+ */
+public class RenderComponentStore extends ComponentStore {
+
+  private int[] sprite = new int[initialCapacity()];
+  private int[] frame = new int[initialCapacity()];
+  private int[] frameCount = new int[initialCapacity()];
+
+  /**
+   * Adds a render component to an entity.
+   *
+   * @param entity     entity id
+   * @param sprite     sprite id
+   * @param frameCount number of frames of the sprite's animation, at least 1
+   */
+  public void add(int entity, int sprite, int frameCount) {
+    if (frameCount < 1) {
+      throw new IllegalArgumentException("frameCount must be positive: " + frameCount);
+    }
+    var index = allocate(entity);
+    this.sprite[index] = sprite;
+    this.frame[index] = 0;
+    this.frameCount[index] = frameCount;
+  }
+
+  /**
+   * Advances every animation by one frame and draws it.
+   *
+   * @return a checksum of the drawn sprite frames
+   */
+  public long render() {
+    var sprite = this.sprite;
+    var frame = this.frame;
+    var frameCount = this.frameCount;
+    var drawn = 0L;
+    for (var i = 0; i < size; i++) {
+      var next = frame[i] + 1;
+      frame[i] = next == frameCount[i] ? 0 : next;
+      drawn += sprite[i] + frame[i];
+    }
+    return drawn;
+  }
+
+  public int getSprite(int index) {
+    return sprite[index];
+  }
+
+  public int getFrame(int index) {
+    return frame[index];
+  }
+
+  @Override
+  protected void grow(int capacity) {
+    sprite = Arrays.copyOf(sprite, capacity);
+    frame = Arrays.copyOf(frame, capacity);
+    frameCount = Arrays.copyOf(frameCount, capacity);
+  }
+
+  @Override
+  protected void move(int from, int to) {
+    sprite[to] = sprite[from];
+    frame[to] = frame[from];
+    frameCount[to] = frameCount[from];
+  }
+}
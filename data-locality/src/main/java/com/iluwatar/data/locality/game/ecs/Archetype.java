@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The set of component types shared by some entities, and the chunks that hold them. The chunks
+ * are kept full except for the last one, so removing an entity moves the archetype's last entity
+ * into the freed row.
+ */
+final class Archetype {
+
+  private final long mask;
+
+  private final ComponentType[] types;
+
+  private final int[] slots = new int[Long.SIZE];
+
+  private final int chunkCapacity;
+
+  private final List<Chunk> chunks = new ArrayList<>();
+
+  Archetype(long mask, ComponentType[] types, int chunkCapacity) {
+    this.mask = mask;
+    this.types = types;
+    this.chunkCapacity = chunkCapacity;
+    Arrays.fill(slots, -1);
+    for (var slot = 0; slot < types.length; slot++) {
+      slots[types[slot].getId()] = slot;
+    }
+  }
+
+  long getMask() {
+    return mask;
+  }
+
+  ComponentType[] getTypes() {
+    return types;
+  }
+
+  List<Chunk> getChunks() {
+    return chunks;
+  }
+
+  int slotOf(ComponentType type) {
+    return slots[type.getId()];
+  }
+
+  Chunk chunkWithSpace() {
+    var last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+    if (last == null || last.isFull()) {
+      last = new Chunk(this, chunkCapacity);
+      chunks.add(last);
+    }
+    return last;
+  }
+
+  Chunk lastChunk() {
+    return chunks.get(chunks.size() - 1);
+  }
+
+  void dropLastChunkIfEmpty() {
+    if (lastChunk().size() == 0) {
+      chunks.remove(chunks.size() - 1);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.ecs;
+
+/**
+ * A fixed-capacity block of entities that share one archetype. Each field of each component is a
+ * {@code float[]} column indexed by row, and rows {@code 0} to {@code size() - 1} are all in use,
+ * so a system iterates a chunk with a plain index loop over its columns.
+ */
+public final class Chunk {
+
+  private final Archetype archetype;
+
+  private final int[] entities;
+
+  private final float[][][] columns;
+
+  private int size;
+
+  Chunk(Archetype archetype, int capacity) {
+    this.archetype = archetype;
+    this.entities = new int[capacity];
+    var types = archetype.getTypes();
+    this.columns = new float[types.length][][];
+    for (var slot = 0; slot < types.length; slot++) {
+      columns[slot] = new float[types[slot].getFields()][capacity];
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int entity(int row) {
+    return entities[row];
+  }
+
+  /**
+   * Column of one component field.
+   *
+   * @param type  a component type of this chunk's archetype
+   * @param field index of the field within the component
+   * @return the column; only the first {@link #size()} values belong to entities
+   * @throws IllegalArgumentException if the archetype has no such component
+   */
+  public float[] column(ComponentType type, int field) {
+    var slot = archetype.slotOf(type);
+    if (slot < 0) {
+      throw new IllegalArgumentException("Chunk has no component " + type);
+    }
+    return columns[slot][field];
+  }
+
+  Archetype getArchetype() {
+    return archetype;
+  }
+
+  boolean isFull() {
+    return size == entities.length;
+  }
+
+  int add(int entity) {
+    entities[size] = entity;
+    return size++;
+  }
+
+  /**
+   * Copies a row of another chunk into a row of this one, moving the values of every component
+   * the two archetypes share.
+   */
+  void copyRow(Chunk source, int sourceRow, int row) {
+    entities[row] = source.entities[sourceRow];
+    var types = archetype.getTypes();
+    for (var slot = 0; slot < types.length; slot++) {
+      var sourceSlot = source.archetype.slotOf(types[slot]);
+      if (sourceSlot < 0) {
+        continue;
+      }
+      var target = columns[slot];
+      var from = source.columns[sourceSlot];
+      for (var field = 0; field < target.length; field++) {
+        target[field][row] = from[field][sourceRow];
+      }
+    }
+  }
+
+  void removeLast() {
+    size--;
+    for (var component : columns) {
+      for (var column : component) {
+        column[size] = 0;
+      }
+    }
+  }
+}
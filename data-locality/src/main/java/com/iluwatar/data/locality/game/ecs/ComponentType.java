@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.ecs;
+
+/**
+ * A kind of component, registered with a {@link World}. A component is a fixed number of
+ * {@code float} fields; each field is stored as its own column in every chunk that holds the
+ * component.
+ */
+public final class ComponentType {
+
+  private final int id;
+
+  private final String name;
+
+  private final int fields;
+
+  ComponentType(int id, String name, int fields) {
+    this.id = id;
+    this.name = name;
+    this.fields = fields;
+  }
+
+  int getId() {
+    return id;
+  }
+
+  long mask() {
+    return 1L << id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getFields() {
+    return fields;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
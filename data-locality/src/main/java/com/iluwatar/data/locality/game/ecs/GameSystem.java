@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.ecs;
+
+import java.util.Set;
+
+/**
+ * A system updates every entity that has the components it declares. The scheduler runs two
+ * systems at the same time only if neither writes a component the other reads or writes, and may
+ * update different chunks of one system at the same time, so {@link #update(Chunk, float)} must
+ * only touch the given chunk or otherwise be thread-safe.
+ */
+public interface GameSystem {
+
+  /**
+   * Components the system reads but does not modify.
+   *
+   * @return the read-only components
+   */
+  Set<ComponentType> reads();
+
+  /**
+   * Components the system modifies.
+   *
+   * @return the written components
+   */
+  Set<ComponentType> writes();
+
+  /**
+   * Update the entities of one chunk. The chunk has every component in {@link #reads()} and
+   * {@link #writes()}. Systems must not create or destroy entities or change their components.
+   *
+   * @param chunk the chunk to update
+   * @param delta elapsed time
+   */
+  void update(Chunk chunk, float delta);
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.ecs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the systems of a {@link World} once per frame.
+ *
+ * <p>Systems are grouped into stages. A system joins the stage after the last stage holding a
+ * system it conflicts with, that is, one that writes a component the new system reads or writes,
+ * or that reads a component the new system writes. Conflicting systems therefore still run in the
+ * order they were added, while all systems of a stage, and all chunks of each system, run in
+ * parallel on a fork-join pool.
+ */
+public class SystemScheduler {
+
+  private final World world;
+
+  private final ForkJoinPool pool;
+
+  private final List<List<GameSystem>> stages = new ArrayList<>();
+
+  /**
+   * Create a scheduler that runs on the common fork-join pool.
+   *
+   * @param world the world whose entities the systems update
+   */
+  public SystemScheduler(World world) {
+    this(world, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a scheduler.
+   *
+   * @param world the world whose entities the systems update
+   * @param pool  runs the systems
+   */
+  public SystemScheduler(World world, ForkJoinPool pool) {
+    this.world = world;
+    this.pool = pool;
+  }
+
+  /**
+   * Add a system, to run after every system already added that it conflicts with.
+   *
+   * @param system the system
+   */
+  public void add(GameSystem system) {
+    var stage = 0;
+    for (var i = stages.size() - 1; i >= 0 && stage == 0; i--) {
+      for (var other : stages.get(i)) {
+        if (conflicts(system, other)) {
+          stage = i + 1;
+          break;
+        }
+      }
+    }
+    if (stage == stages.size()) {
+      stages.add(new ArrayList<>());
+    }
+    stages.get(stage).add(system);
+  }
+
+  /**
+   * The stages, in order of execution.
+   *
+   * @return the systems of each stage
+   */
+  public List<List<GameSystem>> getStages() {
+    return stages;
+  }
+
+  /**
+   * Run every system over every matching chunk, stage by stage.
+   *
+   * @param delta elapsed time
+   */
+  public void update(float delta) {
+    for (var stage : stages) {
+      var tasks = new ArrayList<ForkJoinTask<?>>();
+      for (var system : stage) {
+        var mask = World.maskOf(system.reads()) | World.maskOf(system.writes());
+        for (var chunk : world.chunks(mask)) {
+          tasks.add(ForkJoinTask.adapt(() -> system.update(chunk, delta)));
+        }
+      }
+      if (tasks.size() == 1) {
+        tasks.get(0).invoke();
+      } else if (!tasks.isEmpty()) {
+        pool.invoke(new RecursiveAction() {
+          @Override
+          protected void compute() {
+            invokeAll(tasks);
+          }
+        });
+      }
+    }
+  }
+
+  private static boolean conflicts(GameSystem first, GameSystem second) {
+    return writesAny(first, second) || writesAny(second, first);
+  }
+
+  private static boolean writesAny(GameSystem writer, GameSystem other) {
+    for (var type : writer.writes()) {
+      if (other.reads().contains(type) || other.writes().contains(type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
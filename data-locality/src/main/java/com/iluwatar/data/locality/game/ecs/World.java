@@ -0,0 +1,284 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An entity-component-system world. Entities are plain ids; an entity's components live in the
+ * chunks of its archetype, the set of component types it has. All entities of an archetype are
+ * packed into contiguous chunks, so iterating the entities that have some components means
+ * walking the columns of the matching chunks in order.
+ *
+ * <p>Adding or removing a component is a structural change: the entity's row is copied into a
+ * chunk of the new archetype and the archetype's last entity fills the hole it leaves. Structural
+ * changes must not happen while systems are running. The world is not thread-safe otherwise.
+ */
+public class World {
+
+  /**
+   * Default number of entities per chunk.
+   */
+  public static final int DEFAULT_CHUNK_CAPACITY = 16 * 1024;
+
+  private final int chunkCapacity;
+
+  private final List<ComponentType> types = new ArrayList<>();
+
+  private final Map<Long, Archetype> archetypeByMask = new HashMap<>();
+
+  private final List<Archetype> archetypes = new ArrayList<>();
+
+  private Chunk[] chunkOf = new Chunk[16];
+
+  private int[] rowOf = new int[16];
+
+  private int[] freeIds = new int[16];
+
+  private int freeCount;
+
+  private int nextId;
+
+  private int size;
+
+  public World() {
+    this(DEFAULT_CHUNK_CAPACITY);
+  }
+
+  /**
+   * Create a world.
+   *
+   * @param chunkCapacity number of entities per chunk
+   */
+  public World(int chunkCapacity) {
+    if (chunkCapacity <= 0) {
+      throw new IllegalArgumentException("chunkCapacity must be positive: " + chunkCapacity);
+    }
+    this.chunkCapacity = chunkCapacity;
+  }
+
+  /**
+   * Register a component type.
+   *
+   * @param name   name of the component
+   * @param fields number of float fields of the component
+   * @return the component type
+   * @throws IllegalStateException if 64 component types are registered already
+   */
+  public ComponentType componentType(String name, int fields) {
+    if (types.size() == Long.SIZE) {
+      throw new IllegalStateException("At most " + Long.SIZE + " component types");
+    }
+    var type = new ComponentType(types.size(), name, fields);
+    types.add(type);
+    return type;
+  }
+
+  /**
+   * Number of live entities.
+   *
+   * @return the entity count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Create an entity with the given components, all fields zero.
+   *
+   * @param components the components of the new entity
+   * @return the entity id
+   */
+  public int createEntity(ComponentType... components) {
+    var entity = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+    if (entity >= chunkOf.length) {
+      chunkOf = Arrays.copyOf(chunkOf, chunkOf.length * 2);
+      rowOf = Arrays.copyOf(rowOf, rowOf.length * 2);
+    }
+    var chunk = archetypeFor(maskOf(components)).chunkWithSpace();
+    chunkOf[entity] = chunk;
+    rowOf[entity] = chunk.add(entity);
+    size++;
+    return entity;
+  }
+
+  /**
+   * Destroy an entity. Its id may be reused by a later entity.
+   *
+   * @param entity a live entity
+   */
+  public void destroyEntity(int entity) {
+    var chunk = chunkOfLive(entity);
+    removeRow(chunk, rowOf[entity]);
+    chunkOf[entity] = null;
+    if (freeCount == freeIds.length) {
+      freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+    }
+    freeIds[freeCount++] = entity;
+    size--;
+  }
+
+  public boolean isAlive(int entity) {
+    return entity >= 0 && entity < chunkOf.length && chunkOf[entity] != null;
+  }
+
+  public boolean has(int entity, ComponentType type) {
+    return (chunkOfLive(entity).getArchetype().getMask() & type.mask()) != 0;
+  }
+
+  /**
+   * Add a component to an entity, with all fields zero. Does nothing if the entity has it.
+   *
+   * @param entity a live entity
+   * @param type   the component to add
+   */
+  public void addComponent(int entity, ComponentType type) {
+    var mask = chunkOfLive(entity).getArchetype().getMask();
+    if ((mask & type.mask()) == 0) {
+      move(entity, mask | type.mask());
+    }
+  }
+
+  /**
+   * Remove a component from an entity. Does nothing if the entity does not have it.
+   *
+   * @param entity a live entity
+   * @param type   the component to remove
+   */
+  public void removeComponent(int entity, ComponentType type) {
+    var mask = chunkOfLive(entity).getArchetype().getMask();
+    if ((mask & type.mask()) != 0) {
+      move(entity, mask & ~type.mask());
+    }
+  }
+
+  /**
+   * Read a field of an entity's component.
+   *
+   * @param entity a live entity
+   * @param type   a component of the entity
+   * @param field  index of the field
+   * @return the value
+   */
+  public float get(int entity, ComponentType type, int field) {
+    return chunkOfLive(entity).column(type, field)[rowOf[entity]];
+  }
+
+  /**
+   * Write a field of an entity's component.
+   *
+   * @param entity a live entity
+   * @param type   a component of the entity
+   * @param field  index of the field
+   * @param value  the new value
+   */
+  public void set(int entity, ComponentType type, int field, float value) {
+    chunkOfLive(entity).column(type, field)[rowOf[entity]] = value;
+  }
+
+  /**
+   * Visit every chunk whose entities have all the given components.
+   *
+   * @param action     called once per chunk
+   * @param components the required components
+   */
+  public void forEachChunk(Consumer<Chunk> action, ComponentType... components) {
+    chunks(maskOf(components)).forEach(action);
+  }
+
+  List<Chunk> chunks(long mask) {
+    var matching = new ArrayList<Chunk>();
+    for (var archetype : archetypes) {
+      if ((archetype.getMask() & mask) == mask) {
+        matching.addAll(archetype.getChunks());
+      }
+    }
+    return matching;
+  }
+
+  static long maskOf(Iterable<ComponentType> components) {
+    var mask = 0L;
+    for (var type : components) {
+      mask |= type.mask();
+    }
+    return mask;
+  }
+
+  private static long maskOf(ComponentType... components) {
+    return maskOf(Arrays.asList(components));
+  }
+
+  private Archetype archetypeFor(long mask) {
+    var archetype = archetypeByMask.get(mask);
+    if (archetype == null) {
+      var members = types.stream()
+          .filter(type -> (mask & type.mask()) != 0)
+          .toArray(ComponentType[]::new);
+      archetype = new Archetype(mask, members, chunkCapacity);
+      archetypeByMask.put(mask, archetype);
+      archetypes.add(archetype);
+    }
+    return archetype;
+  }
+
+  private Chunk chunkOfLive(int entity) {
+    if (!isAlive(entity)) {
+      throw new IllegalArgumentException("No such entity: " + entity);
+    }
+    return chunkOf[entity];
+  }
+
+  private void move(int entity, long mask) {
+    var source = chunkOf[entity];
+    var sourceRow = rowOf[entity];
+    var target = archetypeFor(mask).chunkWithSpace();
+    var row = target.add(entity);
+    target.copyRow(source, sourceRow, row);
+    removeRow(source, sourceRow);
+    chunkOf[entity] = target;
+    rowOf[entity] = row;
+  }
+
+  /**
+   * Frees a row by moving the last entity of the archetype into it.
+   */
+  private void removeRow(Chunk chunk, int row) {
+    var archetype = chunk.getArchetype();
+    var last = archetype.lastChunk();
+    var lastRow = last.size() - 1;
+    if (last != chunk || lastRow != row) {
+      chunk.copyRow(last, lastRow, row);
+      var moved = chunk.entity(row);
+      chunkOf[moved] = chunk;
+      rowOf[moved] = row;
+    }
+    last.removeLast();
+    archetype.dropLastChunkIfEmpty();
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.component.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test component stores.
+ */
+class ComponentStoreTest {
+
+  @Test
+  void shouldPackComponentsDensely() {
+    var store = new PhysicsComponentStore();
+    store.add(7, 1, 2, 3, 4);
+    store.add(3, 5, 6, 7, 8);
+    assertEquals(2, store.size());
+    assertEquals(0, store.indexOf(7));
+    assertEquals(1, store.indexOf(3));
+    assertEquals(3, store.entityAt(1));
+    assertEquals(-1, store.indexOf(4));
+    assertEquals(-1, store.indexOf(100));
+  }
+
+  @Test
+  void shouldSwapLastComponentIntoRemovedSlot() {
+    var store = new PhysicsComponentStore();
+    for (var entity = 0; entity < 4; entity++) {
+      store.add(entity, entity, 0, 0, 0);
+    }
+    assertTrue(store.remove(1));
+    assertFalse(store.remove(1));
+    assertEquals(3, store.size());
+    assertEquals(3, store.entityAt(1));
+    assertEquals(1, store.indexOf(3));
+    assertEquals(3f, store.getX(1));
+    assertFalse(store.contains(1));
+
+    assertTrue(store.remove(2));
+    assertEquals(2, store.size());
+    assertEquals(0, store.indexOf(0));
+    assertEquals(1, store.indexOf(3));
+  }
+
+  @Test
+  void shouldGrowBeyondInitialCapacity() {
+    var store = new RenderComponentStore();
+    for (var entity = 0; entity < 1000; entity++) {
+      store.add(entity, entity, 1);
+    }
+    assertEquals(1000, store.size());
+    assertEquals(999, store.getSprite(store.indexOf(999)));
+  }
+
+  @Test
+  void shouldRejectDuplicateOrNegativeEntity() {
+    var store = new AiComponentStore();
+    store.add(1, 0, 0);
+    assertThrows(IllegalArgumentException.class, () -> store.add(1, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> store.add(-1, 0, 0));
+  }
+
+  @Test
+  void shouldMoveBodies() {
+    var store = new PhysicsComponentStore();
+    store.add(0, 1, 1, 2, -1);
+    store.update(0.5f);
+    assertEquals(2f, store.getX(0));
+    assertEquals(0.5f, store.getY(0));
+  }
+
+  @Test
+  void shouldWrapHeadings() {
+    var store = new AiComponentStore();
+    store.add(0, 6f, 1f);
+    store.add(1, 0.5f, -1f);
+    store.update(1);
+    assertEquals(7f - (float) (2 * Math.PI), store.getHeading(0), 1e-6);
+    assertEquals(-0.5f + (float) (2 * Math.PI), store.getHeading(1), 1e-6);
+  }
+
+  @Test
+  void shouldWrapHeadingsTurnedByMoreThanOneTurn() {
+    var store = new AiComponentStore();
+    store.add(0, 0f, 20f);
+    store.add(1, 0f, -20f);
+    store.add(2, 0f, -1e-9f);
+    store.update(1);
+    var fullTurn = (float) (2 * Math.PI);
+    assertEquals(20f - 3 * fullTurn, store.getHeading(0), 1e-5);
+    assertEquals(4 * fullTurn - 20f, store.getHeading(1), 1e-5);
+    for (var i = 0; i < 3; i++) {
+      assertTrue(store.getHeading(i) >= 0 && store.getHeading(i) < fullTurn);
+    }
+  }
+
+  @Test
+  void shouldCycleAnimationFrames() {
+    var store = new RenderComponentStore();
+    store.add(0, 10, 2);
+    assertEquals(11, store.render());
+    assertEquals(10, store.render());
+    assertEquals(0, store.getFrame(0));
+  }
+}
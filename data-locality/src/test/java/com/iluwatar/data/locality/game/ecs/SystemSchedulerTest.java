@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test SystemScheduler.
+ */
+class SystemSchedulerTest {
+
+  private World world;
+  private ComponentType position;
+  private ComponentType velocity;
+  private ComponentType heading;
+  private ForkJoinPool pool;
+
+  @BeforeEach
+  void setUp() {
+    world = new World(64);
+    position = world.componentType("Position", 1);
+    velocity = world.componentType("Velocity", 1);
+    heading = world.componentType("Heading", 1);
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void shouldRunNonConflictingSystemsInOneStage() {
+    var scheduler = new SystemScheduler(world, pool);
+    var move = system(Set.of(velocity), Set.of(position), (chunk, delta) -> { });
+    var turn = system(Set.of(), Set.of(heading), (chunk, delta) -> { });
+    var accelerate = system(Set.of(), Set.of(velocity), (chunk, delta) -> { });
+    var readPosition = system(Set.of(position), Set.of(), (chunk, delta) -> { });
+    scheduler.add(move);
+    scheduler.add(turn);
+    scheduler.add(accelerate);
+    scheduler.add(readPosition);
+    assertEquals(List.of(List.of(move, turn), List.of(accelerate, readPosition)),
+        scheduler.getStages());
+  }
+
+  @Test
+  void shouldRunConflictingSystemsInOrder() {
+    for (var i = 0; i < 1000; i++) {
+      var entity = world.createEntity(position, velocity);
+      world.set(entity, velocity, 0, 1f);
+    }
+    var scheduler = new SystemScheduler(world, pool);
+    scheduler.add(system(Set.of(), Set.of(velocity), (chunk, delta) -> {
+      var v = chunk.column(velocity, 0);
+      for (var row = 0; row < chunk.size(); row++) {
+        v[row] *= 2;
+      }
+    }));
+    scheduler.add(system(Set.of(velocity), Set.of(position), (chunk, delta) -> {
+      var x = chunk.column(position, 0);
+      var v = chunk.column(velocity, 0);
+      for (var row = 0; row < chunk.size(); row++) {
+        x[row] += v[row] * delta;
+      }
+    }));
+    scheduler.update(0.5f);
+    scheduler.update(0.5f);
+
+    world.forEachChunk(chunk -> {
+      for (var row = 0; row < chunk.size(); row++) {
+        assertEquals(3f, chunk.column(position, 0)[row]);
+      }
+    }, position);
+  }
+
+  private static GameSystem system(Set<ComponentType> reads, Set<ComponentType> writes,
+                                   Update update) {
+    return new GameSystem() {
+      @Override
+      public Set<ComponentType> reads() {
+        return reads;
+      }
+
+      @Override
+      public Set<ComponentType> writes() {
+        return writes;
+      }
+
+      @Override
+      public void update(Chunk chunk, float delta) {
+        update.update(chunk, delta);
+      }
+    };
+  }
+
+  private interface Update {
+    void update(Chunk chunk, float delta);
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.data.locality.game.ecs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test World.
+ */
+class WorldTest {
+
+  private World world;
+  private ComponentType position;
+  private ComponentType velocity;
+
+  @BeforeEach
+  void setUp() {
+    world = new World(4);
+    position = world.componentType("Position", 2);
+    velocity = world.componentType("Velocity", 2);
+  }
+
+  @Test
+  void shouldCreateEntitiesWithZeroedComponents() {
+    var entity = world.createEntity(position, velocity);
+    assertEquals(1, world.size());
+    assertTrue(world.has(entity, position));
+    assertTrue(world.has(entity, velocity));
+    assertEquals(0f, world.get(entity, position, 1));
+    world.set(entity, position, 1, 3f);
+    assertEquals(3f, world.get(entity, position, 1));
+  }
+
+  @Test
+  void shouldKeepValuesAcrossStructuralChanges() {
+    var entities = new int[10];
+    for (var i = 0; i < entities.length; i++) {
+      entities[i] = world.createEntity(position);
+      world.set(entities[i], position, 0, i);
+    }
+    world.addComponent(entities[2], velocity);
+    world.set(entities[2], velocity, 0, 5f);
+    world.addComponent(entities[7], velocity);
+    world.removeComponent(entities[2], velocity);
+
+    assertFalse(world.has(entities[2], velocity));
+    assertTrue(world.has(entities[7], velocity));
+    for (var i = 0; i < entities.length; i++) {
+      assertEquals(i, world.get(entities[i], position, 0), "entity " + i);
+    }
+    assertEquals(0f, world.get(entities[7], velocity, 0));
+  }
+
+  @Test
+  void shouldKeepChunksDenseWhenDestroying() {
+    var entities = new int[9];
+    for (var i = 0; i < entities.length; i++) {
+      entities[i] = world.createEntity(position);
+      world.set(entities[i], position, 0, i);
+    }
+    world.destroyEntity(entities[1]);
+    world.destroyEntity(entities[5]);
+
+    assertEquals(7, world.size());
+    assertFalse(world.isAlive(entities[1]));
+    var chunks = new AtomicInteger();
+    var rows = new AtomicInteger();
+    world.forEachChunk(chunk -> {
+      chunks.incrementAndGet();
+      rows.addAndGet(chunk.size());
+      for (var row = 0; row < chunk.size(); row++) {
+        var entity = chunk.entity(row);
+        assertEquals(world.get(entity, position, 0), chunk.column(position, 0)[row]);
+      }
+    }, position);
+    assertEquals(2, chunks.get());
+    assertEquals(7, rows.get());
+    assertEquals(8f, world.get(entities[8], position, 0));
+  }
+
+  @Test
+  void shouldReuseDestroyedIds() {
+    var first = world.createEntity(position);
+    world.destroyEntity(first);
+    var second = world.createEntity(velocity);
+    assertEquals(first, second);
+    assertFalse(world.has(second, position));
+  }
+
+  @Test
+  void shouldQueryMatchingArchetypes() {
+    world.createEntity(position);
+    world.createEntity(position, velocity);
+    world.createEntity(velocity);
+    var matched = new AtomicInteger();
+    world.forEachChunk(chunk -> matched.addAndGet(chunk.size()), position);
+    assertEquals(2, matched.get());
+    matched.set(0);
+    world.forEachChunk(chunk -> matched.addAndGet(chunk.size()), position, velocity);
+    assertEquals(1, matched.get());
+  }
+
+  @Test
+  void shouldRejectUnknownEntity() {
+    assertThrows(IllegalArgumentException.class, () -> world.destroyEntity(42));
+    var entity = world.createEntity(position);
+    assertThrows(IllegalArgumentException.class, () -> world.get(entity, velocity, 0));
+  }
+}
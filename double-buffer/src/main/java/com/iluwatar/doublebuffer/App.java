@@ -62,6 +62,12 @@ public class App {
     scene.draw(drawPixels2);
     var buffer2 = scene.getBuffer();
     printBlackPixelCoordinate(buffer2);
+
+    final var tripleBufferScene = new TripleBufferScene();
+    tripleBufferScene.draw(drawPixels1);
+    tripleBufferScene.draw(drawPixels2);
+    var buffer3 = tripleBufferScene.getBuffer();
+    printBlackPixelCoordinate(buffer3);
   }
 
   private static void printBlackPixelCoordinate(Buffer buffer) {
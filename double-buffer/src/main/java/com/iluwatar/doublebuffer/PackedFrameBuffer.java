@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.doublebuffer;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Frame buffer that packs one bit per pixel into a {@code long[]}, set for black.
+ *
+ * <p>The buffer remembers the bounding rectangle of the pixels drawn since it was last cleared, so
+ * {@link #clearAll()} only has to zero the words inside that rectangle. Frames that touch a small
+ * part of a large buffer are therefore cleared in time proportional to what was drawn rather than
+ * to the resolution.
+ */
+public class PackedFrameBuffer implements Buffer {
+
+  private final int width;
+  private final int height;
+  private final int wordsPerRow;
+  private final long[] words;
+
+  private int dirtyMinX;
+  private int dirtyMinY;
+  private int dirtyMaxX;
+  private int dirtyMaxY;
+
+  /**
+   * Creates a white buffer.
+   *
+   * @param width  width in pixels
+   * @param height height in pixels
+   */
+  public PackedFrameBuffer(int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Invalid size: " + width + "x" + height);
+    }
+    this.width = width;
+    this.height = height;
+    this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+    this.words = new long[wordsPerRow * height];
+    resetDirtyRegion();
+  }
+
+  @Override
+  public void clear(int x, int y) {
+    words[getIndex(x, y)] &= ~(1L << x);
+  }
+
+  @Override
+  public void draw(int x, int y) {
+    words[getIndex(x, y)] |= 1L << x;
+    dirtyMinX = Math.min(dirtyMinX, x);
+    dirtyMinY = Math.min(dirtyMinY, y);
+    dirtyMaxX = Math.max(dirtyMaxX, x);
+    dirtyMaxY = Math.max(dirtyMaxY, y);
+  }
+
+  /**
+   * Clear all the pixels, zeroing only the rows and words covered by the dirty rectangle.
+   */
+  @Override
+  public void clearAll() {
+    if (dirtyMaxX < 0) {
+      return;
+    }
+    var fromWord = dirtyMinX / Long.SIZE;
+    var toWord = dirtyMaxX / Long.SIZE + 1;
+    for (var y = dirtyMinY; y <= dirtyMaxY; y++) {
+      var row = y * wordsPerRow;
+      Arrays.fill(words, row + fromWord, row + toWord, 0L);
+    }
+    resetDirtyRegion();
+  }
+
+  /**
+   * Get all the pixels. The array is built on every call; prefer {@link #isDrawn(int, int)} to
+   * inspect a few pixels of a large buffer.
+   *
+   * @return pixel list
+   */
+  @Override
+  public Pixel[] getPixels() {
+    var pixels = new Pixel[width * height];
+    for (var y = 0; y < height; y++) {
+      for (var x = 0; x < width; x++) {
+        pixels[x + width * y] = isDrawn(x, y) ? Pixel.BLACK : Pixel.WHITE;
+      }
+    }
+    return pixels;
+  }
+
+  /**
+   * Check whether the pixel in (x, y) is black.
+   *
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @return {@code true} if the pixel is drawn
+   */
+  public boolean isDrawn(int x, int y) {
+    return (words[getIndex(x, y)] & 1L << x) != 0;
+  }
+
+  /**
+   * Count the black pixels.
+   *
+   * @return number of drawn pixels
+   */
+  public int countDrawn() {
+    var count = 0;
+    for (var word : words) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  private int getIndex(int x, int y) {
+    Objects.checkIndex(x, width);
+    Objects.checkIndex(y, height);
+    return y * wordsPerRow + x / Long.SIZE;
+  }
+
+  private void resetDirtyRegion() {
+    dirtyMinX = Integer.MAX_VALUE;
+    dirtyMinY = Integer.MAX_VALUE;
+    dirtyMaxX = -1;
+    dirtyMaxY = -1;
+  }
+}
@@ -30,6 +30,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Scene class. Render the output frame.
+ *
+ * <p>The scene is not thread-safe: a frame must be drawn and read on the same thread. Use
+ * {@link TripleBufferScene} to read frames while another thread draws them.
  */
 public class Scene {
 
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.doublebuffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Scene that renders through three buffers so that drawing and reading never wait for each other.
+ *
+ * <p>The producer always draws into its own back buffer and the consumer always reads its own
+ * front buffer. The third buffer sits between them: publishing a frame atomically exchanges the
+ * back buffer with the middle one and marks it fresh, and {@link #getBuffer()} exchanges the front
+ * buffer with the middle one only if a fresh frame is waiting. Each side therefore only ever
+ * touches a buffer the other side cannot reach, and a reader never sees a half-drawn frame.
+ *
+ * <p>One thread may call {@link #draw(List)} and one other thread may call {@link #getBuffer()}.
+ * The buffer returned to the consumer stays unchanged until its next call to {@link #getBuffer()}.
+ */
+public class TripleBufferScene {
+
+  private static final int INDEX_MASK = 0b11;
+
+  private static final int FRESH = 0b100;
+
+  private final Buffer[] frameBuffers;
+
+  private final AtomicInteger middle = new AtomicInteger(1);
+
+  private int back = 0;
+
+  private int front = 2;
+
+  /**
+   * Constructor of a scene of {@link FrameBuffer#WIDTH} by {@link FrameBuffer#HEIGHT} pixels.
+   */
+  public TripleBufferScene() {
+    this(FrameBuffer.WIDTH, FrameBuffer.HEIGHT);
+  }
+
+  /**
+   * Constructor of a scene backed by {@link PackedFrameBuffer}s.
+   *
+   * @param width  width in pixels
+   * @param height height in pixels
+   */
+  public TripleBufferScene(int width, int height) {
+    this(new PackedFrameBuffer(width, height), new PackedFrameBuffer(width, height),
+        new PackedFrameBuffer(width, height));
+  }
+
+  /**
+   * Constructor of a scene backed by the given buffers.
+   *
+   * @param first  a buffer
+   * @param second another buffer
+   * @param third  a third buffer
+   */
+  public TripleBufferScene(Buffer first, Buffer second, Buffer third) {
+    frameBuffers = new Buffer[]{first, second, third};
+  }
+
+  /**
+   * Draw the next frame and publish it to the consumer.
+   *
+   * @param coordinateList list of pixels of which the color should be black
+   */
+  public void draw(List<? extends Pair<Integer, Integer>> coordinateList) {
+    var buffer = frameBuffers[back];
+    buffer.clearAll();
+    for (var coordinate : coordinateList) {
+      buffer.draw(coordinate.getKey(), coordinate.getValue());
+    }
+    back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+  }
+
+  /**
+   * Get the most recently published frame.
+   *
+   * @return the front buffer, replaced by the latest frame if one was published since last call
+   */
+  public Buffer getBuffer() {
+    if ((middle.get() & FRESH) != 0) {
+      front = middle.getAndSet(front) & INDEX_MASK;
+    }
+    return frameBuffers[front];
+  }
+}
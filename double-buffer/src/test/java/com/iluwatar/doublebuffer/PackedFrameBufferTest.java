@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.doublebuffer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * PackedFrameBuffer unit test.
+ */
+public class PackedFrameBufferTest {
+
+  @Test
+  public void testDraw() {
+    var frameBuffer = new PackedFrameBuffer(100, 3);
+    frameBuffer.draw(70, 1);
+    Assertions.assertTrue(frameBuffer.isDrawn(70, 1));
+    Assertions.assertFalse(frameBuffer.isDrawn(6, 1));
+    Assertions.assertFalse(frameBuffer.isDrawn(70, 0));
+    Assertions.assertEquals(1, frameBuffer.countDrawn());
+  }
+
+  @Test
+  public void testClear() {
+    var frameBuffer = new PackedFrameBuffer(10, 8);
+    frameBuffer.draw(3, 4);
+    frameBuffer.draw(4, 4);
+    frameBuffer.clear(3, 4);
+    Assertions.assertFalse(frameBuffer.isDrawn(3, 4));
+    Assertions.assertTrue(frameBuffer.isDrawn(4, 4));
+  }
+
+  @Test
+  public void testClearAll() {
+    var frameBuffer = new PackedFrameBuffer(200, 100);
+    frameBuffer.draw(0, 0);
+    frameBuffer.draw(199, 99);
+    frameBuffer.draw(130, 50);
+    frameBuffer.clearAll();
+    Assertions.assertEquals(0, frameBuffer.countDrawn());
+    frameBuffer.draw(5, 5);
+    frameBuffer.clearAll();
+    Assertions.assertEquals(0, frameBuffer.countDrawn());
+  }
+
+  @Test
+  public void testGetPixels() {
+    var frameBuffer = new PackedFrameBuffer(FrameBuffer.WIDTH, FrameBuffer.HEIGHT);
+    frameBuffer.draw(3, 2);
+    var pixels = frameBuffer.getPixels();
+    Assertions.assertEquals(FrameBuffer.WIDTH * FrameBuffer.HEIGHT, pixels.length);
+    Assertions.assertEquals(Pixel.BLACK, pixels[3 + FrameBuffer.WIDTH * 2]);
+    Assertions.assertEquals(Pixel.WHITE, pixels[0]);
+  }
+
+  @Test
+  public void testDrawOutOfBounds() {
+    var frameBuffer = new PackedFrameBuffer(10, 8);
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> frameBuffer.draw(10, 0));
+  }
+}
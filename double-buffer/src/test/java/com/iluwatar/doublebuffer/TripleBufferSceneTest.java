@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.doublebuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TripleBufferScene unit tests.
+ */
+public class TripleBufferSceneTest {
+
+  @Test
+  public void testGetBufferBeforeDraw() {
+    var scene = new TripleBufferScene();
+    Assertions.assertEquals(0, ((PackedFrameBuffer) scene.getBuffer()).countDrawn());
+  }
+
+  @Test
+  public void testGetBufferReturnsLatestFrame() {
+    var scene = new TripleBufferScene();
+    scene.draw(List.of(new MutablePair<>(1, 1)));
+    scene.draw(List.of(new MutablePair<>(2, 2), new MutablePair<>(3, 3)));
+    var buffer = (PackedFrameBuffer) scene.getBuffer();
+    Assertions.assertEquals(2, buffer.countDrawn());
+    Assertions.assertTrue(buffer.isDrawn(2, 2));
+    Assertions.assertSame(buffer, scene.getBuffer());
+  }
+
+  @Test
+  public void testDrawDoesNotTouchFrontBuffer() {
+    var scene = new TripleBufferScene();
+    scene.draw(List.of(new MutablePair<>(1, 1)));
+    var front = (PackedFrameBuffer) scene.getBuffer();
+    for (var i = 0; i < 5; i++) {
+      scene.draw(List.of(new MutablePair<>(i, 0)));
+      Assertions.assertTrue(front.isDrawn(1, 1));
+      Assertions.assertEquals(1, front.countDrawn());
+    }
+    Assertions.assertTrue(((PackedFrameBuffer) scene.getBuffer()).isDrawn(4, 0));
+  }
+
+  @Test
+  public void testConcurrentReaderSeesCompleteFrames() throws InterruptedException {
+    var width = 256;
+    var scene = new TripleBufferScene(width, 4);
+    var frames = 2_000;
+    var failure = new AtomicReference<String>();
+    var producer = new Thread(() -> {
+      for (var frame = 1; frame <= frames; frame++) {
+        var pixels = new ArrayList<MutablePair<Integer, Integer>>();
+        for (var x = 0; x < frame % width + 1; x++) {
+          pixels.add(new MutablePair<>(x, frame % 4));
+        }
+        scene.draw(pixels);
+      }
+    });
+    producer.start();
+    while (producer.isAlive()) {
+      var buffer = (PackedFrameBuffer) scene.getBuffer();
+      var drawn = buffer.countDrawn();
+      for (var y = 0; y < 4; y++) {
+        var row = 0;
+        for (var x = 0; x < width; x++) {
+          row += buffer.isDrawn(x, y) ? 1 : 0;
+        }
+        if (row != 0 && row != drawn) {
+          failure.set("Torn frame: row " + y + " has " + row + " of " + drawn + " pixels");
+        }
+      }
+    }
+    producer.join();
+    Assertions.assertNull(failure.get());
+    Assertions.assertEquals(frames % width + 1,
+        ((PackedFrameBuffer) scene.getBuffer()).countDrawn());
+  }
+}
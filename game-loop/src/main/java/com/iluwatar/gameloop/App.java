@@ -53,6 +53,7 @@ public class App {
       Thread.sleep(GAME_LOOP_DURATION_TIME);
       frameBasedGameLoop.stop();
       LOGGER.info("Stop frame-based game loop.");
+      LOGGER.info("Frame times: {}", frameBasedGameLoop.getMetrics());
 
       LOGGER.info("Start variable-step game loop:");
       var variableStepGameLoop = new VariableStepGameLoop();
@@ -60,6 +61,7 @@ public class App {
       Thread.sleep(GAME_LOOP_DURATION_TIME);
       variableStepGameLoop.stop();
       LOGGER.info("Stop variable-step game loop.");
+      LOGGER.info("Frame times: {}", variableStepGameLoop.getMetrics());
 
       LOGGER.info("Start fixed-step game loop:");
       var fixedStepGameLoop = new FixedStepGameLoop();
@@ -67,6 +69,7 @@ public class App {
       Thread.sleep(GAME_LOOP_DURATION_TIME);
       fixedStepGameLoop.stop();
       LOGGER.info("Stop variable-step game loop.");
+      LOGGER.info("Frame times: {}", fixedStepGameLoop.getMetrics());
 
     } catch (InterruptedException e) {
       LOGGER.error(e.getMessage());
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import java.util.Arrays;
+
+/**
+ * Positions and velocities of a population of game entities, stored as one array per component
+ * rather than one object per entity. Updating every entity then walks a few contiguous arrays,
+ * which keeps the update bound by memory bandwidth rather than by pointer chasing, and lets any
+ * range of entities be updated independently of the others.
+ */
+public class EntityStore {
+
+  /**
+   * Downward acceleration applied to every entity, in units per second squared.
+   */
+  static final float GRAVITY = -9.81f;
+
+  /**
+   * Fraction of the vertical speed an entity keeps when it bounces off the ground.
+   */
+  static final float RESTITUTION = 0.8f;
+
+  private float[] positionX;
+  private float[] positionY;
+  private float[] velocityX;
+  private float[] velocityY;
+  private int size;
+
+  /**
+   * Creates a store.
+   *
+   * @param initialCapacity number of entities the store can hold before growing
+   */
+  public EntityStore(int initialCapacity) {
+    positionX = new float[initialCapacity];
+    positionY = new float[initialCapacity];
+    velocityX = new float[initialCapacity];
+    velocityY = new float[initialCapacity];
+  }
+
+  /**
+   * Adds an entity.
+   *
+   * @param x  horizontal position
+   * @param y  height above the ground
+   * @param vx horizontal velocity
+   * @param vy vertical velocity
+   * @return the index of the new entity
+   */
+  public int add(float x, float y, float vx, float vy) {
+    if (size == positionX.length) {
+      var capacity = Math.max(16, size * 2);
+      positionX = Arrays.copyOf(positionX, capacity);
+      positionY = Arrays.copyOf(positionY, capacity);
+      velocityX = Arrays.copyOf(velocityX, capacity);
+      velocityY = Arrays.copyOf(velocityY, capacity);
+    }
+    positionX[size] = x;
+    positionY[size] = y;
+    velocityX[size] = vx;
+    velocityY[size] = vy;
+    return size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public float getX(int index) {
+    return positionX[index];
+  }
+
+  public float getY(int index) {
+    return positionY[index];
+  }
+
+  public float getVelocityX(int index) {
+    return velocityX[index];
+  }
+
+  public float getVelocityY(int index) {
+    return velocityY[index];
+  }
+
+  /**
+   * Advances the entities in {@code [from, to)} by one step. Each entity falls under gravity and
+   * bounces off the ground at {@code y = 0}. An entity's new state depends only on its own old
+   * state, so disjoint ranges may be updated concurrently and the result does not depend on how
+   * the entities were divided.
+   *
+   * @param from  first entity to update
+   * @param to    one past the last entity to update
+   * @param delta length of the step in seconds
+   */
+  public void update(int from, int to, float delta) {
+    var x = positionX;
+    var y = positionY;
+    var vx = velocityX;
+    var vy = velocityY;
+    var dv = GRAVITY * delta;
+    for (var i = from; i < to; i++) {
+      var speed = vy[i] + dv;
+      var height = y[i] + speed * delta;
+      if (height < 0) {
+        height = -height;
+        speed = -speed * RESTITUTION;
+      }
+      x[i] += vx[i] * delta;
+      y[i] = height;
+      vy[i] = speed;
+    }
+  }
+}
@@ -23,6 +23,8 @@
 
 package com.iluwatar.gameloop;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * For fixed-step game loop, a certain amount of real time has elapsed since the
  * last turn of the game loop. This is how much game time need to be simulated for
@@ -35,28 +37,62 @@ public class FixedStepGameLoop extends GameLoop {
    */
   private static final long MS_PER_FRAME = 20;
 
+  private static final long NS_PER_FRAME = TimeUnit.MILLISECONDS.toNanos(MS_PER_FRAME);
+
+  private final LoopScheduler scheduler = new LoopScheduler(1000.0 / MS_PER_FRAME, metrics);
+
+  private float previousPosition;
+
+  private double alpha;
+
   @Override
   protected void processGameLoop() {
-    var previousTime = System.currentTimeMillis();
+    var previousTime = System.nanoTime();
     var lag = 0L;
     while (isGameRunning()) {
-      var currentTime = System.currentTimeMillis();
-      var elapsedTime = currentTime - previousTime;
+      var currentTime = System.nanoTime();
+      lag += currentTime - previousTime;
       previousTime = currentTime;
-      lag += elapsedTime;
 
       processInput();
 
-      while (lag >= MS_PER_FRAME) {
+      var steps = 0;
+      var updateStart = System.nanoTime();
+      while (lag >= NS_PER_FRAME) {
         update();
-        lag -= MS_PER_FRAME;
+        lag -= NS_PER_FRAME;
+        steps++;
       }
+      metrics.recordUpdate(System.nanoTime() - updateStart, steps);
 
-      render();
+      alpha = (double) lag / NS_PER_FRAME;
+      timedRender();
+      scheduler.awaitNextTick();
     }
   }
 
   protected void update() {
+    previousPosition = controller.getBulletPosition();
     controller.moveBullet(0.5f * MS_PER_FRAME / 1000);
+    controller.updateEntities(MS_PER_FRAME / 1000f);
+  }
+
+  /**
+   * Renders the bullet between its last two simulated positions, so that motion looks smooth
+   * even though the frame falls between two fixed steps.
+   */
+  @Override
+  protected void render() {
+    var position = controller.getBulletPosition();
+    renderPosition((float) (previousPosition + (position - previousPosition) * alpha));
+  }
+
+  /**
+   * Returns how far the last rendered frame was between the previous and the current fixed step.
+   *
+   * @return the fraction of a step, in {@code [0, 1)}
+   */
+  public double getInterpolationAlpha() {
+    return alpha;
   }
 }
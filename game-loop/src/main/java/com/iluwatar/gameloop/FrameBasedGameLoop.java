@@ -37,8 +37,10 @@ public class FrameBasedGameLoop extends GameLoop {
   protected void processGameLoop() {
     while (isGameRunning()) {
       processInput();
+      var updateStart = System.nanoTime();
       update();
-      render();
+      metrics.recordUpdate(System.nanoTime() - updateStart, 1);
+      timedRender();
     }
   }
 
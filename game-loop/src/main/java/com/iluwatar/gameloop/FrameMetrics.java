@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frame-time telemetry of a game loop: how long each frame spent updating, rendering and idling,
+ * how far each tick started from its scheduled time, and how many frames overran their budget.
+ * The loop thread records; any thread may read.
+ */
+public class FrameMetrics {
+
+  private final FrameTimeHistogram updateTime = new FrameTimeHistogram();
+  private final FrameTimeHistogram renderTime = new FrameTimeHistogram();
+  private final FrameTimeHistogram idleTime = new FrameTimeHistogram();
+  private final FrameTimeHistogram tickJitter = new FrameTimeHistogram();
+  private final AtomicLong updates = new AtomicLong();
+  private final AtomicLong overruns = new AtomicLong();
+
+  /**
+   * Records the time a frame spent updating the game state.
+   *
+   * @param nanos  the time spent
+   * @param steps  the number of update steps taken in that time
+   */
+  public void recordUpdate(long nanos, int steps) {
+    updateTime.record(nanos);
+    updates.addAndGet(steps);
+  }
+
+  public void recordRender(long nanos) {
+    renderTime.record(nanos);
+  }
+
+  /**
+   * Records the wait before a tick.
+   *
+   * @param idleNanos   the time spent waiting for the tick
+   * @param jitterNanos how late the tick started compared to its schedule
+   * @param overrun     whether the previous frame took longer than a tick
+   */
+  public void recordTick(long idleNanos, long jitterNanos, boolean overrun) {
+    idleTime.record(idleNanos);
+    tickJitter.record(jitterNanos);
+    if (overrun) {
+      overruns.incrementAndGet();
+    }
+  }
+
+  public FrameTimeHistogram getUpdateTime() {
+    return updateTime;
+  }
+
+  public FrameTimeHistogram getRenderTime() {
+    return renderTime;
+  }
+
+  public FrameTimeHistogram getIdleTime() {
+    return idleTime;
+  }
+
+  public FrameTimeHistogram getTickJitter() {
+    return tickJitter;
+  }
+
+  public long getFrames() {
+    return renderTime.getCount();
+  }
+
+  public long getUpdates() {
+    return updates.get();
+  }
+
+  public long getOverruns() {
+    return overruns.get();
+  }
+
+  @Override
+  public String toString() {
+    return "frames=" + getFrames() + " updates=" + getUpdates() + " overruns=" + getOverruns()
+        + "\n  update: " + updateTime + "\n  render: " + renderTime + "\n  idle:   " + idleTime
+        + "\n  jitter: " + tickJitter;
+  }
+}
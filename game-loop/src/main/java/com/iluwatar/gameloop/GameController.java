@@ -23,19 +23,46 @@
 
 package com.iluwatar.gameloop;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Update and render objects in the game. Here we add a Bullet object to the
  * game system to show how the game loop works.
+ *
+ * <p>Besides the bullet, the controller manages a population of entities kept in an
+ * {@link EntityStore}. Each update splits the entities into fixed-size chunks which are updated
+ * in parallel on a fork-join pool.
  */
 public class GameController {
 
+  /**
+   * Number of entities below which a range is updated on the current thread.
+   */
+  static final int CHUNK_SIZE = 8192;
+
   protected final Bullet bullet;
 
+  protected final EntityStore entities;
+
+  private final ForkJoinPool pool;
+
   /**
-   * Initialize Bullet instance.
+   * Initialize Bullet instance. Entities are updated on the common fork-join pool.
    */
   public GameController() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Initialize Bullet instance.
+   *
+   * @param pool the pool that updates the entities
+   */
+  public GameController(ForkJoinPool pool) {
     bullet = new Bullet();
+    entities = new EntityStore(CHUNK_SIZE);
+    this.pool = pool;
   }
 
   /**
@@ -57,5 +84,63 @@ public class GameController {
     return bullet.getPosition();
   }
 
-}
+  /**
+   * Add an entity to the game.
+   *
+   * @param x  horizontal position
+   * @param y  height above the ground
+   * @param vx horizontal velocity
+   * @param vy vertical velocity
+   * @return index of the entity
+   */
+  public int spawnEntity(float x, float y, float vx, float vy) {
+    return entities.add(x, y, vx, vy);
+  }
+
+  /**
+   * Advance every entity by one step. The work is divided by entity count only, and each entity
+   * is updated from its own state, so the result is the same whatever the pool's parallelism.
+   *
+   * @param delta length of the step in seconds
+   */
+  public void updateEntities(float delta) {
+    var count = entities.size();
+    if (count <= CHUNK_SIZE) {
+      entities.update(0, count, delta);
+    } else {
+      pool.invoke(new UpdateTask(entities, 0, count, delta));
+    }
+  }
 
+  public EntityStore getEntities() {
+    return entities;
+  }
+
+  private static final class UpdateTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient EntityStore entities;
+    private final int from;
+    private final int to;
+    private final float delta;
+
+    private UpdateTask(EntityStore entities, int from, int to, float delta) {
+      this.entities = entities;
+      this.from = from;
+      this.to = to;
+      this.delta = delta;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= CHUNK_SIZE) {
+        entities.update(from, to, delta);
+        return;
+      }
+      var middle = from + (to - from) / 2;
+      invokeAll(new UpdateTask(entities, from, middle, delta),
+          new UpdateTask(entities, middle, to, delta));
+    }
+  }
+}
@@ -23,7 +23,7 @@
 
 package com.iluwatar.gameloop;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +38,8 @@ public abstract class GameLoop {
 
   protected final GameController controller;
 
+  protected final FrameMetrics metrics = new FrameMetrics();
+
   private Thread gameThread;
 
   /**
@@ -73,14 +75,25 @@ public abstract class GameLoop {
     return status == GameStatus.RUNNING;
   }
 
+  /**
+   * Frame-time telemetry of this loop: update, render and idle time per frame and overruns.
+   *
+   * @return the metrics, updated live while the loop runs
+   */
+  public FrameMetrics getMetrics() {
+    return metrics;
+  }
+
   /**
    * Handle any user input that has happened since the last call. In order to
    * simulate the situation in real-life game, here we add a random time lag.
-   * The time lag ranges from 50 ms to 250 ms.
+   * The time lag ranges from 1 ms to 5 ms, well within the 20 ms step of
+   * {@link FixedStepGameLoop}, so that loop is paced by its scheduler rather
+   * than by the input.
    */
   protected void processInput() {
     try {
-      var lag = new Random().nextInt(200) + 50;
+      var lag = ThreadLocalRandom.current().nextInt(1, 6);
       Thread.sleep(lag);
     } catch (InterruptedException e) {
       logger.error(e.getMessage());
@@ -92,8 +105,28 @@ public abstract class GameLoop {
    * this process.
    */
   protected void render() {
-    var position = controller.getBulletPosition();
-    logger.info("Current bullet position: " + position);
+    renderPosition(controller.getBulletPosition());
+  }
+
+  /**
+   * Draws the bullet at the given position. Logged at debug level only, since a frame is rendered
+   * many times a second; frame times are available from {@link #getMetrics()}.
+   *
+   * @param position the bullet position to draw
+   */
+  protected void renderPosition(float position) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("Current bullet position: {}", position);
+    }
+  }
+
+  /**
+   * Renders a frame and records how long it took.
+   */
+  protected void timedRender() {
+    var start = System.nanoTime();
+    render();
+    metrics.recordRender(System.nanoTime() - start);
   }
 
   /**
@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces a loop to a fixed tick rate using {@link System#nanoTime()}.
+ *
+ * <p>Ticks are scheduled at absolute times {@code start + n * period}, so errors in one wait do not
+ * accumulate into the next. Waiting parks the thread until shortly before the deadline, because
+ * parking can wake up late by up to the OS timer resolution, and then spins for the remainder.
+ * A tick that is already late runs immediately; if the loop has fallen more than a few ticks
+ * behind, the schedule is reset to the current time rather than running a burst of catch-up
+ * ticks.
+ */
+public class LoopScheduler {
+
+  /**
+   * Default time before a deadline at which waiting switches from parking to spinning.
+   */
+  static final long DEFAULT_SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(1500);
+
+  private static final int MAX_TICKS_BEHIND = 3;
+
+  private final long periodNanos;
+  private final long spinNanos;
+  private final FrameMetrics metrics;
+  private long nextTick;
+  private boolean started;
+
+  /**
+   * Creates a scheduler.
+   *
+   * @param ticksPerSecond the target tick rate
+   * @param metrics        receives idle time, jitter and overruns of every tick
+   */
+  public LoopScheduler(double ticksPerSecond, FrameMetrics metrics) {
+    this(ticksPerSecond, DEFAULT_SPIN_NANOS, metrics);
+  }
+
+  /**
+   * Creates a scheduler.
+   *
+   * @param ticksPerSecond the target tick rate
+   * @param spinNanos      time before each deadline spent spinning instead of parked; 0 never
+   *                       spins, and the period or more never parks
+   * @param metrics        receives idle time, jitter and overruns of every tick
+   */
+  public LoopScheduler(double ticksPerSecond, long spinNanos, FrameMetrics metrics) {
+    if (ticksPerSecond <= 0) {
+      throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
+    }
+    this.periodNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / ticksPerSecond);
+    this.spinNanos = spinNanos;
+    this.metrics = metrics;
+  }
+
+  public long getPeriodNanos() {
+    return periodNanos;
+  }
+
+  /**
+   * Waits until the next tick is due. The first call starts the schedule and returns at once.
+   *
+   * @return how late the tick started, in nanoseconds
+   */
+  public long awaitNextTick() {
+    var now = System.nanoTime();
+    if (!started) {
+      started = true;
+      nextTick = now + periodNanos;
+      return 0;
+    }
+    if (now >= nextTick) {
+      var jitter = now - nextTick;
+      metrics.recordTick(0, jitter, true);
+      nextTick = jitter > MAX_TICKS_BEHIND * periodNanos ? now + periodNanos
+          : nextTick + periodNanos;
+      return jitter;
+    }
+    var deadline = nextTick;
+    var waitStart = now;
+    for (var remaining = deadline - now; remaining > spinNanos; remaining = deadline - now) {
+      LockSupport.parkNanos(remaining - spinNanos);
+      now = System.nanoTime();
+    }
+    while (now < deadline) {
+      Thread.onSpinWait();
+      now = System.nanoTime();
+    }
+    var jitter = now - deadline;
+    metrics.recordTick(now - waitStart, jitter, false);
+    nextTick = deadline + periodNanos;
+    return jitter;
+  }
+}
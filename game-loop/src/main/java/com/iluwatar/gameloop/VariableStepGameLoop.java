@@ -33,19 +33,20 @@ public class VariableStepGameLoop extends GameLoop {
 
   @Override
   protected void processGameLoop() {
-    var lastFrameTime = System.currentTimeMillis();
+    var lastFrameTime = System.nanoTime();
     while (isGameRunning()) {
       processInput();
-      var currentFrameTime = System.currentTimeMillis();
+      var currentFrameTime = System.nanoTime();
       var elapsedTime = currentFrameTime - lastFrameTime;
-      update(elapsedTime);
+      update(elapsedTime / 1_000_000.0);
+      metrics.recordUpdate(System.nanoTime() - currentFrameTime, 1);
       lastFrameTime = currentFrameTime;
-      render();
+      timedRender();
     }
   }
 
-  protected void update(Long elapsedTime) {
-    controller.moveBullet(0.5f * elapsedTime / 1000);
+  protected void update(double elapsedMillis) {
+    controller.moveBullet((float) (0.5 * elapsedMillis / 1000));
   }
 
 }
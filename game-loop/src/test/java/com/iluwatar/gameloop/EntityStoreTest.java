@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * EntityStore unit test class.
+ */
+public class EntityStoreTest {
+
+  @Test
+  public void testAddGrowsStore() {
+    var store = new EntityStore(1);
+    for (var i = 0; i < 100; i++) {
+      assertEquals(i, store.add(i, 1, 2, 3));
+    }
+    assertEquals(100, store.size());
+    assertEquals(42f, store.getX(42), 0);
+    assertEquals(3f, store.getVelocityY(99), 0);
+  }
+
+  @Test
+  public void testUpdateAppliesVelocityAndGravity() {
+    var store = new EntityStore(1);
+    store.add(0, 10, 2, 0);
+
+    store.update(0, 1, 0.5f);
+
+    assertEquals(1f, store.getX(0), 1e-6);
+    assertEquals(EntityStore.GRAVITY * 0.5f, store.getVelocityY(0), 1e-6);
+    assertEquals(10 + EntityStore.GRAVITY * 0.25f, store.getY(0), 1e-5);
+  }
+
+  @Test
+  public void testEntityBouncesOffGround() {
+    var store = new EntityStore(1);
+    store.add(0, 0.1f, 0, -10);
+
+    store.update(0, 1, 0.1f);
+
+    assertTrue(store.getY(0) >= 0);
+    assertTrue(store.getVelocityY(0) > 0);
+  }
+
+  @Test
+  public void testUpdateOnlyTouchesRange() {
+    var store = new EntityStore(2);
+    store.add(0, 5, 1, 0);
+    store.add(0, 5, 1, 0);
+
+    store.update(1, 2, 1);
+
+    assertEquals(0f, store.getX(0), 0);
+    assertEquals(1f, store.getX(1), 0);
+  }
+}
@@ -24,6 +24,7 @@
 package com.iluwatar.gameloop;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
@@ -52,4 +53,22 @@ public class FixedStepGameLoopTest {
     assertEquals(0.01f, gameLoop.controller.getBulletPosition(), 0);
   }
 
+  @Test
+  public void testUpdateMovesEntities() {
+    gameLoop.controller.spawnEntity(0, 10, 1, 0);
+    gameLoop.update();
+    assertEquals(0.02f, gameLoop.controller.getEntities().getX(0), 1e-6);
+  }
+
+  @Test
+  public void testRenderInterpolatesBetweenSteps() throws InterruptedException {
+    gameLoop.run();
+    Thread.sleep(600);
+    gameLoop.stop();
+    var alpha = gameLoop.getInterpolationAlpha();
+    assertTrue(alpha >= 0 && alpha < 1, "alpha " + alpha);
+    assertTrue(gameLoop.getMetrics().getFrames() > 0);
+    assertTrue(gameLoop.getMetrics().getUpdates() > 0);
+    assertTrue(gameLoop.getMetrics().getIdleTime().getMax() > 0, "the loop was never paced");
+  }
 }
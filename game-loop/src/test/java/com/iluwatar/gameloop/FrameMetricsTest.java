@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * FrameMetrics unit test class.
+ */
+public class FrameMetricsTest {
+
+  @Test
+  public void testRecordsFrames() {
+    var metrics = new FrameMetrics();
+    metrics.recordUpdate(1_000, 2);
+    metrics.recordUpdate(3_000, 1);
+    metrics.recordRender(500);
+    metrics.recordTick(10_000, 20, false);
+    metrics.recordTick(0, 4_000, true);
+
+    assertEquals(1, metrics.getFrames());
+    assertEquals(3, metrics.getUpdates());
+    assertEquals(1, metrics.getOverruns());
+    assertEquals(2_000, metrics.getUpdateTime().getMean(), 0);
+    assertEquals(3_000, metrics.getUpdateTime().getMax());
+    assertEquals(10_000, metrics.getIdleTime().getMax());
+    assertEquals(4_000, metrics.getTickJitter().getMax());
+  }
+
+  @Test
+  public void testPercentile() {
+    var histogram = new FrameTimeHistogram();
+    for (var i = 1; i <= 100; i++) {
+      histogram.record(i * 1_000L);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(50_000, histogram.getPercentile(50), 50_000 / 16.0);
+    assertEquals(100_000, histogram.getPercentile(100), 100_000 / 16.0);
+  }
+}
@@ -23,6 +23,7 @@
 
 package com.iluwatar.gameloop;
 
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -52,4 +53,32 @@ public class GameControllerTest {
     Assertions.assertEquals(controller.bullet.getPosition(), controller.getBulletPosition(), 0);
   }
 
+  @org.junit.jupiter.api.Test
+  public void testUpdateEntitiesIsIndependentOfParallelism() {
+    var single = new ForkJoinPool(1);
+    var many = new ForkJoinPool(4);
+    var sequential = new GameController(single);
+    var parallel = new GameController(many);
+    for (var i = 0; i < 5 * GameController.CHUNK_SIZE + 17; i++) {
+      var height = (i % 97) * 0.5f;
+      sequential.spawnEntity(i, height, i % 7 - 3, i % 11 - 5);
+      parallel.spawnEntity(i, height, i % 7 - 3, i % 11 - 5);
+    }
+
+    for (var tick = 0; tick < 200; tick++) {
+      sequential.updateEntities(0.02f);
+      parallel.updateEntities(0.02f);
+    }
+
+    var expected = sequential.getEntities();
+    var actual = parallel.getEntities();
+    for (var i = 0; i < expected.size(); i++) {
+      Assertions.assertEquals(expected.getX(i), actual.getX(i), 0);
+      Assertions.assertEquals(expected.getY(i), actual.getY(i), 0);
+      Assertions.assertEquals(expected.getVelocityY(i), actual.getVelocityY(i), 0);
+    }
+    single.shutdown();
+    many.shutdown();
+  }
+
 }
@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.gameloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+
+/**
+ * LoopScheduler unit test class.
+ */
+public class LoopSchedulerTest {
+
+  @Test
+  public void testPeriod() {
+    var scheduler = new LoopScheduler(50, new FrameMetrics());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(20), scheduler.getPeriodNanos());
+  }
+
+  @Test
+  public void testRejectsNonPositiveRate() {
+    assertThrows(IllegalArgumentException.class, () -> new LoopScheduler(0, new FrameMetrics()));
+  }
+
+  @Test
+  public void testHoldsTickRate() {
+    var metrics = new FrameMetrics();
+    var scheduler = new LoopScheduler(200, metrics);
+    var start = System.nanoTime();
+    for (var i = 0; i <= 40; i++) {
+      scheduler.awaitNextTick();
+    }
+    var elapsed = System.nanoTime() - start;
+    assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(200), "elapsed " + elapsed);
+    assertEquals(40, metrics.getTickJitter().getCount());
+  }
+
+  @Test
+  public void testCountsOverruns() {
+    var metrics = new FrameMetrics();
+    var scheduler = new LoopScheduler(1000, metrics);
+    scheduler.awaitNextTick();
+    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+    var late = scheduler.awaitNextTick();
+    assertTrue(late >= TimeUnit.MILLISECONDS.toNanos(4), "late " + late);
+    assertEquals(1, metrics.getOverruns());
+    assertEquals(0, metrics.getIdleTime().getMax());
+  }
+
+  @Test
+  public void testResynchronizesWhenFarBehind() {
+    var metrics = new FrameMetrics();
+    var scheduler = new LoopScheduler(1000, metrics);
+    scheduler.awaitNextTick();
+    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+    scheduler.awaitNextTick();
+    var start = System.nanoTime();
+    scheduler.awaitNextTick();
+    assertTrue(System.nanoTime() - start >= TimeUnit.MICROSECONDS.toNanos(500));
+    assertEquals(1, metrics.getOverruns());
+  }
+}
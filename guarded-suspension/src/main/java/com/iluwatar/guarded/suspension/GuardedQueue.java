@@ -57,7 +57,6 @@ public class GuardedQueue {
         e.printStackTrace();
       }
     }
-    LOGGER.info("getting");
     return sourceList.peek();
   }
 
@@ -67,9 +66,8 @@ public class GuardedQueue {
    * @param e number which we want to put to our queue
    */
   public synchronized void put(Integer e) {
-    LOGGER.info("putting");
     sourceList.add(e);
-    LOGGER.info("notifying");
-    notify();
+    // get does not remove the element, so every waiting thread can go on
+    notifyAll();
   }
 }
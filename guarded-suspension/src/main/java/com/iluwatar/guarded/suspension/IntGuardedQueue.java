@@ -0,0 +1,258 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.guarded.suspension;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded guarded queue of {@code int} values, kept in a ring buffer so no value is boxed and
+ * no node is allocated per element. Like {@link LinkedGuardedQueue}, the consumers only take the
+ * take lock and the producers only the put lock: the consumers own the head index, the producers
+ * own the tail index, and the atomic count publishes the slots between them.
+ */
+public class IntGuardedQueue {
+  private final int[] items;
+  private final AtomicInteger count = new AtomicInteger();
+  private final ReentrantLock takeLock = new ReentrantLock();
+  private final Condition notEmpty = takeLock.newCondition();
+  private final ReentrantLock putLock = new ReentrantLock();
+  private final Condition notFull = putLock.newCondition();
+  /**
+   * Index of the next value to take. Guarded by the take lock.
+   */
+  private int head;
+  /**
+   * Index of the next slot to fill. Guarded by the put lock.
+   */
+  private int tail;
+
+  /**
+   * Creates a queue holding at most the given number of values.
+   *
+   * @param capacity maximum number of values
+   */
+  public IntGuardedQueue(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+    }
+    this.items = new int[capacity];
+  }
+
+  public int size() {
+    return count.get();
+  }
+
+  /**
+   * Puts a value at the tail of the queue, waiting while the queue is full.
+   *
+   * @param value value to put
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void put(int value) throws InterruptedException {
+    int before;
+    putLock.lockInterruptibly();
+    try {
+      while (count.get() == items.length) {
+        notFull.await();
+      }
+      items[tail] = value;
+      tail = next(tail);
+      before = count.getAndIncrement();
+      if (before + 1 < items.length) {
+        notFull.signal();
+      }
+    } finally {
+      putLock.unlock();
+    }
+    if (before == 0) {
+      signalNotEmpty();
+    }
+  }
+
+  /**
+   * Puts a range of values at the tail of the queue, taking the put lock once for as many values
+   * as fit. Waits while the queue is full.
+   *
+   * @param values values to put
+   * @param offset index of the first value to put
+   * @param length number of values to put
+   * @throws InterruptedException if interrupted while waiting; the values put so far stay in the
+   *                              queue
+   */
+  public void putAll(int[] values, int offset, int length) throws InterruptedException {
+    var end = offset + length;
+    while (offset < end) {
+      int before;
+      int added;
+      putLock.lockInterruptibly();
+      try {
+        while (count.get() == items.length) {
+          notFull.await();
+        }
+        added = Math.min(end - offset, items.length - count.get());
+        copyIn(values, offset, added);
+        before = count.getAndAdd(added);
+        if (before + added < items.length) {
+          notFull.signal();
+        }
+      } finally {
+        putLock.unlock();
+      }
+      offset += added;
+      if (before == 0) {
+        signalNotEmpty();
+      }
+    }
+  }
+
+  /**
+   * Takes the value at the head of the queue, waiting while the queue is empty.
+   *
+   * @return the head of the queue
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public int take() throws InterruptedException {
+    int value;
+    int before;
+    takeLock.lockInterruptibly();
+    try {
+      while (count.get() == 0) {
+        notEmpty.await();
+      }
+      value = items[head];
+      head = next(head);
+      before = count.getAndDecrement();
+      if (before > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    if (before == items.length) {
+      signalNotFull();
+    }
+    return value;
+  }
+
+  /**
+   * Takes the value at the head of the queue, waiting at most the given time while the queue is
+   * empty.
+   *
+   * @param timeout      maximum time to wait
+   * @param unit         unit of {@code timeout}
+   * @param defaultValue value returned if the time elapses
+   * @return the head of the queue, or {@code defaultValue} if the time has elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public int take(long timeout, TimeUnit unit, int defaultValue) throws InterruptedException {
+    var nanos = unit.toNanos(timeout);
+    int value;
+    int before;
+    takeLock.lockInterruptibly();
+    try {
+      while (count.get() == 0) {
+        if (nanos <= 0) {
+          return defaultValue;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      value = items[head];
+      head = next(head);
+      before = count.getAndDecrement();
+      if (before > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    if (before == items.length) {
+      signalNotFull();
+    }
+    return value;
+  }
+
+  /**
+   * Copies up to the given number of values to an array without waiting, taking the take lock
+   * once.
+   *
+   * @param target      array to copy the values to
+   * @param offset      index in {@code target} of the first value
+   * @param maxElements maximum number of values to move
+   * @return number of values moved
+   */
+  public int drainTo(int[] target, int offset, int maxElements) {
+    int moved;
+    int before;
+    takeLock.lock();
+    try {
+      moved = Math.min(maxElements, count.get());
+      var first = Math.min(moved, items.length - head);
+      System.arraycopy(items, head, target, offset, first);
+      System.arraycopy(items, 0, target, offset + first, moved - first);
+      head = (head + moved) % items.length;
+      before = moved > 0 ? count.getAndAdd(-moved) : 0;
+      if (before > moved) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    if (moved > 0 && before == items.length) {
+      signalNotFull();
+    }
+    return moved;
+  }
+
+  private void copyIn(int[] values, int offset, int length) {
+    var first = Math.min(length, items.length - tail);
+    System.arraycopy(values, offset, items, tail, first);
+    System.arraycopy(values, offset + first, items, 0, length - first);
+    tail = (tail + length) % items.length;
+  }
+
+  private int next(int index) {
+    return index + 1 == items.length ? 0 : index + 1;
+  }
+
+  private void signalNotEmpty() {
+    takeLock.lock();
+    try {
+      notEmpty.signal();
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  private void signalNotFull() {
+    putLock.lock();
+    try {
+      notFull.signal();
+    } finally {
+      putLock.unlock();
+    }
+  }
+}
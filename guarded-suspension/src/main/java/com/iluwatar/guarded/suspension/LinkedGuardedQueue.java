@@ -0,0 +1,295 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.guarded.suspension;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A guarded queue for many producers and consumers. {@link #take()} suspends the caller while the
+ * queue is empty, and {@link #put(Object)} suspends it while the queue is full.
+ *
+ * <p>Unlike {@link GuardedQueue}, producers and consumers do not share a monitor: the head of the
+ * linked list is guarded by a take lock and the tail by a put lock, each with its own condition
+ * (the two-lock queue of Michael and Scott). The number of elements is an atomic counter read by
+ * both sides. A producer only wakes a consumer when the queue was empty, a consumer that leaves
+ * elements behind wakes the next consumer, and bulk operations take each lock once per batch.
+ *
+ * @param <E> type of the elements
+ */
+public class LinkedGuardedQueue<E> {
+  private final int capacity;
+  private final AtomicInteger count = new AtomicInteger();
+  private final ReentrantLock takeLock = new ReentrantLock();
+  private final Condition notEmpty = takeLock.newCondition();
+  private final ReentrantLock putLock = new ReentrantLock();
+  private final Condition notFull = putLock.newCondition();
+  /**
+   * Sentinel node, its item is always null. Guarded by the take lock.
+   */
+  private Node<E> head;
+  /**
+   * Last node. Guarded by the put lock.
+   */
+  private Node<E> last;
+
+  private static class Node<E> {
+    E item;
+    Node<E> next;
+
+    Node(E item) {
+      this.item = item;
+    }
+  }
+
+  public LinkedGuardedQueue() {
+    this(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates a queue holding at most the given number of elements.
+   *
+   * @param capacity maximum number of elements
+   */
+  public LinkedGuardedQueue(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.head = new Node<>(null);
+    this.last = head;
+  }
+
+  public int size() {
+    return count.get();
+  }
+
+  /**
+   * Puts an element at the tail of the queue, waiting while the queue is full.
+   *
+   * @param e element to put
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void put(E e) throws InterruptedException {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+    int before;
+    putLock.lockInterruptibly();
+    try {
+      while (count.get() == capacity) {
+        notFull.await();
+      }
+      enqueue(new Node<>(e));
+      before = count.getAndIncrement();
+      if (before + 1 < capacity) {
+        notFull.signal();
+      }
+    } finally {
+      putLock.unlock();
+    }
+    if (before == 0) {
+      signalNotEmpty();
+    }
+  }
+
+  /**
+   * Puts all the elements at the tail of the queue, in iteration order, taking the put lock once
+   * for as many elements as fit. Waits while the queue is full.
+   *
+   * @param elements elements to put
+   * @throws InterruptedException if interrupted while waiting; the elements put so far stay in the
+   *                              queue
+   */
+  public void putAll(Collection<? extends E> elements) throws InterruptedException {
+    var it = elements.iterator();
+    while (it.hasNext()) {
+      var before = -1;
+      var added = 0;
+      try {
+        putLock.lockInterruptibly();
+        try {
+          while (count.get() == capacity) {
+            notFull.await();
+          }
+          var room = capacity - count.get();
+          while (added < room && it.hasNext()) {
+            var e = it.next();
+            if (e == null) {
+              throw new NullPointerException();
+            }
+            enqueue(new Node<>(e));
+            added++;
+          }
+        } finally {
+          // count what was linked even if the batch failed part way
+          if (added > 0) {
+            before = count.getAndAdd(added);
+            if (before + added < capacity) {
+              notFull.signal();
+            }
+          }
+          putLock.unlock();
+        }
+      } finally {
+        if (before == 0) {
+          signalNotEmpty();
+        }
+      }
+    }
+  }
+
+  /**
+   * Takes the element at the head of the queue, waiting while the queue is empty.
+   *
+   * @return the head of the queue
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public E take() throws InterruptedException {
+    E e;
+    int before;
+    takeLock.lockInterruptibly();
+    try {
+      while (count.get() == 0) {
+        notEmpty.await();
+      }
+      e = dequeue();
+      before = count.getAndDecrement();
+      if (before > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    if (before == capacity) {
+      signalNotFull();
+    }
+    return e;
+  }
+
+  /**
+   * Takes the element at the head of the queue, waiting at most the given time while the queue is
+   * empty.
+   *
+   * @param timeout maximum time to wait
+   * @param unit    unit of {@code timeout}
+   * @return the head of the queue, or null if the time has elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public E take(long timeout, TimeUnit unit) throws InterruptedException {
+    var nanos = unit.toNanos(timeout);
+    E e;
+    int before;
+    takeLock.lockInterruptibly();
+    try {
+      while (count.get() == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      e = dequeue();
+      before = count.getAndDecrement();
+      if (before > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    if (before == capacity) {
+      signalNotFull();
+    }
+    return e;
+  }
+
+  /**
+   * Moves up to the given number of elements to a collection without waiting, taking the take
+   * lock once.
+   *
+   * @param target     collection to add the elements to
+   * @param maxElements maximum number of elements to move
+   * @return number of elements moved
+   */
+  public int drainTo(Collection<? super E> target, int maxElements) {
+    var moved = 0;
+    var before = 0;
+    takeLock.lock();
+    try {
+      var n = Math.min(maxElements, count.get());
+      while (moved < n) {
+        // add before unlinking, so an element the target rejects stays in the queue
+        target.add(head.next.item);
+        dequeue();
+        moved++;
+      }
+      return moved;
+    } finally {
+      if (moved > 0) {
+        before = count.getAndAdd(-moved);
+        if (before > moved) {
+          notEmpty.signal();
+        }
+      }
+      takeLock.unlock();
+      if (moved > 0 && before == capacity) {
+        signalNotFull();
+      }
+    }
+  }
+
+  private void enqueue(Node<E> node) {
+    last.next = node;
+    last = node;
+  }
+
+  private E dequeue() {
+    var first = head.next;
+    head.next = head; // help GC
+    head = first;
+    var e = first.item;
+    first.item = null;
+    return e;
+  }
+
+  private void signalNotEmpty() {
+    takeLock.lock();
+    try {
+      notEmpty.signal();
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  private void signalNotFull() {
+    putLock.lock();
+    try {
+      notFull.signal();
+    } finally {
+      putLock.unlock();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.guarded.suspension;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the primitive guarded queue
+ */
+public class IntGuardedQueueTest {
+
+  @Test
+  public void testWrapAround() throws InterruptedException {
+    var queue = new IntGuardedQueue(4);
+    for (var round = 0; round < 10; round++) {
+      queue.put(round);
+      queue.putAll(new int[]{round + 1, round + 2}, 0, 2);
+      assertEquals(round, queue.take());
+      var drained = new int[2];
+      assertEquals(2, queue.drainTo(drained, 0, 5));
+      assertArrayEquals(new int[]{round + 1, round + 2}, drained);
+    }
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testTimedTake() throws InterruptedException {
+    var queue = new IntGuardedQueue(2);
+    assertEquals(-1, queue.take(20, TimeUnit.MILLISECONDS, -1));
+
+    queue.put(7);
+    assertEquals(7, queue.take(20, TimeUnit.MILLISECONDS, -1));
+  }
+
+  @Test
+  public void testPutAllLargerThanCapacity() throws Exception {
+    var queue = new IntGuardedQueue(3);
+    var values = new int[50];
+    for (var i = 0; i < values.length; i++) {
+      values[i] = i;
+    }
+    var executor = Executors.newSingleThreadExecutor();
+    var producer = executor.submit(() -> {
+      queue.putAll(values, 0, values.length);
+      return null;
+    });
+
+    var taken = new int[values.length];
+    var n = 0;
+    while (n < taken.length) {
+      n += queue.drainTo(taken, n, taken.length - n);
+      if (n < taken.length) {
+        taken[n++] = queue.take();
+      }
+    }
+    producer.get(5, TimeUnit.SECONDS);
+    executor.shutdown();
+    assertArrayEquals(values, taken);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.guarded.suspension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the two-lock guarded queues
+ */
+public class LinkedGuardedQueueTest {
+
+  @Test
+  public void testPutAndTakeInOrder() throws InterruptedException {
+    var queue = new LinkedGuardedQueue<String>();
+    queue.put("a");
+    queue.putAll(List.of("b", "c"));
+
+    assertEquals(3, queue.size());
+    assertEquals("a", queue.take());
+    assertEquals("b", queue.take());
+    assertEquals("c", queue.take(1, TimeUnit.SECONDS));
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testTimedTakeOnEmptyQueue() throws InterruptedException {
+    var queue = new LinkedGuardedQueue<Integer>();
+    var start = System.nanoTime();
+
+    assertNull(queue.take(50, TimeUnit.MILLISECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+  }
+
+  @Test
+  public void testDrainTo() throws InterruptedException {
+    var queue = new LinkedGuardedQueue<Integer>();
+    queue.putAll(List.of(1, 2, 3, 4, 5));
+    var target = new ArrayList<Integer>();
+
+    assertEquals(3, queue.drainTo(target, 3));
+    assertEquals(List.of(1, 2, 3), target);
+    assertEquals(2, queue.drainTo(target, 10));
+    assertEquals(0, queue.drainTo(target, 10));
+    assertEquals(List.of(1, 2, 3, 4, 5), target);
+  }
+
+  @Test
+  public void testBoundedPutAllWaitsForConsumers() throws Exception {
+    var queue = new LinkedGuardedQueue<Integer>(4);
+    var values = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    var executor = Executors.newSingleThreadExecutor();
+    var producer = executor.submit((Callable<Void>) () -> {
+      queue.putAll(values);
+      return null;
+    });
+
+    var taken = new ArrayList<Integer>();
+    while (taken.size() < values.size()) {
+      assertTrue(queue.size() <= 4);
+      taken.add(queue.take());
+    }
+    producer.get(5, TimeUnit.SECONDS);
+    executor.shutdown();
+    assertEquals(values, taken);
+  }
+
+  @Test
+  public void testManyProducersAndConsumers() throws Exception {
+    var queue = new LinkedGuardedQueue<Integer>(16);
+    var intQueue = new IntGuardedQueue(16);
+    var executor = Executors.newFixedThreadPool(8);
+    var consumers = new ArrayList<Future<Long>>();
+    for (var i = 0; i < 4; i++) {
+      var producer = i;
+      executor.submit((Callable<Void>) () -> {
+        for (var v = 1; v <= 10000; v++) {
+          queue.put(v);
+          intQueue.put(producer % 2 == 0 ? v : -v);
+        }
+        return null;
+      });
+      consumers.add(executor.submit(() -> {
+        var sum = 0L;
+        for (var n = 0; n < 10000; n++) {
+          sum += queue.take() + intQueue.take();
+        }
+        return sum;
+      }));
+    }
+    var sum = 0L;
+    for (var consumer : consumers) {
+      sum += consumer.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+    assertEquals(4 * 10000L * 10001 / 2, sum);
+  }
+
+  @Test
+  public void testPutAllCountsElementsBeforeNull() throws Exception {
+    var queue = new LinkedGuardedQueue<String>(3);
+    var executor = Executors.newSingleThreadExecutor();
+    var taken = executor.submit(() -> queue.take());
+    assertThrows(NullPointerException.class, () -> queue.putAll(Arrays.asList("a", "b", null)));
+    assertEquals("a", taken.get(5, TimeUnit.SECONDS));
+    executor.shutdown();
+    assertEquals(1, queue.size());
+    queue.putAll(List.of("c", "d"));
+    assertEquals(3, queue.size());
+    assertEquals("b", queue.take());
+  }
+
+  @Test
+  public void testDrainToKeepsRejectedElement() throws Exception {
+    var queue = new LinkedGuardedQueue<Integer>(3);
+    queue.putAll(List.of(1, 2, 3));
+    var target = new ArrayList<Integer>() {
+      @Override
+      public boolean add(Integer e) {
+        if (e == 3) {
+          throw new IllegalArgumentException();
+        }
+        return super.add(e);
+      }
+    };
+    assertThrows(IllegalArgumentException.class, () -> queue.drainTo(target, 3));
+    assertEquals(List.of(1, 2), target);
+    assertEquals(1, queue.size());
+    queue.put(4);
+    queue.put(5);
+    assertEquals(3, queue.take());
+    assertEquals(4, queue.take());
+  }
+}
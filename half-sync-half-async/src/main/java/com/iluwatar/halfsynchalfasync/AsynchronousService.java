@@ -23,10 +23,13 @@
 
 package com.iluwatar.halfsynchalfasync;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
@@ -38,6 +41,10 @@ import org.slf4j.LoggerFactory;
  * pool of threads i.e. {@link ThreadPoolExecutor}. Out of this pool of worker threads one of the
  * thread picks up the task and executes it synchronously in background and the result is posted
  * back to the caller via callback.
+ *
+ * <p>The size of the pool, the queue and what happens to a task when the queue is full (see {@link
+ * RejectionPolicy}) are configured with a {@link Builder}. A bounded queue keeps an overloaded
+ * service from piling up tasks whose callers have long given up on them.
  */
 public class AsynchronousService {
 
@@ -49,6 +56,10 @@ public class AsynchronousService {
    * thread.
    */
   private final ExecutorService service;
+  /*
+   * Runs the callbacks of the tasks, by default directly in the worker thread.
+   */
+  private final Executor callbackExecutor;
 
   /**
    * Creates an asynchronous service using {@code workQueue} as communication channel between
@@ -56,9 +67,19 @@ public class AsynchronousService {
    * be used to control the pattern of communication between the layers.
    */
   public AsynchronousService(BlockingQueue<Runnable> workQueue) {
-    service = new ThreadPoolExecutor(10, 10, 10, TimeUnit.SECONDS, workQueue);
+    this(builder().workQueue(workQueue));
+  }
+
+  private AsynchronousService(Builder builder) {
+    service = new ThreadPoolExecutor(builder.corePoolSize, builder.maximumPoolSize,
+        builder.keepAliveSeconds, TimeUnit.SECONDS, builder.workQueue,
+        builder.rejectionPolicy.handler());
+    callbackExecutor = builder.callbackExecutor;
   }
 
+  public static Builder builder() {
+    return new Builder();
+  }
 
   /**
    * A non-blocking method which performs the task provided in background and returns immediately.
@@ -68,35 +89,65 @@ public class AsynchronousService {
    * exception then the reason for error is posted back using callback method {@link
    * AsyncTask#onError(Throwable)}.
    *
-   * <p>NOTE: The results are posted back in the context of background thread in this
-   * implementation.
+   * <p>NOTE: The results are posted back in the context of background thread, unless the service
+   * has been built with another {@link Builder#callbackExecutor(Executor) callback executor}.
    */
   public <T> void execute(final AsyncTask<T> task) {
+    executeAsync(task);
+  }
+
+  /**
+   * Performs the task like {@link #execute(AsyncTask)} and also returns its result as a future,
+   * for callers that would rather compose the results than implement callbacks. The future is
+   * completed by the worker thread once the callback has been posted.
+   *
+   * @param task task to perform
+   * @param <T>  type of the result
+   * @return the result of the task
+   */
+  public <T> CompletableFuture<T> executeAsync(final AsyncTask<T> task) {
+    var result = new CompletableFuture<T>();
     try {
       // some small tasks such as validation can be performed here.
       task.onPreCall();
     } catch (Exception e) {
       task.onError(e);
-      return;
+      result.completeExceptionally(e);
+      return result;
     }
 
-    service.submit(new FutureTask<T>(task) {
-      @Override
-      protected void done() {
-        super.done();
+    try {
+      service.execute(() -> {
+        T value;
         try {
-          /*
-           * called in context of background thread. There is other variant possible where result is
-           * posted back and sits in the queue of caller thread which then picks it up for
-           * processing. An example of such a system is Android OS, where the UI elements can only
-           * be updated using UI thread. So result must be posted back in UI thread.
-           */
-          task.onPostCall(get());
-        } catch (InterruptedException e) {
-          // should not occur
-        } catch (ExecutionException e) {
-          task.onError(e.getCause());
+          value = task.call();
+        } catch (Throwable e) {
+          post(() -> task.onError(e));
+          result.completeExceptionally(e);
+          return;
         }
+        /*
+         * There is other variant possible where result is posted back and sits in the queue of
+         * caller thread which then picks it up for processing. An example of such a system is
+         * Android OS, where the UI elements can only be updated using UI thread. So result must be
+         * posted back in UI thread, see CallbackQueue.
+         */
+        post(() -> task.onPostCall(value));
+        result.complete(value);
+      });
+    } catch (RejectedExecutionException e) {
+      post(() -> task.onError(e));
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  private void post(Runnable callback) {
+    callbackExecutor.execute(() -> {
+      try {
+        callback.run();
+      } catch (RuntimeException e) {
+        LOGGER.error("Task callback failed", e);
       }
     });
   }
@@ -112,4 +163,63 @@ public class AsynchronousService {
       LOGGER.error("Error waiting for executor service shutdown!");
     }
   }
+
+  /**
+   * Configures an {@link AsynchronousService}. By default, it has 10 workers, an unbounded work
+   * queue, and runs the callbacks in the workers.
+   */
+  public static class Builder {
+    private int corePoolSize = 10;
+    private int maximumPoolSize = 10;
+    private long keepAliveSeconds = 10;
+    private BlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<>();
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+    private Executor callbackExecutor = Runnable::run;
+
+    /**
+     * Sets the number of workers. Workers beyond the core ones are only started when the queue is
+     * full, and stop after being idle for the keep alive time.
+     *
+     * @param corePoolSize     workers kept even when idle
+     * @param maximumPoolSize  maximum number of workers
+     * @param keepAliveSeconds idle time after which a worker beyond the core ones stops
+     * @return this builder
+     */
+    public Builder poolSize(int corePoolSize, int maximumPoolSize, long keepAliveSeconds) {
+      this.corePoolSize = corePoolSize;
+      this.maximumPoolSize = maximumPoolSize;
+      this.keepAliveSeconds = keepAliveSeconds;
+      return this;
+    }
+
+    public Builder workQueue(BlockingQueue<Runnable> workQueue) {
+      this.workQueue = workQueue;
+      return this;
+    }
+
+    public Builder boundedQueue(int capacity) {
+      return workQueue(new ArrayBlockingQueue<>(capacity));
+    }
+
+    public Builder rejectionPolicy(RejectionPolicy rejectionPolicy) {
+      this.rejectionPolicy = rejectionPolicy;
+      return this;
+    }
+
+    /**
+     * Sets where the callbacks of the tasks run, for instance a {@link CallbackQueue} drained by
+     * the thread of the synchronous layer.
+     *
+     * @param callbackExecutor executor of the callbacks
+     * @return this builder
+     */
+    public Builder callbackExecutor(Executor callbackExecutor) {
+      this.callbackExecutor = callbackExecutor;
+      return this;
+    }
+
+    public AsynchronousService build() {
+      return new AsynchronousService(this);
+    }
+  }
 }
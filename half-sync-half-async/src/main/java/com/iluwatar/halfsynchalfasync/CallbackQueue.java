@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.halfsynchalfasync;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands the callbacks of the tasks over to one designated thread, such as the UI thread of an
+ * Android application, instead of running them on the worker threads. The workers only put the
+ * callbacks in the queue; the designated thread runs them whenever it calls {@link #runPending()}
+ * or {@link #runNext(long, TimeUnit)}, as part of its own loop.
+ */
+public class CallbackQueue implements Executor {
+  private final BlockingQueue<Runnable> callbacks = new LinkedBlockingQueue<>();
+
+  @Override
+  public void execute(Runnable callback) {
+    callbacks.add(callback);
+  }
+
+  /**
+   * Runs the callbacks waiting in the queue, in the calling thread, without waiting for more.
+   *
+   * @return number of callbacks run
+   */
+  public int runPending() {
+    var count = 0;
+    for (Runnable callback; (callback = callbacks.poll()) != null; count++) {
+      callback.run();
+    }
+    return count;
+  }
+
+  /**
+   * Runs the next callback in the calling thread, waiting at most the given time for it.
+   *
+   * @param timeout maximum time to wait
+   * @param unit    unit of {@code timeout}
+   * @return true if a callback has been run
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean runNext(long timeout, TimeUnit unit) throws InterruptedException {
+    var callback = callbacks.poll(timeout, unit);
+    if (callback == null) {
+      return false;
+    }
+    callback.run();
+    return true;
+  }
+
+  public int size() {
+    return callbacks.size();
+  }
+}
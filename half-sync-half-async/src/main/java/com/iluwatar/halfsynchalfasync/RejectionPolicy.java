@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.halfsynchalfasync;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * What the {@link AsynchronousService} does with a task when all its workers are busy and its
+ * work queue is full.
+ */
+public enum RejectionPolicy {
+  /**
+   * The task is rejected: its {@link AsyncTask#onError(Throwable)} receives a {@link
+   * RejectedExecutionException}. The asynchronous layer never blocks.
+   */
+  ABORT {
+    @Override
+    RejectedExecutionHandler handler() {
+      return new ThreadPoolExecutor.AbortPolicy();
+    }
+  },
+  /**
+   * The task runs in the thread that submits it. The asynchronous layer is slowed down to the pace
+   * of the synchronous layer.
+   */
+  CALLER_RUNS {
+    @Override
+    RejectedExecutionHandler handler() {
+      return new ThreadPoolExecutor.CallerRunsPolicy();
+    }
+  },
+  /**
+   * The submitting thread waits until the work queue has room for the task.
+   */
+  BLOCK {
+    @Override
+    RejectedExecutionHandler handler() {
+      return (task, executor) -> {
+        if (executor.isShutdown()) {
+          throw new RejectedExecutionException("The service has been closed");
+        }
+        try {
+          executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RejectedExecutionException("Interrupted while waiting for the queue", e);
+        }
+      };
+    }
+  };
+
+  abstract RejectedExecutionHandler handler();
+}
@@ -28,9 +28,22 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingQueue;
-
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
@@ -102,4 +115,132 @@ public class AsynchronousServiceTest {
     verifyNoMoreInteractions(task);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testExecuteAsync() throws Exception {
+    final var result = new Object();
+    when(task.call()).thenReturn(result);
+
+    assertSame(result, service.executeAsync(task).get(2, TimeUnit.SECONDS));
+    verify(task, timeout(2000)).onPostCall(eq(result));
+  }
+
+  @Test
+  public void testRejectedWhenQueueIsFull() throws Exception {
+    var busy = new CountDownLatch(1);
+    var bounded = AsynchronousService.builder()
+        .poolSize(1, 1, 10)
+        .boundedQueue(1)
+        .rejectionPolicy(RejectionPolicy.ABORT)
+        .build();
+    bounded.execute(blockingTask(busy));
+    bounded.execute(blockingTask(busy));
+
+    var rejected = bounded.executeAsync(task);
+    var error = assertThrows(ExecutionException.class, () -> rejected.get(2, TimeUnit.SECONDS));
+    assertTrue(error.getCause() instanceof RejectedExecutionException);
+    verify(task).onError(any(RejectedExecutionException.class));
+    verify(task, times(0)).call();
+
+    busy.countDown();
+    bounded.close();
+  }
+
+  @Test
+  public void testCallerRunsWhenQueueIsFull() throws Exception {
+    var busy = new CountDownLatch(1);
+    var bounded = AsynchronousService.builder()
+        .poolSize(1, 1, 10)
+        .boundedQueue(1)
+        .rejectionPolicy(RejectionPolicy.CALLER_RUNS)
+        .build();
+    bounded.execute(blockingTask(busy));
+    bounded.execute(blockingTask(busy));
+
+    var caller = Thread.currentThread();
+    var runner = new AtomicReference<Thread>();
+    when(task.call()).then(invocation -> {
+      runner.set(Thread.currentThread());
+      return "done";
+    });
+    assertEquals("done", bounded.executeAsync(task).get(2, TimeUnit.SECONDS));
+    assertSame(caller, runner.get());
+
+    busy.countDown();
+    bounded.close();
+  }
+
+  @Test
+  public void testCallbacksRunOnSynchronousLayerThread() throws Exception {
+    var callbacks = new CallbackQueue();
+    var queued = AsynchronousService.builder().callbackExecutor(callbacks).build();
+    final var result = new Object();
+    when(task.call()).thenReturn(result);
+    var callbackThread = new AtomicReference<Thread>();
+    doAnswer(invocation -> {
+      callbackThread.set(Thread.currentThread());
+      return null;
+    }).when(task).onPostCall(result);
+
+    queued.executeAsync(task).get(2, TimeUnit.SECONDS);
+    assertEquals(1, callbacks.size());
+    assertNull(callbackThread.get());
+
+    assertTrue(callbacks.runNext(2, TimeUnit.SECONDS));
+    assertSame(Thread.currentThread(), callbackThread.get());
+    assertFalse(callbacks.runNext(10, TimeUnit.MILLISECONDS));
+    queued.close();
+  }
+
+  @Test
+  public void testRejectionIsPostedToCallbackExecutor() throws Exception {
+    var busy = new CountDownLatch(1);
+    var callbacks = new CallbackQueue();
+    var bounded = AsynchronousService.builder()
+        .poolSize(1, 1, 10)
+        .boundedQueue(1)
+        .callbackExecutor(callbacks)
+        .build();
+    bounded.execute(blockingTask(busy));
+    bounded.execute(blockingTask(busy));
+
+    var rejected = bounded.executeAsync(task);
+    assertThrows(ExecutionException.class, () -> rejected.get(2, TimeUnit.SECONDS));
+    verify(task, times(0)).onError(any(Throwable.class));
+    assertTrue(callbacks.runNext(2, TimeUnit.SECONDS));
+    verify(task).onError(any(RejectedExecutionException.class));
+
+    busy.countDown();
+    bounded.close();
+  }
+
+  @Test
+  public void testErrorCompletesFuture() throws Exception {
+    var error = new AssertionError("call failed");
+    when(task.call()).thenThrow(error);
+    var result = service.executeAsync(task);
+    var thrown = assertThrows(ExecutionException.class, () -> result.get(2, TimeUnit.SECONDS));
+    assertSame(error, thrown.getCause());
+    verify(task, timeout(2000)).onError(error);
+  }
+
+  private static AsyncTask<Object> blockingTask(CountDownLatch latch) {
+    return new AsyncTask<>() {
+      @Override
+      public void onPreCall() {
+      }
+
+      @Override
+      public void onPostCall(Object result) {
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+      }
+
+      @Override
+      public Object call() throws Exception {
+        return latch.await(5, TimeUnit.SECONDS);
+      }
+    };
+  }
+}
@@ -23,9 +23,14 @@
 
 package com.iluwatar.promise;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -36,12 +41,20 @@ import java.util.function.Function;
  * the final value, the asynchronous method returns a promise of having a value at some point in the
  * future.
  *
+ * <p>Any number of dependent promises and exception handlers can be attached to a promise, before
+ * or after it is fulfilled. They run in the thread fulfilling the promise, or at once in the
+ * attaching thread if the promise is already fulfilled. When that thread is itself running a
+ * dependent, they run right after it instead, so long chains of dependents do not nest calls.
+ *
  * @param <T> type of result.
  */
 public class Promise<T> extends PromiseSupport<T> {
 
-  private Runnable fulfillmentAction;
-  private Consumer<? super Throwable> exceptionHandler;
+  /**
+   * Fails the promises that time out. A single daemon thread serves all the promises, so waiting
+   * for a timeout does not block a thread per promise.
+   */
+  private static final ScheduledThreadPoolExecutor TIMEOUTS = newTimeoutScheduler();
 
   /**
    * Creates a promise that will be fulfilled in future.
@@ -51,18 +64,19 @@ public class Promise<T> extends PromiseSupport<T> {
   }
 
   /**
-   * Fulfills the promise with the provided value.
+   * Fulfills the promise with the provided value. Does nothing if the promise is already
+   * fulfilled.
    *
    * @param value the fulfilled value that can be accessed using {@link #get()}.
    */
   @Override
   public void fulfill(T value) {
     super.fulfill(value);
-    postFulfillment();
   }
 
   /**
-   * Fulfills the promise with exception due to error in execution.
+   * Fulfills the promise with exception due to error in execution. Does nothing if the promise is
+   * already fulfilled.
    *
    * @param exception the exception will be wrapped in {@link ExecutionException} when accessing the
    *                  value using {@link #get()}.
@@ -70,22 +84,6 @@ public class Promise<T> extends PromiseSupport<T> {
   @Override
   public void fulfillExceptionally(Exception exception) {
     super.fulfillExceptionally(exception);
-    handleException(exception);
-    postFulfillment();
-  }
-
-  private void handleException(Exception exception) {
-    if (exceptionHandler == null) {
-      return;
-    }
-    exceptionHandler.accept(exception);
-  }
-
-  private void postFulfillment() {
-    if (fulfillmentAction == null) {
-      return;
-    }
-    fulfillmentAction.run();
   }
 
   /**
@@ -115,20 +113,25 @@ public class Promise<T> extends PromiseSupport<T> {
    * @return a new promise.
    */
   public Promise<Void> thenAccept(Consumer<? super T> action) {
-    var dest = new Promise<Void>();
-    fulfillmentAction = new ConsumeAction(this, dest, action);
-    return dest;
+    return thenApply(value -> {
+      action.accept(value);
+      return null;
+    });
   }
 
   /**
-   * Set the exception handler on this promise.
+   * Adds an exception handler to this promise, called if the promise is fulfilled exceptionally.
    *
    * @param exceptionHandler a consumer that will handle the exception occurred while fulfilling the
    *                         promise.
    * @return this
    */
   public Promise<T> onError(Consumer<? super Throwable> exceptionHandler) {
-    this.exceptionHandler = exceptionHandler;
+    whenDone(() -> {
+      if (isFailed()) {
+        exceptionHandler.accept(exception());
+      }
+    });
     return this;
   }
 
@@ -140,61 +143,122 @@ public class Promise<T> extends PromiseSupport<T> {
    * @return a new promise.
    */
   public <V> Promise<V> thenApply(Function<? super T, V> func) {
-    Promise<V> dest = new Promise<>();
-    fulfillmentAction = new TransformAction<>(this, dest, func);
+    var dest = new Promise<V>();
+    whenDone(() -> {
+      if (isFailed()) {
+        dest.fulfillExceptionally(exception());
+        return;
+      }
+      try {
+        dest.fulfill(func.apply(value()));
+      } catch (Exception e) {
+        dest.fulfillExceptionally(e);
+      }
+    });
     return dest;
   }
 
   /**
-   * Accesses the value from source promise and calls the consumer, then fulfills the destination
-   * promise.
+   * Returns a new promise that, when this promise is fulfilled normally, is fulfilled like the
+   * promise returned by the function provided, for chaining asynchronous steps.
+   *
+   * @param func function returning the next promise.
+   * @return a new promise.
    */
-  private class ConsumeAction implements Runnable {
-
-    private final Promise<T> src;
-    private final Promise<Void> dest;
-    private final Consumer<? super T> action;
-
-    private ConsumeAction(Promise<T> src, Promise<Void> dest, Consumer<? super T> action) {
-      this.src = src;
-      this.dest = dest;
-      this.action = action;
-    }
-
-    @Override
-    public void run() {
+  public <V> Promise<V> thenCompose(Function<? super T, ? extends Promise<V>> func) {
+    var dest = new Promise<V>();
+    whenDone(() -> {
+      if (isFailed()) {
+        dest.fulfillExceptionally(exception());
+        return;
+      }
       try {
-        action.accept(src.get());
-        dest.fulfill(null);
-      } catch (Throwable throwable) {
-        dest.fulfillExceptionally((Exception) throwable.getCause());
+        Promise<V> next = func.apply(value());
+        next.forward(dest);
+      } catch (Exception e) {
+        dest.fulfillExceptionally(e);
       }
-    }
+    });
+    return dest;
   }
 
   /**
-   * Accesses the value from source promise, then fulfills the destination promise using the
-   * transformed value. The source value is transformed using the transformation function.
+   * Fails this promise with a {@link TimeoutException} if it is not fulfilled within the given
+   * time.
+   *
+   * @param timeout maximum time to wait for the promise to be fulfilled
+   * @param unit    unit of {@code timeout}
+   * @return this
    */
-  private class TransformAction<V> implements Runnable {
+  public Promise<T> orTimeout(long timeout, TimeUnit unit) {
+    if (!isDone()) {
+      var timer = TIMEOUTS.schedule(() -> fulfillExceptionally(
+          new TimeoutException("The promise has not been fulfilled in time")), timeout, unit);
+      whenDone(() -> timer.cancel(false));
+    }
+    return this;
+  }
 
-    private final Promise<T> src;
-    private final Promise<V> dest;
-    private final Function<? super T, V> func;
+  /**
+   * Returns a promise fulfilled once all the promises are fulfilled normally, or exceptionally as
+   * soon as one of them is fulfilled exceptionally.
+   *
+   * @param promises promises to wait for
+   * @return a new promise
+   */
+  public static Promise<Void> allOf(List<? extends Promise<?>> promises) {
+    var dest = new Promise<Void>();
+    if (promises.isEmpty()) {
+      dest.fulfill(null);
+      return dest;
+    }
+    var remaining = new AtomicInteger(promises.size());
+    for (var promise : promises) {
+      promise.whenDone(() -> {
+        if (promise.isFailed()) {
+          dest.fulfillExceptionally(promise.exception());
+        } else if (remaining.decrementAndGet() == 0) {
+          dest.fulfill(null);
+        }
+      });
+    }
+    return dest;
+  }
 
-    private TransformAction(Promise<T> src, Promise<V> dest, Function<? super T, V> func) {
-      this.src = src;
-      this.dest = dest;
-      this.func = func;
+  /**
+   * Returns a promise fulfilled like the first of the promises to be fulfilled.
+   *
+   * @param promises promises to wait for
+   * @return a new promise
+   */
+  public static <T> Promise<T> anyOf(List<? extends Promise<? extends T>> promises) {
+    var dest = new Promise<T>();
+    for (var promise : promises) {
+      promise.forward(dest);
     }
+    return dest;
+  }
 
-    @Override
-    public void run() {
-      try {
-        dest.fulfill(func.apply(src.get()));
-      } catch (Throwable throwable) {
-        dest.fulfillExceptionally((Exception) throwable.getCause());
+  /**
+   * Fulfills the other promise like this one, once this one is fulfilled.
+   */
+  private void forward(Promise<? super T> dest) {
+    whenDone(() -> {
+      if (isFailed()) {
+        dest.fulfillExceptionally(exception());
+      } else {
+        dest.fulfill(value());
       }
-    }
+    });
+  }
+
+  private static ScheduledThreadPoolExecutor newTimeoutScheduler() {
+    var scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      var thread = new Thread(runnable, "promise-timeouts");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setRemoveOnCancelPolicy(true);
+    return scheduler;
   }
-}
\ No newline at end of file
+}
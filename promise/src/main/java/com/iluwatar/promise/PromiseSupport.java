@@ -23,48 +23,242 @@
 
 package com.iluwatar.promise;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A really simplified implementation of future that allows completing it successfully with a value
  * or exceptionally with an exception.
+ *
+ * <p>The future is lock free: it is completed by a compare-and-set of its result, and the actions
+ * waiting for the result, including the threads blocked in {@link #get()}, are pushed on a lock
+ * free stack (a Treiber stack). The thread that completes the future pops the whole stack at once
+ * and runs the actions in the order they were added. An action added after completion runs at
+ * once in the thread adding it.
+ *
+ * <p>Actions often complete other futures, whose actions complete further ones. To keep a long
+ * chain from growing the stack by a few frames per stage, a thread that is already running
+ * actions does not run newly released ones in place: it appends them to a per-thread work list
+ * that the outermost call drains in a loop.
+ *
+ * <p>The threads blocked in {@code get} share a single action that unparks them all, and a thread
+ * leaves the set of waiters when it stops waiting. Polling with short timeouts thus does not pile
+ * up actions until the future is completed.
  */
 class PromiseSupport<T> implements Future<T> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PromiseSupport.class);
 
-  private static final int RUNNING = 1;
-  private static final int FAILED = 2;
-  private static final int COMPLETED = 3;
+  private static final VarHandle RESULT;
+  private static final VarHandle DEPENDENTS;
+  private static final VarHandle WAITERS;
+
+  /**
+   * The result of a future fulfilled with null.
+   */
+  private static final Object NULL = new Object();
+  /**
+   * The top of the stack of dependents once the future has been completed.
+   */
+  private static final Dependent DONE = new Dependent(null);
+  /**
+   * Actions released while the current thread is already running actions, null otherwise.
+   */
+  private static final ThreadLocal<ArrayDeque<Runnable>> PENDING = new ThreadLocal<>();
+
+  static {
+    try {
+      var lookup = MethodHandles.lookup();
+      RESULT = lookup.findVarHandle(PromiseSupport.class, "result", Object.class);
+      DEPENDENTS = lookup.findVarHandle(PromiseSupport.class, "dependents", Dependent.class);
+      WAITERS = lookup.findVarHandle(PromiseSupport.class, "waiters", Set.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
 
-  private final Object lock;
+  /**
+   * Null while running, then {@link #NULL}, the value, or a {@link Failure}.
+   */
+  private volatile Object result;
+  private volatile Dependent dependents;
+  /**
+   * The threads blocked in {@code get}, created by the first one.
+   */
+  private volatile Set<Thread> waiters;
 
-  private volatile int state = RUNNING;
-  private T value;
-  private Exception exception;
+  /**
+   * The result of a future fulfilled exceptionally.
+   */
+  private static final class Failure {
+    private final Exception exception;
+
+    private Failure(Exception exception) {
+      this.exception = exception;
+    }
+  }
+
+  private static final class Dependent {
+    private final Runnable action;
+    private Dependent next;
+
+    private Dependent(Runnable action) {
+      this.action = action;
+    }
+  }
 
   PromiseSupport() {
-    this.lock = new Object();
   }
 
+  /**
+   * Completes the future with the value, unless it is already completed.
+   */
   void fulfill(T value) {
-    this.value = value;
-    this.state = COMPLETED;
-    synchronized (lock) {
-      lock.notifyAll();
-    }
+    complete(value == null ? NULL : value);
   }
 
+  /**
+   * Completes the future with the exception, unless it is already completed.
+   */
   void fulfillExceptionally(Exception exception) {
-    this.exception = exception;
-    this.state = FAILED;
-    synchronized (lock) {
-      lock.notifyAll();
+    complete(new Failure(exception));
+  }
+
+  private void complete(Object outcome) {
+    if (!RESULT.compareAndSet(this, null, outcome)) {
+      return;
+    }
+    var top = (Dependent) DEPENDENTS.getAndSet(this, DONE);
+    // the stack is last in first out, run the actions in the order they were added
+    Dependent reversed = null;
+    while (top != null) {
+      var next = top.next;
+      top.next = reversed;
+      reversed = top;
+      top = next;
+    }
+    var pending = PENDING.get();
+    if (pending != null) {
+      for (; reversed != null; reversed = reversed.next) {
+        pending.add(reversed.action);
+      }
+      return;
+    }
+    pending = new ArrayDeque<>();
+    for (; reversed != null; reversed = reversed.next) {
+      pending.add(reversed.action);
+    }
+    drain(pending);
+  }
+
+  /**
+   * Runs the action once the future is completed: at once if it is already completed, otherwise
+   * in the thread completing it.
+   */
+  void whenDone(Runnable action) {
+    var dependent = new Dependent(action);
+    while (true) {
+      var top = dependents;
+      if (top == DONE) {
+        var pending = PENDING.get();
+        if (pending != null) {
+          pending.add(action);
+        } else {
+          pending = new ArrayDeque<>();
+          pending.add(action);
+          drain(pending);
+        }
+        return;
+      }
+      dependent.next = top;
+      if (DEPENDENTS.compareAndSet(this, top, dependent)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Runs the actions, and those they release on this thread, until none is left.
+   */
+  private static void drain(ArrayDeque<Runnable> pending) {
+    PENDING.set(pending);
+    try {
+      for (Runnable action; (action = pending.poll()) != null; ) {
+        run(action);
+      }
+    } finally {
+      PENDING.remove();
+    }
+  }
+
+  private static void run(Runnable action) {
+    try {
+      action.run();
+    } catch (Throwable e) {
+      LOGGER.error("Promise action failed", e);
+    }
+  }
+
+  /**
+   * The number of actions waiting for the future to be completed.
+   */
+  int dependentCount() {
+    var count = 0;
+    for (var top = dependents; top != null && top != DONE; top = top.next) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Returns the set of blocked threads, registering the action that unparks them on first use.
+   */
+  @SuppressWarnings("unchecked")
+  private Set<Thread> waiters() {
+    var set = waiters;
+    if (set == null) {
+      var created = ConcurrentHashMap.<Thread>newKeySet();
+      set = (Set<Thread>) WAITERS.compareAndExchange(this, null, created);
+      if (set == null) {
+        set = created;
+        whenDone(() -> created.forEach(LockSupport::unpark));
+      }
     }
+    return set;
+  }
+
+  /**
+   * Whether the future has been completed exceptionally. Only meaningful once it is done.
+   */
+  boolean isFailed() {
+    return result instanceof Failure;
+  }
+
+  /**
+   * The exception of a future completed exceptionally.
+   */
+  Exception exception() {
+    var outcome = result;
+    return outcome instanceof Failure ? ((Failure) outcome).exception : null;
+  }
+
+  /**
+   * The value of a future completed normally.
+   */
+  @SuppressWarnings("unchecked")
+  T value() {
+    var outcome = result;
+    return outcome == NULL || outcome instanceof Failure ? null : (T) outcome;
   }
 
   @Override
@@ -79,38 +273,72 @@ class PromiseSupport<T> implements Future<T> {
 
   @Override
   public boolean isDone() {
-    return state > RUNNING;
+    return result != null;
   }
 
   @Override
   public T get() throws InterruptedException, ExecutionException {
-    synchronized (lock) {
-      while (state == RUNNING) {
-        lock.wait();
+    if (!isDone()) {
+      var waiting = waiters();
+      var thread = Thread.currentThread();
+      waiting.add(thread);
+      try {
+        while (!isDone()) {
+          LockSupport.park(this);
+          if (Thread.interrupted()) {
+            throw new InterruptedException();
+          }
+        }
+      } finally {
+        waiting.remove(thread);
       }
     }
-    if (state == COMPLETED) {
-      return value;
-    }
-    throw new ExecutionException(exception);
+    return report();
   }
 
+  /**
+   * Waits at most the given time for the result.
+   *
+   * @throws ExecutionException if the future has been completed exceptionally, or with a {@link
+   *                            TimeoutException} as cause if the time has elapsed
+   */
   @Override
   public T get(long timeout, TimeUnit unit) throws ExecutionException {
-    synchronized (lock) {
-      while (state == RUNNING) {
-        try {
-          lock.wait(unit.toMillis(timeout));
-        } catch (InterruptedException e) {
-          LOGGER.warn("Interrupted!", e);
-          Thread.currentThread().interrupt();
+    if (!isDone()) {
+      var waiting = waiters();
+      var thread = Thread.currentThread();
+      var deadline = System.nanoTime() + unit.toNanos(timeout);
+      var interrupted = false;
+      waiting.add(thread);
+      try {
+        while (!isDone()) {
+          var remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            break;
+          }
+          LockSupport.parkNanos(this, remaining);
+          if (Thread.interrupted()) {
+            LOGGER.warn("Interrupted!");
+            interrupted = true;
+          }
         }
+      } finally {
+        waiting.remove(thread);
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (!isDone()) {
+        throw new ExecutionException(new TimeoutException("The promise has not been fulfilled"));
       }
     }
+    return report();
+  }
 
-    if (state == COMPLETED) {
-      return value;
+  private T report() throws ExecutionException {
+    if (isFailed()) {
+      throw new ExecutionException(exception());
     }
-    throw new ExecutionException(exception);
+    return value();
   }
 }
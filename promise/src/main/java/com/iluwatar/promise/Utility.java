@@ -29,13 +29,19 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +52,14 @@ public class Utility {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(Utility.class);
 
+  /**
+   * Size of the parts of a file mapped and scanned by one task.
+   */
+  static final int CHUNK_SIZE = 64 * 1024 * 1024;
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
   /**
    * Calculates character frequency of the file provided.
    *
@@ -92,6 +106,136 @@ public class Utility {
     return 0;
   }
 
+  /**
+   * Calculates character frequency of the file provided like {@link #characterFrequency(String)},
+   * for large files. The file is memory mapped in chunks which are counted in parallel into
+   * primitive histograms, merged at the end. Every byte is taken for a character, so the result is
+   * the same as {@link #characterFrequency(String)} for ASCII and ISO-8859-1 files.
+   *
+   * @param fileLocation location of the file.
+   * @return a map of character to its frequency, an empty map if file does not exist.
+   */
+  public static Map<Character, Long> characterFrequencyMapped(String fileLocation) {
+    return characterFrequencyMapped(fileLocation, CHUNK_SIZE);
+  }
+
+  static Map<Character, Long> characterFrequencyMapped(String fileLocation, int chunkSize) {
+    try (var channel = FileChannel.open(Path.of(fileLocation))) {
+      var size = channel.size();
+      var histogram = chunks(size, chunkSize)
+          .mapToObj(start -> byteHistogram(map(channel, start, Math.min(chunkSize, size - start))))
+          .reduce(new long[256], Utility::add);
+      var frequency = new HashMap<Character, Long>();
+      for (var b = 0; b < histogram.length; b++) {
+        // like the lines of the file, the frequency does not include the line terminators
+        if (histogram[b] > 0 && b != '\n' && b != '\r') {
+          frequency.put((char) b, histogram[b]);
+        }
+      }
+      return frequency;
+    } catch (IOException | UncheckedIOException ex) {
+      ex.printStackTrace();
+    }
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Count the number of lines in a file like {@link #countLines(String)}, for large files. The file
+   * is memory mapped in chunks whose newlines are counted in parallel, eight bytes at a time. Lines
+   * may end with {@code \n} or {@code \r\n}.
+   *
+   * @return number of lines, 0 if file does not exist.
+   */
+  public static long countLinesMapped(String fileLocation) {
+    return countLinesMapped(fileLocation, CHUNK_SIZE);
+  }
+
+  static long countLinesMapped(String fileLocation, int chunkSize) {
+    try (var channel = FileChannel.open(Path.of(fileLocation))) {
+      var size = channel.size();
+      if (size == 0) {
+        return 0;
+      }
+      var newlines = chunks(size, chunkSize)
+          .map(start -> countNewlines(map(channel, start, Math.min(chunkSize, size - start))))
+          .sum();
+      var last = map(channel, size - 1, 1).get(0);
+      // the last line does not need a line terminator
+      return last == '\n' ? newlines : newlines + 1;
+    } catch (IOException | UncheckedIOException ex) {
+      ex.printStackTrace();
+    }
+    return 0;
+  }
+
+  private static LongStream chunks(long size, int chunkSize) {
+    return LongStream.range(0, (size + chunkSize - 1) / chunkSize)
+        .map(chunk -> chunk * chunkSize)
+        .parallel();
+  }
+
+  private static MappedByteBuffer map(FileChannel channel, long start, long length) {
+    try {
+      return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Counts the bytes of the buffer into four interleaved histograms, so consecutive equal bytes do
+   * not wait for each other's increment.
+   */
+  private static long[] byteHistogram(MappedByteBuffer buffer) {
+    var counts = new int[4 * 256];
+    var limit = buffer.limit();
+    var i = 0;
+    for (; i + 4 <= limit; i += 4) {
+      counts[buffer.get(i) & 0xFF]++;
+      counts[256 + (buffer.get(i + 1) & 0xFF)]++;
+      counts[512 + (buffer.get(i + 2) & 0xFF)]++;
+      counts[768 + (buffer.get(i + 3) & 0xFF)]++;
+    }
+    for (; i < limit; i++) {
+      counts[buffer.get(i) & 0xFF]++;
+    }
+    var histogram = new long[256];
+    for (var b = 0; b < 256; b++) {
+      histogram[b] = (long) counts[b] + counts[256 + b] + counts[512 + b] + counts[768 + b];
+    }
+    return histogram;
+  }
+
+  private static long[] add(long[] left, long[] right) {
+    var sum = new long[left.length];
+    for (var i = 0; i < sum.length; i++) {
+      sum[i] = left[i] + right[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Counts the newlines of the buffer. Eight bytes are compared at once: the bytes equal to a
+   * newline become zero after the xor, and the arithmetic below sets the high bit of exactly the
+   * zero bytes of a long.
+   */
+  private static long countNewlines(MappedByteBuffer buffer) {
+    var limit = buffer.limit();
+    var count = 0L;
+    var i = 0;
+    for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+      var x = buffer.getLong(i) ^ (ONES * '\n');
+      var zeros = ~(((x & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | x | LOW_SEVEN_BITS);
+      count += Long.bitCount(zeros);
+    }
+    for (; i < limit; i++) {
+      if (buffer.get(i) == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+
   /**
    * Downloads the contents from the given urlString, and stores it in a temporary directory.
    *
@@ -25,12 +25,15 @@ package com.iluwatar.promise;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -225,6 +228,120 @@ public class PromiseTest {
     verify(exceptionHandler).accept(eq(exception));
   }
 
+  @Test
+  public void everyDependentIsFulfilledEvenWhenAttachedAfterFulfillment()
+      throws InterruptedException, ExecutionException {
+    var first = promise.thenApply(value -> value + 1);
+    var second = promise.thenApply(value -> value + 2);
+    promise.fulfill(1);
+    var third = promise.thenApply(value -> value + 3);
+
+    assertEquals(Integer.valueOf(2), first.get());
+    assertEquals(Integer.valueOf(3), second.get());
+    assertEquals(Integer.valueOf(4), third.get());
+  }
+
+  @Test
+  public void exceptionIsPropagatedToDependentsAndEveryHandler() {
+    var handled = new ArrayList<Throwable>();
+    var dependent = promise.thenApply(value -> value + 1);
+    promise.onError(handled::add).onError(handled::add);
+
+    var exception = new Exception("barf!");
+    promise.fulfillExceptionally(exception);
+
+    assertEquals(List.of(exception, exception), handled);
+    try {
+      dependent.get(1, TimeUnit.SECONDS);
+      fail("Fetching dependent promise should result in exception");
+    } catch (ExecutionException ex) {
+      assertSame(exception, ex.getCause());
+    }
+  }
+
+  @Test
+  public void composedPromiseIsFulfilledWithTheResultOfTheNextPromise()
+      throws InterruptedException, ExecutionException {
+    var composed = promise
+        .fulfillInAsync(new NumberCrunchingTask(), executor)
+        .thenCompose(value -> new Promise<String>()
+            .fulfillInAsync(() -> "crunched " + value, executor));
+
+    assertEquals("crunched " + NumberCrunchingTask.CRUNCHED_NUMBER, composed.get());
+  }
+
+  @Test
+  public void allOfIsFulfilledWhenEveryPromiseIsFulfilled()
+      throws InterruptedException, ExecutionException {
+    var promises = List.of(new Promise<Integer>(), new Promise<Integer>());
+    var all = Promise.allOf(promises);
+
+    promises.get(0).fulfill(1);
+    assertFalse(all.isDone());
+    promises.get(1).fulfill(2);
+    all.get();
+    assertTrue(all.isDone());
+
+    var failing = List.of(new Promise<Integer>(), new Promise<Integer>());
+    var failed = Promise.allOf(failing);
+    failing.get(1).fulfillExceptionally(new Exception("barf!"));
+    assertTrue(failed.isDone());
+  }
+
+  @Test
+  public void anyOfIsFulfilledByTheFirstPromise()
+      throws InterruptedException, ExecutionException {
+    var promises = List.of(new Promise<Integer>(), new Promise<Integer>());
+    var any = Promise.anyOf(promises);
+
+    promises.get(1).fulfill(2);
+    promises.get(0).fulfill(1);
+    assertEquals(Integer.valueOf(2), any.get());
+  }
+
+  @Test
+  public void promiseTimesOutWithoutBlockingAThread() throws InterruptedException {
+    promise.orTimeout(50, TimeUnit.MILLISECONDS);
+
+    try {
+      promise.get();
+      fail("Fetching promise should result in exception if it has timed out");
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof TimeoutException);
+    }
+    promise.fulfill(1);
+    assertTrue(promise.isDone());
+  }
+
+  @Test
+  public void waitingSomeTimeForAnUnfulfilledPromiseTimesOut() {
+    try {
+      promise.get(10, TimeUnit.MILLISECONDS);
+      fail("Fetching promise should result in exception if it is not fulfilled in time");
+    } catch (ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof TimeoutException);
+    }
+  }
+
+  @Test
+  public void timedOutWaitsDoNotPileUp() throws Exception {
+    var waiter = Executors.newSingleThreadExecutor();
+    var blocked = waiter.submit(() -> promise.get());
+    for (var i = 0; i < 100; i++) {
+      try {
+        promise.get(1, TimeUnit.MILLISECONDS);
+        fail("Fetching promise should result in exception if it is not fulfilled in time");
+      } catch (ExecutionException ex) {
+        assertTrue(ex.getCause() instanceof TimeoutException);
+      }
+    }
+    assertEquals(1, promise.dependentCount());
+
+    promise.fulfill(1);
+    assertEquals(1, blocked.get(1, TimeUnit.SECONDS));
+    waiter.shutdown();
+  }
+
   private static class NumberCrunchingTask implements Callable<Integer> {
 
     private static final Integer CRUNCHED_NUMBER = Integer.MAX_VALUE;
@@ -236,4 +353,39 @@ public class PromiseTest {
       return CRUNCHED_NUMBER;
     }
   }
+
+  @Test
+  public void longChainOfDependentsDoesNotOverflowTheStack() throws Exception {
+    var first = new Promise<Integer>();
+    Promise<Integer> last = first;
+    for (var i = 0; i < 100_000; i++) {
+      last = last.thenApply(value -> value + 1);
+    }
+    first.fulfill(0);
+    assertEquals(100_000, last.get());
+  }
+
+  @Test
+  public void dependentsAttachedWhileRunningADependentStillRun() throws Exception {
+    promise.fulfill(1);
+    var order = new ArrayList<String>();
+    var done = new Promise<Void>();
+    promise.thenAccept(value -> {
+      promise.thenAccept(inner -> order.add("inner")).thenAccept(ignored -> done.fulfill(null));
+      order.add("outer");
+    });
+    done.get(1, TimeUnit.SECONDS);
+    assertEquals(List.of("outer", "inner"), order);
+  }
+
+  @Test
+  public void errorInDependentDoesNotStopTheOthers() throws Exception {
+    var reached = new Promise<Integer>();
+    promise.thenAccept(value -> {
+      throw new AssertionError("dependent failed");
+    });
+    promise.thenAccept(reached::fulfill);
+    promise.fulfill(7);
+    assertEquals(7, reached.get());
+  }
 }
@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.promise;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the memory mapped counting of {@link Utility} against the line based one.
+ */
+public class UtilityTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  public void mappedCountsMatchLineBasedCounts() throws IOException {
+    var text = new StringBuilder();
+    for (var i = 0; i < 1000; i++) {
+      text.append("line ").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+      if (i % 100 == 0) {
+        text.append('\n');
+      }
+    }
+    text.append("last line without newline");
+    var file = write(text.toString());
+
+    assertEquals((long) Utility.countLines(file), Utility.countLinesMapped(file));
+    assertEquals(Utility.characterFrequency(file), Utility.characterFrequencyMapped(file));
+    // chunks not aligned to lines nor to longs
+    assertEquals((long) Utility.countLines(file), Utility.countLinesMapped(file, 13));
+    assertEquals(Utility.characterFrequency(file), Utility.characterFrequencyMapped(file, 13));
+  }
+
+  @Test
+  public void lastNewlineDoesNotStartALine() throws IOException {
+    assertEquals(2, Utility.countLinesMapped(write("a\nb\n")));
+    assertEquals(3, Utility.countLinesMapped(write("a\n\nb")));
+    assertEquals(0, Utility.countLinesMapped(write("")));
+  }
+
+  @Test
+  public void missingFileCountsNothing() {
+    var missing = dir.resolve("missing").toString();
+
+    assertEquals(0, Utility.countLinesMapped(missing));
+    assertEquals(0, Utility.characterFrequencyMapped(missing).size());
+  }
+
+  private String write(String content) throws IOException {
+    var file = Files.createTempFile(dir, "utility", ".txt");
+    Files.writeString(file, content, StandardCharsets.US_ASCII);
+    return file.toString();
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.reader.writer.lock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the readers holding a lock in several cells instead of a single counter, so readers
+ * running on different cores update different cache lines. A reader picks its cell from its
+ * thread id; the number of readers is the sum of all cells.
+ */
+class ReaderCounter {
+  /**
+   * Distance between two cells, in longs, so no two cells share a 64 byte cache line.
+   */
+  private static final int PADDING = 8;
+
+  private final AtomicLongArray cells;
+  private final int mask;
+
+  ReaderCounter() {
+    this(Runtime.getRuntime().availableProcessors() * 2);
+  }
+
+  ReaderCounter(int stripes) {
+    var size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+    this.cells = new AtomicLongArray(size * PADDING);
+    this.mask = size - 1;
+  }
+
+  void increment() {
+    cells.incrementAndGet(cell());
+  }
+
+  void decrement() {
+    cells.decrementAndGet(cell());
+  }
+
+  long sum() {
+    var sum = 0L;
+    for (var i = 0; i <= mask; i++) {
+      sum += cells.get(i * PADDING);
+    }
+    return sum;
+  }
+
+  private int cell() {
+    var id = Thread.currentThread().getId();
+    return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40 & mask) * PADDING;
+  }
+}
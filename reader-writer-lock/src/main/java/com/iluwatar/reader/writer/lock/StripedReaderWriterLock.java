@@ -0,0 +1,263 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.reader.writer.lock;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A reader writer lock whose readers do not share a monitor. Every reader only increments a
+ * counter striped per core (see {@link ReaderCounter}) and checks that no writer holds the lock, so
+ * readers running at the same time do not contend with each other. A writer announces itself with
+ * a flag and then waits until the readers that got in before it have left.
+ *
+ * <p>The policy between readers and writers is chosen with a {@link Mode}:
+ * <ul>
+ *   <li>{@link Mode#READER_PREFERRING} behaves like {@link ReaderWriterLock}: a writer only gets
+ *   the lock when no reader holds it, so a steady stream of readers can starve the writers.</li>
+ *   <li>{@link Mode#WRITER_PREFERRING} stops admitting readers as soon as a writer waits.</li>
+ *   <li>{@link Mode#FAIR} grants the lock in arrival order. Threads that cannot enter right away
+ *   queue up in a fair turnstile, which a writer holds from its arrival to its release.</li>
+ * </ul>
+ *
+ * <p>Readers that only read a few fields can also skip the lock altogether: {@link
+ * #tryOptimisticRead()} returns a stamp, and {@link #validate(long)} tells after the reads whether
+ * a writer has acquired the lock in the meantime, in which case the values read have to be thrown
+ * away. This is the optimistic read of {@link java.util.concurrent.locks.StampedLock}.
+ */
+public class StripedReaderWriterLock implements ReadWriteLock {
+
+  /**
+   * Policy between readers and writers.
+   */
+  public enum Mode {
+    READER_PREFERRING, WRITER_PREFERRING, FAIR
+  }
+
+  private static final int FREE = 0;
+  private static final int WRITER = 1;
+
+  private final Mode mode;
+  private final ReaderCounter readers = new ReaderCounter();
+  private final AtomicInteger writer = new AtomicInteger(FREE);
+  private final AtomicInteger waitingWriters = new AtomicInteger();
+
+  /**
+   * Odd while a writer holds the lock, incremented when the writer acquires and releases it.
+   */
+  private final AtomicLong version = new AtomicLong();
+  private final ReentrantLock turnstile = new ReentrantLock(true);
+  private final Object monitor = new Object();
+
+  private final ReadLock readerLock = new ReadLock();
+  private final WriteLock writerLock = new WriteLock();
+
+  public StripedReaderWriterLock() {
+    this(Mode.READER_PREFERRING);
+  }
+
+  public StripedReaderWriterLock(Mode mode) {
+    this.mode = mode;
+  }
+
+  @Override
+  public Lock readLock() {
+    return readerLock;
+  }
+
+  @Override
+  public Lock writeLock() {
+    return writerLock;
+  }
+
+  /**
+   * Returns a stamp to validate after an optimistic read.
+   *
+   * @return a stamp, or zero if a writer holds the lock
+   */
+  public long tryOptimisticRead() {
+    var stamp = version.get();
+    return (stamp & 1) == 0 ? stamp | Long.MIN_VALUE : 0;
+  }
+
+  /**
+   * Tells whether no writer has acquired the lock since the stamp was issued, that is whether the
+   * values read since then are consistent.
+   *
+   * @param stamp a stamp from {@link #tryOptimisticRead()}
+   * @return true if the values read are consistent
+   */
+  public boolean validate(long stamp) {
+    VarHandle.acquireFence();
+    return stamp != 0 && (stamp & Long.MAX_VALUE) == version.get();
+  }
+
+  private void await(BooleanSupplier done) {
+    var interrupted = false;
+    synchronized (monitor) {
+      while (!done.getAsBoolean()) {
+        try {
+          monitor.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void signal() {
+    synchronized (monitor) {
+      monitor.notifyAll();
+    }
+  }
+
+  /**
+   * Reader lock, held by any number of readers at the same time.
+   */
+  private class ReadLock extends UnsupportedLock {
+
+    @Override
+    public void lock() {
+      if (mode != Mode.FAIR) {
+        acquire();
+        return;
+      }
+      // nobody waits, so entering right away does not overtake anyone
+      if (!turnstile.isLocked() && !turnstile.hasQueuedThreads()) {
+        readers.increment();
+        if (writer.get() == FREE) {
+          return;
+        }
+        release();
+      }
+      turnstile.lock();
+      try {
+        acquire();
+      } finally {
+        turnstile.unlock();
+      }
+    }
+
+    private void acquire() {
+      while (true) {
+        readers.increment();
+        if (writer.get() == FREE) {
+          return;
+        }
+        release();
+        await(() -> writer.get() == FREE);
+      }
+    }
+
+    @Override
+    public void unlock() {
+      release();
+    }
+
+    private void release() {
+      readers.decrement();
+      if (writer.get() != FREE || waitingWriters.get() > 0) {
+        signal();
+      }
+    }
+  }
+
+  /**
+   * Writer lock, held by one writer at a time.
+   */
+  private class WriteLock extends UnsupportedLock {
+
+    @Override
+    public void lock() {
+      if (mode == Mode.FAIR) {
+        turnstile.lock();
+      }
+      while (true) {
+        if (!writer.compareAndSet(FREE, WRITER)) {
+          await(() -> writer.get() == FREE);
+          continue;
+        }
+        if (mode != Mode.READER_PREFERRING || readers.sum() == 0) {
+          break;
+        }
+        // readers have priority: step back and wait until they are all gone
+        writer.set(FREE);
+        waitingWriters.incrementAndGet();
+        signal();
+        await(() -> readers.sum() == 0);
+        waitingWriters.decrementAndGet();
+      }
+      waitingWriters.incrementAndGet();
+      await(() -> readers.sum() == 0);
+      waitingWriters.decrementAndGet();
+      version.incrementAndGet();
+    }
+
+    @Override
+    public void unlock() {
+      version.incrementAndGet();
+      writer.set(FREE);
+      if (mode == Mode.FAIR) {
+        turnstile.unlock();
+      }
+      signal();
+    }
+  }
+
+  /**
+   * The operations of {@link Lock} that the reader writer locks of this module do not support.
+   */
+  private abstract static class UnsupportedLock implements Lock {
+
+    @Override
+    public void lockInterruptibly() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean tryLock() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Condition newCondition() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
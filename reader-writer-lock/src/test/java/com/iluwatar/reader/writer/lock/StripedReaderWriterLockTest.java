@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.reader.writer.lock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.iluwatar.reader.writer.lock.StripedReaderWriterLock.Mode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Tests the modes and the optimistic reads of {@link StripedReaderWriterLock}.
+ */
+public class StripedReaderWriterLockTest {
+
+  private final List<String> events = new CopyOnWriteArrayList<>();
+
+  @ParameterizedTest
+  @EnumSource(Mode.class)
+  public void testMutualExclusion(Mode mode) throws Exception {
+    var lock = new StripedReaderWriterLock(mode);
+    var readers = new AtomicInteger();
+    var writers = new AtomicInteger();
+    var violation = new AtomicBoolean();
+    var executor = Executors.newFixedThreadPool(4);
+    var futures = new ArrayList<Future<?>>();
+    for (var t = 0; t < 4; t++) {
+      var writerThread = t == 0;
+      futures.add(executor.submit(() -> {
+        for (var i = 0; i < 2000; i++) {
+          if (writerThread || i % 10 == 0) {
+            lock.writeLock().lock();
+            if (writers.incrementAndGet() != 1 || readers.get() != 0) {
+              violation.set(true);
+            }
+            writers.decrementAndGet();
+            lock.writeLock().unlock();
+          } else {
+            lock.readLock().lock();
+            readers.incrementAndGet();
+            if (writers.get() != 0) {
+              violation.set(true);
+            }
+            readers.decrementAndGet();
+            lock.readLock().unlock();
+          }
+        }
+      }));
+    }
+    for (var future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+    assertFalse(violation.get());
+  }
+
+  @Test
+  public void testReaderPreferringAdmitsReadersBeforeWaitingWriter() throws Exception {
+    var lock = new StripedReaderWriterLock(Mode.READER_PREFERRING);
+    lock.readLock().lock();
+    var writer = start(lock.writeLock(), "writer");
+    awaitBlocked(writer);
+
+    var reader = start(lock.readLock(), "reader");
+    reader.join(5000);
+    assertEquals(List.of("reader"), events);
+    lock.readLock().unlock();
+    writer.join(5000);
+    assertEquals(List.of("reader", "writer"), events);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = Mode.class, names = {"WRITER_PREFERRING", "FAIR"})
+  public void testWaitingWriterGoesBeforeNewReaders(Mode mode) throws Exception {
+    var lock = new StripedReaderWriterLock(mode);
+    lock.readLock().lock();
+    var writer = start(lock.writeLock(), "writer");
+    awaitBlocked(writer);
+
+    var reader = start(lock.readLock(), "reader");
+    awaitBlocked(reader);
+    assertTrue(events.isEmpty());
+    lock.readLock().unlock();
+    writer.join(5000);
+    reader.join(5000);
+    assertEquals(List.of("writer", "reader"), events);
+  }
+
+  @Test
+  public void testOptimisticRead() {
+    var lock = new StripedReaderWriterLock();
+    var stamp = lock.tryOptimisticRead();
+    assertNotEquals(0, stamp);
+    assertTrue(lock.validate(stamp));
+
+    lock.readLock().lock();
+    lock.readLock().unlock();
+    assertTrue(lock.validate(stamp));
+
+    lock.writeLock().lock();
+    assertEquals(0, lock.tryOptimisticRead());
+    lock.writeLock().unlock();
+    assertFalse(lock.validate(stamp));
+    assertTrue(lock.validate(lock.tryOptimisticRead()));
+    assertFalse(lock.validate(0));
+  }
+
+  /**
+   * Starts a thread that takes the lock, records the event and releases the lock.
+   */
+  private Thread start(Lock lock, String event) {
+    var thread = new Thread(() -> {
+      lock.lock();
+      events.add(event);
+      lock.unlock();
+    });
+    thread.start();
+    return thread;
+  }
+
+  private static void awaitBlocked(Thread thread) throws InterruptedException {
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(Thread.State.WAITING, thread.getState());
+  }
+}
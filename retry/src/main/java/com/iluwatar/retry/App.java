@@ -23,6 +23,8 @@
 
 package com.iluwatar.retry;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +55,10 @@ import org.slf4j.LoggerFactory;
  * <p>To keep the calling code as decoupled as possible from this workaround, we have implemented
  * the retry mechanism as a {@link BusinessOperation} named {@link Retry}.
  *
+ * <p>When many operations are retried at once, blocking a thread for every pending retry becomes
+ * expensive. {@link AsyncRetry} schedules each retry on a shared {@link TimerWheel} instead, so
+ * waiting calls hold no thread at all.
+ *
  * @author George Aristy (george.aristy@gmail.com)
  * @see <a href="https://docs.microsoft.com/en-us/azure/architecture/patterns/retry">Retry pattern
  *     (Microsoft Azure Docs)</a>
@@ -73,6 +79,7 @@ public final class App {
     errorNoRetry();
     errorWithRetry();
     errorWithRetryExponentialBackoff();
+    errorWithAsyncRetry();
   }
 
   private static void noErrors() throws Exception {
@@ -119,4 +126,22 @@ public final class App {
             + "the result %s after a number of attempts %s", customerId, retry.attempts()
     ));
   }
+
+  private static void errorWithAsyncRetry() throws Exception {
+    try (var timer = new TimerWheel(1, TimeUnit.MILLISECONDS, ForkJoinPool.commonPool())) {
+      final var retry = new AsyncRetry<>(
+          new FindCustomer("123", new CustomerNotFoundException(NOT_FOUND)),
+          timer,
+          6,  //6 attempts
+          100, //100 ms delay before the first retry
+          30000, //30 s max delay between attempts
+          e -> CustomerNotFoundException.class.isAssignableFrom(e.getClass())
+      );
+      final var customerId = retry.performAsync().get();
+      LOG.info(String.format(
+          "Retrying asynchronously frees the calling thread while waiting and yields the result %s "
+              + "after %s retries", customerId, retry.metrics().retries()
+      ));
+    }
+  }
 }
@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.retry;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Decorates {@link BusinessOperation business operation} with asynchronous "retry" capabilities.
+ *
+ * <p>Unlike {@link RetryExponentialBackoff}, a pending retry does not block a thread: the next
+ * attempt is scheduled on a shared {@link TimerWheel}, so thousands of calls can be waiting for
+ * their backoff to elapse at the same time. Each call keeps its own attempt count, while the errors
+ * and {@link RetryMetrics} are kept per decorated operation. Only the most recent errors are kept.
+ *
+ * @param <T> the remote op's return type
+ */
+public final class AsyncRetry<T> implements BusinessOperation<T> {
+  private static final int MAX_ERRORS = 16;
+
+  private final BusinessOperation<T> op;
+  private final TimerWheel timer;
+  private final int maxAttempts;
+  private final long baseDelay;
+  private final long maxDelay;
+  private final Predicate<Exception> test;
+  private final Deque<Exception> errors;
+  private final RetryMetrics metrics;
+
+  /**
+   * Ctor.
+   *
+   * @param op          the {@link BusinessOperation} to retry
+   * @param timer       the timer wheel scheduling the retries
+   * @param maxAttempts number of times to retry
+   * @param baseDelay   delay (in milliseconds) before the first retry, doubled for every retry
+   * @param maxDelay    maximum delay (in milliseconds) between attempts
+   * @param ignoreTests tests to check whether the remote exception can be ignored. No exceptions
+   *                    will be ignored if no tests are given
+   */
+  @SafeVarargs
+  public AsyncRetry(
+      BusinessOperation<T> op,
+      TimerWheel timer,
+      int maxAttempts,
+      long baseDelay,
+      long maxDelay,
+      Predicate<Exception>... ignoreTests
+  ) {
+    this.op = op;
+    this.timer = timer;
+    this.maxAttempts = maxAttempts;
+    this.baseDelay = baseDelay;
+    this.maxDelay = maxDelay;
+    this.test = Arrays.stream(ignoreTests).reduce(Predicate::or).orElse(e -> false);
+    this.errors = new ArrayDeque<>(MAX_ERRORS);
+    this.metrics = new RetryMetrics();
+  }
+
+  /**
+   * The most recent errors encountered while retrying, in the encounter order.
+   *
+   * @return at most the last 16 errors encountered while retrying
+   */
+  public List<Exception> errors() {
+    synchronized (this.errors) {
+      return List.copyOf(this.errors);
+    }
+  }
+
+  /**
+   * The metrics of all calls made through this decorator.
+   *
+   * @return the retry metrics
+   */
+  public RetryMetrics metrics() {
+    return this.metrics;
+  }
+
+  /**
+   * Performs the operation, retrying it in the background until it succeeds, fails with an error
+   * that is not ignored, or runs out of attempts.
+   *
+   * @return a future completed with the result or with the last error
+   */
+  public CompletableFuture<T> performAsync() {
+    var result = new CompletableFuture<T>();
+    this.metrics.called();
+    attempt(result, 1);
+    return result;
+  }
+
+  @Override
+  public T perform() throws BusinessException {
+    try {
+      return performAsync().get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof BusinessException) {
+        throw (BusinessException) e.getCause();
+      }
+      throw (RuntimeException) e.getCause();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BusinessException("interrupted while retrying");
+    }
+  }
+
+  private void attempt(CompletableFuture<T> result, int attempt) {
+    this.metrics.attempted();
+    try {
+      var value = this.op.perform();
+      this.metrics.succeeded();
+      result.complete(value);
+    } catch (BusinessException e) {
+      record(e);
+      if (attempt >= this.maxAttempts || !this.test.test(e)) {
+        this.metrics.failed();
+        result.completeExceptionally(e);
+        return;
+      }
+      var delay = delay(attempt);
+      this.timer.schedule(() -> attempt(result, attempt + 1), cancelled -> {
+        this.metrics.failed();
+        result.completeExceptionally(cancelled);
+      }, delay, TimeUnit.MILLISECONDS);
+    } catch (RuntimeException e) {
+      this.metrics.failed();
+      result.completeExceptionally(e);
+    }
+  }
+
+  private long delay(int attempt) {
+    var jitter = this.baseDelay > 0 ? ThreadLocalRandom.current().nextLong(this.baseDelay) : 0;
+    var shift = Math.min(attempt - 1, Long.numberOfLeadingZeros(this.baseDelay) - 1);
+    var backoff = this.baseDelay << shift;
+    return Math.min(backoff + jitter, this.maxDelay);
+  }
+
+  private void record(Exception e) {
+    synchronized (this.errors) {
+      if (this.errors.size() == MAX_ERRORS) {
+        this.errors.removeFirst();
+      }
+      this.errors.addLast(e);
+    }
+  }
+}
@@ -27,7 +27,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
@@ -38,7 +38,6 @@ import java.util.function.Predicate;
  * @author George Aristy (george.aristy@gmail.com)
  */
 public final class RetryExponentialBackoff<T> implements BusinessOperation<T> {
-  private static final Random RANDOM = new Random();
   private final BusinessOperation<T> op;
   private final int maxAttempts;
   private final long maxDelay;
@@ -100,7 +99,8 @@ public final class RetryExponentialBackoff<T> implements BusinessOperation<T> {
         }
 
         try {
-          var testDelay = (long) Math.pow(2, this.attempts()) * 1000 + RANDOM.nextInt(1000);
+          var testDelay = (long) Math.pow(2, this.attempts()) * 1000
+              + ThreadLocalRandom.current().nextInt(1000);
           var delay = Math.min(testDelay, this.maxDelay);
           Thread.sleep(delay);
         } catch (InterruptedException f) {
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.retry;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing how a retried {@link BusinessOperation} has behaved. Counters are striped so
+ * that many concurrent retries can update them without contending on a single memory location.
+ */
+public final class RetryMetrics {
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder attempts = new LongAdder();
+  private final LongAdder successes = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+
+  void called() {
+    this.calls.increment();
+  }
+
+  void attempted() {
+    this.attempts.increment();
+  }
+
+  void succeeded() {
+    this.successes.increment();
+  }
+
+  void failed() {
+    this.failures.increment();
+  }
+
+  /**
+   * The number of times the operation was invoked by callers.
+   *
+   * @return the number of calls
+   */
+  public long calls() {
+    return this.calls.sum();
+  }
+
+  /**
+   * The number of times the decorated operation was actually performed, including retries.
+   *
+   * @return the number of attempts
+   */
+  public long attempts() {
+    return this.attempts.sum();
+  }
+
+  /**
+   * The number of retries, that is attempts beyond the first one of each call.
+   *
+   * @return the number of retries
+   */
+  public long retries() {
+    return this.attempts.sum() - this.calls.sum();
+  }
+
+  /**
+   * The number of calls that eventually returned a result.
+   *
+   * @return the number of successful calls
+   */
+  public long successes() {
+    return this.successes.sum();
+  }
+
+  /**
+   * The number of calls that failed after exhausting their attempts or on an error that is not
+   * ignored.
+   *
+   * @return the number of failed calls
+   */
+  public long failures() {
+    return this.failures.sum();
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.retry;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A hierarchical timer wheel that runs delayed tasks without dedicating a thread to each of them.
+ *
+ * <p>Time is divided into ticks. Each level of the wheel has 64 slots and covers 64 times the
+ * span of the level below it, so four levels cover 2<sup>24</sup> ticks. A timeout is filed in the
+ * lowest level whose current rotation contains its deadline and is moved down a level whenever the
+ * wheel reaches its slot, until it expires from the lowest level. Scheduling only appends to a
+ * lock-free queue; the single wheel thread owns all slots, and expired tasks are handed to an
+ * {@link Executor}.
+ *
+ * <p>Closing the wheel abandons the timeouts that have not expired. Their tasks never run, but a
+ * timeout scheduled with a close handler is told so, letting whoever waits for the task fail
+ * instead of waiting forever. The same handler is called when the executor rejects an expired
+ * task.
+ */
+public final class TimerWheel implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(TimerWheel.class);
+  private static final int WHEEL_BITS = 6;
+  private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+  private static final int LEVELS = 4;
+
+  private final long tickNanos;
+  private final long startNanos;
+  private final Executor executor;
+  private final Queue<Timeout> pending;
+  private final ArrayDeque<Timeout>[][] wheels;
+  private final ArrayDeque<Timeout> overflow;
+  private final Thread worker;
+  private long currentTick;
+  private volatile boolean running;
+
+  /**
+   * A task scheduled on the wheel.
+   */
+  public static final class Timeout {
+    private final Runnable task;
+    private final Consumer<? super CancellationException> onClose;
+    private final long deadline;
+    private volatile boolean cancelled;
+
+    private Timeout(Runnable task, Consumer<? super CancellationException> onClose,
+        long deadline) {
+      this.task = task;
+      this.onClose = onClose;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Prevents the task from running if it has not expired yet.
+     */
+    public void cancel() {
+      this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+      return this.cancelled;
+    }
+  }
+
+  /**
+   * Ctor.
+   *
+   * @param tickDuration resolution of the wheel; delays are rounded up to a whole tick
+   * @param unit         unit of {@code tickDuration}
+   * @param executor     runs the expired tasks
+   */
+  @SuppressWarnings("unchecked")
+  public TimerWheel(long tickDuration, TimeUnit unit, Executor executor) {
+    this.tickNanos = unit.toNanos(tickDuration);
+    this.startNanos = System.nanoTime();
+    this.executor = executor;
+    this.pending = new ConcurrentLinkedQueue<>();
+    this.wheels = new ArrayDeque[LEVELS][WHEEL_SIZE];
+    for (var level : this.wheels) {
+      for (var slot = 0; slot < WHEEL_SIZE; slot++) {
+        level[slot] = new ArrayDeque<>();
+      }
+    }
+    this.overflow = new ArrayDeque<>();
+    this.running = true;
+    this.worker = new Thread(this::run, "timer-wheel");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  /**
+   * Schedules a task to run once the delay has elapsed.
+   *
+   * @param task  the task to run
+   * @param delay delay before the task runs
+   * @param unit  unit of {@code delay}
+   * @return a handle that can cancel the task
+   */
+  public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    return schedule(task, null, delay, unit);
+  }
+
+  /**
+   * Schedules a task to run once the delay has elapsed, or the close handler to run instead if
+   * the wheel is closed before that or the executor rejects the task.
+   *
+   * @param task    the task to run
+   * @param onClose called, in the closing thread or the wheel thread, if the wheel is closed
+   *                before the task expires or the executor rejects it, and the timeout was not
+   *                cancelled; may be null
+   * @param delay   delay before the task runs
+   * @param unit    unit of {@code delay}
+   * @return a handle that can cancel the task
+   */
+  public Timeout schedule(Runnable task, Consumer<? super CancellationException> onClose,
+      long delay, TimeUnit unit) {
+    var elapsed = System.nanoTime() - this.startNanos + unit.toNanos(delay);
+    var timeout = new Timeout(task, onClose, (elapsed + this.tickNanos - 1) / this.tickNanos);
+    this.pending.add(timeout);
+    if (!this.running) {
+      // the wheel thread may have drained the queue already
+      abandonPending();
+    }
+    return timeout;
+  }
+
+  /**
+   * Stops the wheel thread and waits for it to finish. Tasks that have not expired yet never run;
+   * the close handlers of their timeouts are called instead.
+   */
+  @Override
+  public void close() {
+    this.running = false;
+    LockSupport.unpark(this.worker);
+    if (Thread.currentThread() != this.worker) {
+      try {
+        this.worker.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void run() {
+    while (this.running) {
+      var now = (System.nanoTime() - this.startNanos) / this.tickNanos;
+      for (Timeout timeout; (timeout = this.pending.poll()) != null; ) {
+        place(timeout);
+      }
+      while (this.currentTick <= now) {
+        advance();
+      }
+      var nextTick = this.startNanos + this.currentTick * this.tickNanos;
+      LockSupport.parkNanos(nextTick - System.nanoTime());
+    }
+    for (var level : this.wheels) {
+      for (var slot : level) {
+        abandon(slot);
+      }
+    }
+    abandon(this.overflow);
+    abandonPending();
+  }
+
+  private void abandonPending() {
+    for (Timeout timeout; (timeout = this.pending.poll()) != null; ) {
+      abandon(timeout);
+    }
+  }
+
+  private void abandon(ArrayDeque<Timeout> slot) {
+    for (Timeout timeout; (timeout = slot.poll()) != null; ) {
+      abandon(timeout);
+    }
+  }
+
+  private void abandon(Timeout timeout) {
+    abandon(timeout, new CancellationException("Timer wheel closed"));
+  }
+
+  private void abandon(Timeout timeout, CancellationException reason) {
+    if (timeout.cancelled || timeout.onClose == null) {
+      return;
+    }
+    timeout.cancelled = true;
+    try {
+      timeout.onClose.accept(reason);
+    } catch (RuntimeException e) {
+      LOG.error("Timer close handler failed", e);
+    }
+  }
+
+  /**
+   * Processes {@link #currentTick}: every level whose rotation starts at this tick is cascaded
+   * into the levels below it, then the lowest level's slot expires.
+   */
+  private void advance() {
+    var tick = this.currentTick;
+    var level = 0;
+    while (level < LEVELS && (tick & ((1L << (WHEEL_BITS * (level + 1))) - 1)) == 0) {
+      level++;
+    }
+    if (level == LEVELS) {
+      drain(this.overflow);
+      level--;
+    }
+    for (; level > 0; level--) {
+      drain(this.wheels[level][(int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK]);
+    }
+    var slot = this.wheels[0][(int) tick & WHEEL_MASK];
+    for (Timeout timeout; (timeout = slot.poll()) != null; ) {
+      expire(timeout);
+    }
+    this.currentTick++;
+  }
+
+  private void drain(ArrayDeque<Timeout> slot) {
+    var count = slot.size();
+    for (var i = 0; i < count; i++) {
+      place(slot.poll());
+    }
+  }
+
+  private void place(Timeout timeout) {
+    if (timeout.cancelled) {
+      return;
+    }
+    var deadline = timeout.deadline;
+    if (deadline <= this.currentTick) {
+      expire(timeout);
+      return;
+    }
+    for (var level = 0; level < LEVELS; level++) {
+      var shift = WHEEL_BITS * (level + 1);
+      if (deadline >>> shift == this.currentTick >>> shift) {
+        this.wheels[level][(int) (deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK].add(timeout);
+        return;
+      }
+    }
+    this.overflow.add(timeout);
+  }
+
+  private void expire(Timeout timeout) {
+    if (timeout.cancelled) {
+      return;
+    }
+    try {
+      this.executor.execute(timeout.task);
+    } catch (RuntimeException e) {
+      LOG.error("Timer task failed", e);
+      var reason = new CancellationException("Timer task rejected");
+      reason.initCause(e);
+      abandon(timeout, reason);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.retry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link AsyncRetry}.
+ */
+public class AsyncRetryTest {
+  private final TimerWheel timer = new TimerWheel(1, TimeUnit.MILLISECONDS,
+      ForkJoinPool.commonPool());
+
+  @AfterEach
+  public void stopTimer() {
+    timer.close();
+  }
+
+  /**
+   * Ignored errors are retried until the operation yields its result.
+   */
+  @Test
+  public void resultAfterRetries() throws Exception {
+    final var retry = new AsyncRetry<>(
+        new FindCustomer("123", new CustomerNotFoundException("not found"),
+            new CustomerNotFoundException("not found")),
+        timer,
+        3,
+        1,
+        10,
+        ex -> CustomerNotFoundException.class.isAssignableFrom(ex.getClass())
+    );
+
+    assertThat(retry.performAsync().get(1, TimeUnit.SECONDS), is("123"));
+    assertThat(retry.errors().size(), is(2));
+    assertThat(retry.metrics().attempts(), is(3L));
+    assertThat(retry.metrics().retries(), is(2L));
+    assertThat(retry.metrics().successes(), is(1L));
+  }
+
+  /**
+   * No exceptions will be ignored, hence the operation is attempted only once.
+   */
+  @Test
+  public void failsOnErrorThatIsNotIgnored() {
+    final var retry = new AsyncRetry<String>(
+        () -> {
+          throw new DatabaseNotAvailableException("not available");
+        },
+        timer,
+        3,
+        1,
+        10
+    );
+
+    assertThrows(DatabaseNotAvailableException.class, retry::perform);
+    assertThat(retry.metrics().attempts(), is(1L));
+    assertThat(retry.metrics().failures(), is(1L));
+  }
+
+  /**
+   * A call waiting for its next attempt fails when the timer wheel is closed.
+   */
+  @Test
+  public void failsWhenTimerIsClosed() {
+    final var retry = new AsyncRetry<String>(
+        () -> {
+          throw new CustomerNotFoundException("not found");
+        },
+        timer,
+        3,
+        60_000,
+        60_000,
+        e -> CustomerNotFoundException.class.isAssignableFrom(e.getClass())
+    );
+
+    final var result = retry.performAsync();
+    timer.close();
+    assertThrows(CancellationException.class, () -> result.get(1, TimeUnit.SECONDS));
+    assertThat(retry.metrics().failures(), is(1L));
+  }
+
+  /**
+   * A call fails when the executor rejects its next attempt.
+   */
+  @Test
+  public void failsWhenExecutorRejectsRetry() {
+    final var executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    try (var rejecting = new TimerWheel(1, TimeUnit.MILLISECONDS, executor)) {
+      final var retry = new AsyncRetry<String>(
+          () -> {
+            throw new CustomerNotFoundException("not found");
+          },
+          rejecting,
+          3,
+          1,
+          1,
+          e -> CustomerNotFoundException.class.isAssignableFrom(e.getClass())
+      );
+
+      final var result = retry.performAsync();
+      final var thrown = assertThrows(CancellationException.class,
+          () -> result.get(1, TimeUnit.SECONDS));
+      assertThat(thrown.getCause() instanceof RejectedExecutionException, is(true));
+      assertThat(retry.metrics().failures(), is(1L));
+    }
+  }
+
+  /**
+   * Only the most recent errors are kept, however many calls fail.
+   */
+  @Test
+  public void errorHistoryIsBounded() {
+    final var retry = new AsyncRetry<String>(
+        () -> {
+          throw new CustomerNotFoundException("not found");
+        },
+        timer,
+        5,
+        0,
+        0,
+        ex -> CustomerNotFoundException.class.isAssignableFrom(ex.getClass())
+    );
+    for (var i = 0; i < 10; i++) {
+      assertThrows(CustomerNotFoundException.class, retry::perform);
+    }
+
+    assertThat(retry.errors().size(), is(16));
+    assertThat(retry.metrics().attempts(), is(50L));
+    assertThat(retry.metrics().failures(), is(10L));
+  }
+}
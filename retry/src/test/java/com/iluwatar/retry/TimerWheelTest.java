@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.retry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TimerWheel}.
+ */
+public class TimerWheelTest {
+
+  /**
+   * Timeouts spread over several levels of the wheel expire in deadline order, never early.
+   */
+  @Test
+  public void expiresInDeadlineOrder() throws Exception {
+    final var expired = Collections.synchronizedList(new ArrayList<Long>());
+    final var early = new AtomicBoolean();
+    final var delays = List.of(300L, 5L, 70L, 0L, 150L);
+    final var latch = new CountDownLatch(delays.size());
+    try (var timer = new TimerWheel(1, TimeUnit.MILLISECONDS, Runnable::run)) {
+      final var start = System.nanoTime();
+      for (var delay : delays) {
+        timer.schedule(() -> {
+          if (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(delay)) {
+            early.set(true);
+          }
+          expired.add(delay);
+          latch.countDown();
+        }, delay, TimeUnit.MILLISECONDS);
+      }
+      assertTrue(latch.await(2, TimeUnit.SECONDS));
+    }
+
+    assertThat(expired, is(List.of(0L, 5L, 70L, 150L, 300L)));
+    assertThat(early.get(), is(false));
+  }
+
+  /**
+   * A cancelled timeout never runs.
+   */
+  @Test
+  public void cancelledTimeoutDoesNotRun() throws Exception {
+    final var latch = new CountDownLatch(1);
+    try (var timer = new TimerWheel(1, TimeUnit.MILLISECONDS, Runnable::run)) {
+      timer.schedule(latch::countDown, 20, TimeUnit.MILLISECONDS).cancel();
+      assertThat(latch.await(100, TimeUnit.MILLISECONDS), is(false));
+    }
+  }
+
+  /**
+   * Closing the wheel calls the close handlers of the timeouts that have not expired.
+   */
+  @Test
+  public void closeAbandonsPendingTimeouts() {
+    final var closed = Collections.synchronizedList(new ArrayList<Long>());
+    final var timer = new TimerWheel(1, TimeUnit.MILLISECONDS, Runnable::run);
+    for (var delay : List.of(5_000L, 100_000_000L)) {
+      timer.schedule(() -> { }, e -> closed.add(delay), delay, TimeUnit.MILLISECONDS);
+    }
+    timer.schedule(() -> { }, e -> closed.add(-1L), 5_000, TimeUnit.MILLISECONDS).cancel();
+    timer.close();
+
+    assertThat(closed, is(List.of(5_000L, 100_000_000L)));
+
+    final var late = new ArrayList<CancellationException>();
+    timer.schedule(() -> { }, late::add, 0, TimeUnit.MILLISECONDS);
+    assertThat(late.size(), is(1));
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.choreography;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A message driven runtime for choreography sagas. Instead of every service calling the next one
+ * directly, which turns a saga into one deep call stack on one thread, every service gets an inbox.
+ * After executing its chapter, a service publishes the saga id to the inbox of the service owning
+ * the chapter to execute next, either the next chapter or, on rollback, the previous one.
+ *
+ * <p>The inboxes are drained by a shared executor, one batch at a time and never by two threads at
+ * once, just like a consumer of a message queue. Thus any number of sagas can be in flight while
+ * every service still handles its events one by one. The state of the sagas lives in a {@link
+ * SagaStore}, so the events themselves carry nothing but the saga id.
+ */
+public class ChoreographySagaRuntime {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChoreographySagaRuntime.class);
+  private static final int BATCH_SIZE = 64;
+
+  private final ServiceDiscoveryService sd;
+  private final Executor executor;
+  private final SagaStore store;
+  private final ConcurrentHashMap<String, Inbox> inboxes;
+
+  /**
+   * Create a new runtime.
+   *
+   * @param sd       service discovery @see {@link ServiceDiscoveryService}
+   * @param executor executor draining the inboxes of the services
+   */
+  public ChoreographySagaRuntime(ServiceDiscoveryService sd, Executor executor) {
+    this.sd = sd;
+    this.executor = executor;
+    this.store = new SagaStore();
+    this.inboxes = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Starts a saga without waiting for it.
+   *
+   * @param saga saga to execute
+   * @return a future completed with the saga once it has finished
+   */
+  public CompletableFuture<Saga> start(Saga saga) {
+    var id = store.add(saga);
+    var result = store.result(id);
+    publish(id, saga.getCurrent().getName());
+    return result;
+  }
+
+  public SagaStore getStore() {
+    return store;
+  }
+
+  private void publish(long sagaId, String chapterName) {
+    inboxes.computeIfAbsent(chapterName, Inbox::new).post(sagaId);
+  }
+
+  /**
+   * The events waiting for one service.
+   */
+  private class Inbox {
+    private final String serviceName;
+    private final Queue<Long> events = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    Inbox(String serviceName) {
+      this.serviceName = serviceName;
+    }
+
+    void post(long sagaId) {
+      events.add(sagaId);
+      schedule();
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        executor.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      var service = sd.find(serviceName);
+      for (var i = 0; i < BATCH_SIZE; i++) {
+        var sagaId = events.poll();
+        if (sagaId == null) {
+          break;
+        }
+        if (service.isEmpty()) {
+          store.fail(sagaId, Service.serviceNotFoundException(serviceName).get());
+          continue;
+        }
+        handle(service.get(), sagaId);
+      }
+      scheduled.set(false);
+      if (!events.isEmpty()) {
+        schedule();
+      }
+    }
+
+    private void handle(ChoreographyChapter service, long sagaId) {
+      try {
+        var saga = Service.step(service, store.get(sagaId));
+        if (saga.getResult() == Saga.SagaResult.PROGRESS) {
+          publish(sagaId, saga.getCurrent().getName());
+        } else {
+          store.finish(sagaId);
+        }
+      } catch (RuntimeException e) {
+        LOGGER.error("The chapter '{}' of saga {} has failed", serviceName, sagaId, e);
+        store.fail(sagaId, e);
+      }
+    }
+  }
+}
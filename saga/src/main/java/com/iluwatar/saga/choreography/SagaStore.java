@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.choreography;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the state of every saga in flight, keyed by a saga id. The services only pass the id
+ * around in their events and look the saga up here, so an in-flight saga costs one map entry and
+ * the saga itself. The entry is dropped as soon as the saga finishes.
+ */
+public class SagaStore {
+  private final AtomicLong ids = new AtomicLong();
+  private final ConcurrentHashMap<Long, Entry> sagas = new ConcurrentHashMap<>();
+
+  private static class Entry {
+    final Saga saga;
+    final CompletableFuture<Saga> result;
+
+    Entry(Saga saga) {
+      this.saga = saga;
+      this.result = new CompletableFuture<>();
+    }
+  }
+
+  long add(Saga saga) {
+    var id = ids.incrementAndGet();
+    sagas.put(id, new Entry(saga));
+    return id;
+  }
+
+  Saga get(long id) {
+    return sagas.get(id).saga;
+  }
+
+  CompletableFuture<Saga> result(long id) {
+    return sagas.get(id).result;
+  }
+
+  void finish(long id) {
+    var entry = sagas.remove(id);
+    entry.result.complete(entry.saga);
+  }
+
+  void fail(long id, Throwable cause) {
+    sagas.remove(id).result.completeExceptionally(cause);
+  }
+
+  /**
+   * Number of sagas that have been started and have not finished yet.
+   *
+   * @return number of sagas in flight
+   */
+  public int size() {
+    return sagas.size();
+  }
+}
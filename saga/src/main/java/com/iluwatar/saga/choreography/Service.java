@@ -44,36 +44,51 @@ public abstract class Service implements ChoreographyChapter {
   @Override
   public Saga execute(Saga saga) {
     var nextSaga = saga;
-    Object nextVal;
-    var chapterName = saga.getCurrent().getName();
-    if (chapterName.equals(getName())) {
-      if (saga.isForward()) {
-        nextSaga = process(saga);
-        nextVal = nextSaga.getCurrentValue();
-        if (nextSaga.isCurrentSuccess()) {
-          nextSaga.forward();
-        } else {
-          nextSaga.back();
-        }
-      } else {
-        nextSaga = rollback(saga);
-        nextVal = nextSaga.getCurrentValue();
-        nextSaga.back();
-      }
-
-      if (isSagaFinished(nextSaga)) {
+    if (saga.getCurrent().getName().equals(getName())) {
+      nextSaga = step(this, saga);
+      if (nextSaga.getResult() != Saga.SagaResult.PROGRESS) {
         return nextSaga;
       }
-
-      nextSaga.setCurrentValue(nextVal);
     }
     var finalNextSaga = nextSaga;
+    var chapterName = nextSaga.getCurrent().getName();
 
     return sd.find(chapterName).map(ch -> ch.execute(finalNextSaga))
         .orElseThrow(serviceNotFoundException(chapterName));
   }
 
-  private Supplier<RuntimeException> serviceNotFoundException(String chServiceName) {
+  /**
+   * Executes the current chapter of the saga, processing it while the saga moves forward and
+   * rolling it back otherwise, then moves the saga to the chapter to execute next.
+   *
+   * @param chapter service owning the current chapter
+   * @param saga    saga to move
+   * @return the moved saga, marked as finished if no chapter is left to execute
+   */
+  static Saga step(ChoreographyChapter chapter, Saga saga) {
+    var nextSaga = saga;
+    Object nextVal;
+    if (saga.isForward()) {
+      nextSaga = chapter.process(saga);
+      nextVal = nextSaga.getCurrentValue();
+      if (nextSaga.isCurrentSuccess()) {
+        nextSaga.forward();
+      } else {
+        nextSaga.back();
+      }
+    } else {
+      nextSaga = chapter.rollback(saga);
+      nextVal = nextSaga.getCurrentValue();
+      nextSaga.back();
+    }
+
+    if (!isSagaFinished(nextSaga)) {
+      nextSaga.setCurrentValue(nextVal);
+    }
+    return nextSaga;
+  }
+
+  static Supplier<RuntimeException> serviceNotFoundException(String chServiceName) {
     return () -> new RuntimeException(
         String.format("the service %s has not been found", chServiceName));
   }
@@ -101,7 +116,7 @@ public abstract class Service implements ChoreographyChapter {
     return saga;
   }
 
-  private boolean isSagaFinished(Saga saga) {
+  private static boolean isSagaFinished(Saga saga) {
     if (!saga.isPresent()) {
       saga.setFinished(true);
       LOGGER.info(" the saga has been finished with {} status", saga.getResult());
@@ -0,0 +1,207 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.orchestration;
+
+import static com.iluwatar.saga.orchestration.Saga.Result;
+import static com.iluwatar.saga.orchestration.Saga.Result.CRASHED;
+import static com.iluwatar.saga.orchestration.Saga.Result.FINISHED;
+import static com.iluwatar.saga.orchestration.Saga.Result.ROLLBACK;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The orchestrator that executes the chapters of a saga as a dependency graph. A chapter starts as
+ * soon as all the chapters it depends on have succeeded, so independent chapters run concurrently
+ * on the given executor.
+ *
+ * <p>Once a chapter fails no further chapter is started. After the chapters already running have
+ * finished, every chapter that was started is compensated, each one only after all the started
+ * chapters depending on it have been compensated; independent compensations run concurrently as
+ * well. The outcome is reported with the same {@link Result} as {@link SagaOrchestrator}. A
+ * chapter or compensation that throws counts as failed, just like one returning a failure.
+ *
+ * <p>A chapter receives the value produced by its first dependency, or the saga input if it has
+ * none, and its compensation receives the same value as its process step did.
+ */
+public class ParallelSagaOrchestrator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelSagaOrchestrator.class);
+  private final Saga saga;
+  private final ServiceDiscoveryService sd;
+  private final Executor executor;
+  private final int[][] dependencies;
+  private final int[][] dependents;
+
+  /**
+   * Create a new service to orchestrate sagas concurrently.
+   *
+   * @param saga     saga to process
+   * @param sd       service discovery @see {@link ServiceDiscoveryService}
+   * @param executor executor running the chapters
+   */
+  public ParallelSagaOrchestrator(Saga saga, ServiceDiscoveryService sd, Executor executor) {
+    this.saga = saga;
+    this.sd = sd;
+    this.executor = executor;
+    this.dependencies = new int[saga.size()][];
+    var dependentLists = new ArrayList<List<Integer>>();
+    for (var i = 0; i < saga.size(); i++) {
+      dependentLists.add(new ArrayList<>());
+    }
+    for (var i = 0; i < saga.size(); i++) {
+      var names = saga.get(i).getDependencies();
+      dependencies[i] = new int[names.size()];
+      for (var j = 0; j < names.size(); j++) {
+        dependencies[i][j] = saga.indexOf(names.get(j));
+        dependentLists.get(dependencies[i][j]).add(i);
+      }
+    }
+    this.dependents = dependentLists.stream()
+        .map(l -> l.stream().mapToInt(Integer::intValue).toArray())
+        .toArray(int[][]::new);
+  }
+
+  /**
+   * pipeline to execute saga process/story.
+   *
+   * @param value incoming value
+   * @param <K>   type for incoming value
+   * @return result @see {@link Result}
+   */
+  public <K> Result execute(K value) {
+    LOGGER.info(" The new saga is about to start");
+    var run = new Run<K>(saga.size());
+
+    var forward = new ArrayList<CompletableFuture<K>>(saga.size());
+    for (var i = 0; i < saga.size(); i++) {
+      var chapter = i;
+      forward.add(input(forward, chapter, value)
+          .thenApplyAsync(input -> run.process(chapter, input), executor));
+    }
+    awaitAll(forward);
+    if (!run.failed.get()) {
+      return FINISHED;
+    }
+
+    var backward = new ArrayList<CompletableFuture<Void>>(saga.size());
+    for (var i = 0; i < saga.size(); i++) {
+      backward.add(null);
+    }
+    for (var i = saga.size() - 1; i >= 0; i--) {
+      var chapter = i;
+      var compensatedDependents = new CompletableFuture<?>[dependents[chapter].length];
+      for (var j = 0; j < compensatedDependents.length; j++) {
+        compensatedDependents[j] = backward.get(dependents[chapter][j]);
+      }
+      backward.set(chapter, CompletableFuture.allOf(compensatedDependents)
+          .thenRunAsync(() -> run.rollback(chapter), executor));
+    }
+    awaitAll(backward);
+    return run.crashed.get() ? CRASHED : ROLLBACK;
+  }
+
+  private <K> CompletableFuture<K> input(List<CompletableFuture<K>> forward, int chapter, K value) {
+    if (dependencies[chapter].length == 0) {
+      return CompletableFuture.completedFuture(value);
+    }
+    var first = forward.get(dependencies[chapter][0]);
+    var all = new CompletableFuture<?>[dependencies[chapter].length];
+    for (var j = 0; j < all.length; j++) {
+      all[j] = forward.get(dependencies[chapter][j]);
+    }
+    return CompletableFuture.allOf(all).thenCompose(v -> first);
+  }
+
+  private static void awaitAll(List<? extends CompletableFuture<?>> futures) {
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException e) {
+      // failed chapters are tracked by the run itself
+    }
+  }
+
+  /**
+   * State of one execution of the saga.
+   */
+  private class Run<K> {
+    final AtomicBoolean failed = new AtomicBoolean();
+    final AtomicBoolean crashed = new AtomicBoolean();
+    final AtomicIntegerArray started;
+    final AtomicReferenceArray<K> inputs;
+
+    Run(int size) {
+      this.started = new AtomicIntegerArray(size);
+      this.inputs = new AtomicReferenceArray<>(size);
+    }
+
+    @SuppressWarnings("unchecked")
+    K process(int chapter, K input) {
+      var srvOpt = sd.find(saga.get(chapter).name);
+      if (failed.get() || srvOpt.isEmpty()) {
+        failed.set(true);
+        throw new CompletionException(new IllegalStateException("Chapter not started"));
+      }
+      inputs.set(chapter, input);
+      started.set(chapter, 1);
+      ChapterResult<K> processRes;
+      try {
+        processRes = srvOpt.get().process(input);
+      } catch (RuntimeException e) {
+        LOGGER.error("The chapter " + saga.get(chapter).name + " has thrown", e);
+        failed.set(true);
+        throw new CompletionException(e);
+      }
+      if (!processRes.isSuccess()) {
+        failed.set(true);
+        throw new CompletionException(new IllegalStateException("Chapter failed"));
+      }
+      return (K) processRes.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    void rollback(int chapter) {
+      if (started.get(chapter) == 0) {
+        return;
+      }
+      try {
+        var rlRes = sd.find(saga.get(chapter).name).get().rollback(inputs.get(chapter));
+        if (!rlRes.isSuccess()) {
+          crashed.set(true);
+        }
+      } catch (RuntimeException e) {
+        // the compensations of the chapters it depends on still have to run
+        LOGGER.error("The compensation of " + saga.get(chapter).name + " has thrown", e);
+        crashed.set(true);
+      }
+    }
+  }
+}
@@ -28,7 +28,8 @@ import java.util.List;
 
 /**
  * Saga representation. Saga consists of chapters. Every ChoreographyChapter is executed by a
- * certain service.
+ * certain service. Each chapter names the chapters it depends on, so the chapters form a graph;
+ * chapters added with {@link #chapter(String)} simply depend on the one before them.
  */
 public class Saga {
 
@@ -40,8 +41,37 @@ public class Saga {
   }
 
 
+  /**
+   * Adds a chapter that runs after the previously added chapter.
+   *
+   * @param name chapter name
+   * @return this saga
+   */
   public Saga chapter(String name) {
-    this.chapters.add(new Chapter(name));
+    var dependencies = chapters.isEmpty()
+        ? List.<String>of()
+        : List.of(chapters.get(chapters.size() - 1).name);
+    this.chapters.add(new Chapter(name, dependencies));
+    return this;
+  }
+
+  /**
+   * Adds a chapter that only depends on the given, already added, chapters. Chapters that do not
+   * depend on each other may be executed and compensated concurrently by {@link
+   * ParallelSagaOrchestrator}.
+   *
+   * @param name         chapter name
+   * @param dependencies names of the chapters that must succeed before this one starts; none for a
+   *                     chapter that can start right away
+   * @return this saga
+   */
+  public Saga chapterAfter(String name, String... dependencies) {
+    for (var dependency : dependencies) {
+      if (indexOf(dependency) < 0) {
+        throw new IllegalArgumentException("Unknown chapter " + dependency);
+      }
+    }
+    this.chapters.add(new Chapter(name, List.of(dependencies)));
     return this;
   }
 
@@ -54,6 +84,25 @@ public class Saga {
     return idx >= 0 && idx < chapters.size();
   }
 
+  public int size() {
+    return chapters.size();
+  }
+
+  /**
+   * Finds the position of a chapter.
+   *
+   * @param name chapter name
+   * @return index of the chapter, or -1 if there is no such chapter
+   */
+  public int indexOf(String name) {
+    for (var i = 0; i < chapters.size(); i++) {
+      if (chapters.get(i).name.equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
 
   public static Saga create() {
     return new Saga();
@@ -71,13 +120,23 @@ public class Saga {
    */
   public static class Chapter {
     String name;
+    List<String> dependencies;
 
     public Chapter(String name) {
+      this(name, List.of());
+    }
+
+    public Chapter(String name, List<String> dependencies) {
       this.name = name;
+      this.dependencies = dependencies;
     }
 
     public String getName() {
       return name;
     }
+
+    public List<String> getDependencies() {
+      return dependencies;
+    }
   }
 }
@@ -0,0 +1,359 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.orchestration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A write-ahead log of saga progress. Before a chapter is executed, the position of the saga
+ * (chapter index, direction and the value handed to the chapter) is appended to the log and made
+ * durable, and when the saga ends its result is appended too. After a crash, every saga that has
+ * no result in the log can be resumed from its last position, see {@link
+ * SagaOrchestrator#recover()}. A chapter may thus be executed twice, once before the crash and
+ * once on recovery, so the chapters have to be idempotent.
+ *
+ * <p>Every record is framed with its length and a CRC32, so a record torn by the crash is detected
+ * and cut off on startup. The fsync is shared by all the sagas writing at the same time (group
+ * commit): the first saga to wait for durability forces everything written so far, and the sagas
+ * that appended in the meantime are released by that same fsync.
+ *
+ * <p>On startup, the log is compacted to the last position of the incomplete sagas, so recovery
+ * time depends on the sagas in flight at the crash, not on the history.
+ */
+public class SagaLog implements Closeable {
+  private static final String LOG_FILE = "saga.log";
+  private static final byte STEP = 1;
+  private static final byte END = 2;
+  private static final int HEADER = Integer.BYTES * 2;
+
+  private final Path file;
+  private final FileChannel channel;
+  private final Map<Long, Position> incomplete;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition synced = lock.newCondition();
+  private long lastSagaId;
+  private long written;
+  private long durable;
+  private boolean syncing;
+
+  /**
+   * The last logged position of a saga.
+   */
+  public static class Position {
+    private final int chapter;
+    private final boolean forward;
+    private final boolean crashed;
+    private final Object value;
+
+    Position(int chapter, boolean forward, boolean crashed, Object value) {
+      this.chapter = chapter;
+      this.forward = forward;
+      this.crashed = crashed;
+      this.value = value;
+    }
+
+    public int getChapter() {
+      return chapter;
+    }
+
+    public boolean isForward() {
+      return forward;
+    }
+
+    public boolean isCrashed() {
+      return crashed;
+    }
+
+    public Object getValue() {
+      return value;
+    }
+  }
+
+  /**
+   * Opens the log in the given directory, creating it if needed, and reads the sagas that have
+   * not finished before the last shutdown or crash.
+   *
+   * @param dir directory of the log
+   * @throws IOException if the log cannot be read or written
+   */
+  public SagaLog(Path dir) throws IOException {
+    Files.createDirectories(dir);
+    this.file = dir.resolve(LOG_FILE);
+    this.incomplete = new LinkedHashMap<>();
+    if (Files.exists(file)) {
+      replay();
+      compact();
+    }
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    this.written = channel.size();
+    this.durable = written;
+    channel.position(written);
+  }
+
+  /**
+   * The sagas that have not finished before the log was opened, by saga id, in the order they
+   * were started.
+   *
+   * @return incomplete sagas and their last logged position
+   */
+  public Map<Long, Position> incomplete() {
+    lock.lock();
+    try {
+      return Collections.unmodifiableMap(new LinkedHashMap<>(incomplete));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Registers a new saga and durably logs its first position.
+   *
+   * @param value value handed to the first chapter
+   * @return id of the saga
+   */
+  public long start(Object value) {
+    long id;
+    lock.lock();
+    try {
+      id = ++lastSagaId;
+    } finally {
+      lock.unlock();
+    }
+    step(id, 0, true, false, value);
+    return id;
+  }
+
+  /**
+   * Durably logs the position of a saga before the chapter at that position is executed.
+   *
+   * @param sagaId  id of the saga
+   * @param chapter index of the chapter to execute next
+   * @param forward whether the saga moves forward or compensates
+   * @param crashed whether a compensation has already failed
+   * @param value   value handed to the chapter
+   */
+  public void step(long sagaId, int chapter, boolean forward, boolean crashed, Object value) {
+    sync(append(stepRecord(sagaId, chapter, forward, crashed, serialize(value))));
+    lock.lock();
+    try {
+      incomplete.put(sagaId, new Position(chapter, forward, crashed, value));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Logs the result of a saga. The result is not forced to disk on its own: if it is lost, the
+   * saga is resumed at its last chapter on recovery, which ends it again.
+   *
+   * @param sagaId id of the saga
+   * @param result result of the saga
+   */
+  public void end(long sagaId, Saga.Result result) {
+    append(endRecord(sagaId, result));
+    lock.lock();
+    try {
+      incomplete.remove(sagaId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      channel.force(false);
+      channel.close();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long append(ByteBuffer record) {
+    lock.lock();
+    try {
+      while (record.hasRemaining()) {
+        channel.write(record);
+      }
+      written += record.limit();
+      return written;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void sync(long upTo) {
+    lock.lock();
+    try {
+      while (durable < upTo) {
+        if (syncing) {
+          synced.awaitUninterruptibly();
+          continue;
+        }
+        syncing = true;
+        var target = written;
+        lock.unlock();
+        try {
+          channel.force(false);
+        } finally {
+          lock.lock();
+          syncing = false;
+          synced.signalAll();
+        }
+        durable = Math.max(durable, target);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void replay() throws IOException {
+    var data = ByteBuffer.wrap(Files.readAllBytes(file));
+    while (data.remaining() >= HEADER) {
+      var length = data.getInt();
+      var checksum = data.getInt();
+      if (length <= 0 || length > data.remaining()) {
+        break;
+      }
+      var crc = new CRC32();
+      crc.update(data.array(), data.position(), length);
+      if ((int) crc.getValue() != checksum) {
+        break;
+      }
+      var record = data.slice().limit(length);
+      data.position(data.position() + length);
+      var type = record.get();
+      var sagaId = record.getLong();
+      lastSagaId = Math.max(lastSagaId, sagaId);
+      if (type == END) {
+        incomplete.remove(sagaId);
+        continue;
+      }
+      var chapter = record.getInt();
+      var flags = record.get();
+      var payload = new byte[record.remaining()];
+      record.get(payload);
+      incomplete.put(sagaId,
+          new Position(chapter, (flags & 1) != 0, (flags & 2) != 0, deserialize(payload)));
+    }
+  }
+
+  /**
+   * Rewrites the log with the last position of every incomplete saga only. The new log is written
+   * next to the old one and moved over it, so a crash during compaction loses nothing.
+   */
+  private void compact() throws IOException {
+    var tmp = file.resolveSibling(LOG_FILE + ".tmp");
+    try (var out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      // keeps the highest saga id even if that saga has finished
+      write(out, endRecord(lastSagaId, Saga.Result.FINISHED));
+      for (var e : incomplete.entrySet()) {
+        var position = e.getValue();
+        write(out, stepRecord(e.getKey(), position.chapter, position.forward, position.crashed,
+            serialize(position.value)));
+      }
+      out.force(true);
+    }
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static ByteBuffer stepRecord(long sagaId, int chapter, boolean forward,
+      boolean crashed, byte[] payload) {
+    var record = ByteBuffer.allocate(HEADER + 1 + Long.BYTES + Integer.BYTES + 1 + payload.length);
+    record.position(HEADER);
+    record.put(STEP).putLong(sagaId).putInt(chapter)
+        .put((byte) ((forward ? 1 : 0) | (crashed ? 2 : 0))).put(payload);
+    return frame(record);
+  }
+
+  private static ByteBuffer endRecord(long sagaId, Saga.Result result) {
+    var record = ByteBuffer.allocate(HEADER + 1 + Long.BYTES + 1);
+    record.position(HEADER);
+    record.put(END).putLong(sagaId).put((byte) result.ordinal());
+    return frame(record);
+  }
+
+  /**
+   * Fills in the length and the checksum in front of the record and flips it for writing.
+   */
+  private static ByteBuffer frame(ByteBuffer record) {
+    var length = record.position() - HEADER;
+    var crc = new CRC32();
+    crc.update(record.array(), HEADER, length);
+    record.putInt(0, length).putInt(Integer.BYTES, (int) crc.getValue()).flip();
+    return record;
+  }
+
+  private static void write(FileChannel out, ByteBuffer record) throws IOException {
+    while (record.hasRemaining()) {
+      out.write(record);
+    }
+  }
+
+  private static byte[] serialize(Object value) {
+    if (value != null && !(value instanceof Serializable)) {
+      throw new IllegalArgumentException("The saga value has to be serializable: " + value);
+    }
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Object deserialize(byte[] payload) throws IOException {
+    try (var in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+      return in.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Cannot read a saga value", e);
+    }
+  }
+}
@@ -28,6 +28,8 @@ import static com.iluwatar.saga.orchestration.Saga.Result.CRASHED;
 import static com.iluwatar.saga.orchestration.Saga.Result.FINISHED;
 import static com.iluwatar.saga.orchestration.Saga.Result.ROLLBACK;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +43,7 @@ public class SagaOrchestrator {
   private final Saga saga;
   private final ServiceDiscoveryService sd;
   private final CurrentState state;
+  private final SagaLog log;
 
 
   /**
@@ -50,9 +53,22 @@ public class SagaOrchestrator {
    * @param sd   service discovery @see {@link ServiceDiscoveryService}
    */
   public SagaOrchestrator(Saga saga, ServiceDiscoveryService sd) {
+    this(saga, sd, null);
+  }
+
+  /**
+   * Create a new service to orchetrate sagas that logs the progress of every saga, so the sagas
+   * interrupted by a crash can be resumed with {@link #recover()}.
+   *
+   * @param saga saga to process
+   * @param sd   service discovery @see {@link ServiceDiscoveryService}
+   * @param log  saga log @see {@link SagaLog}
+   */
+  public SagaOrchestrator(Saga saga, ServiceDiscoveryService sd, SagaLog log) {
     this.saga = saga;
     this.sd = sd;
     this.state = new CurrentState();
+    this.log = log;
   }
 
   /**
@@ -62,11 +78,36 @@ public class SagaOrchestrator {
    * @param <K>   type for incoming value
    * @return result @see {@link Result}
    */
-  @SuppressWarnings("unchecked")
   public <K> Result execute(K value) {
     state.cleanUp();
     LOGGER.info(" The new saga is about to start");
-    var result = FINISHED;
+    var sagaId = log == null ? 0 : log.start(value);
+    return run(sagaId, FINISHED, value);
+  }
+
+  /**
+   * Resumes every saga found incomplete in the saga log, going on forward or with the
+   * compensation from the chapter the saga has reached before the crash.
+   *
+   * @return results of the resumed sagas by saga id
+   */
+  public Map<Long, Result> recover() {
+    var results = new LinkedHashMap<Long, Result>();
+    if (log == null) {
+      return results;
+    }
+    log.incomplete().forEach((sagaId, position) -> {
+      LOGGER.info(" The saga {} is resumed at the chapter {}", sagaId, position.getChapter());
+      state.resume(position.getChapter(), position.isForward());
+      results.put(sagaId, run(sagaId, position.isCrashed() ? CRASHED : FINISHED,
+          position.getValue()));
+    });
+    return results;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <K> Result run(long sagaId, Result initial, K value) {
+    var result = initial;
     K tempVal = value;
 
     while (true) {
@@ -103,7 +144,14 @@ public class SagaOrchestrator {
 
 
       if (!saga.isPresent(next)) {
-        return state.isForward() ? FINISHED : result == CRASHED ? CRASHED : ROLLBACK;
+        var end = state.isForward() ? FINISHED : result == CRASHED ? CRASHED : ROLLBACK;
+        if (log != null) {
+          log.end(sagaId, end);
+        }
+        return end;
+      }
+      if (log != null) {
+        log.step(sagaId, next, state.isForward(), result == CRASHED, tempVal);
       }
     }
 
@@ -119,6 +167,11 @@ public class SagaOrchestrator {
       isForward = true;
     }
 
+    void resume(int chapter, boolean forward) {
+      currentNumber = chapter;
+      isForward = forward;
+    }
+
     CurrentState() {
       this.currentNumber = 0;
       this.isForward = true;
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.choreography;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * test to check the event driven choreography saga runtime
+ */
+class ChoreographySagaRuntimeTest {
+
+  @Test
+  void executeTest() throws Exception {
+    var executor = Executors.newFixedThreadPool(2);
+    try {
+      var runtime = new ChoreographySagaRuntime(serviceDiscovery(), executor);
+      var badOrderSaga = runtime.start(newSaga("bad_order")).get(5, TimeUnit.SECONDS);
+      var goodOrderSaga = runtime.start(newSaga("good_order")).get(5, TimeUnit.SECONDS);
+
+      assertEquals(Saga.SagaResult.ROLLBACKED, badOrderSaga.getResult());
+      assertEquals(Saga.SagaResult.FINISHED, goodOrderSaga.getResult());
+      assertEquals(0, runtime.getStore().size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void manySagasInFlightTest() throws Exception {
+    var executor = Executors.newFixedThreadPool(4);
+    try {
+      var runtime = new ChoreographySagaRuntime(serviceDiscovery(), executor);
+      var results = new ArrayList<CompletableFuture<Saga>>();
+      for (var i = 0; i < 1000; i++) {
+        results.add(runtime.start(newSaga(i % 2 == 0 ? "good_order" : "bad_order")));
+      }
+      CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+      for (var i = 0; i < results.size(); i++) {
+        var expected = i % 2 == 0 ? Saga.SagaResult.FINISHED : Saga.SagaResult.ROLLBACKED;
+        assertEquals(expected, results.get(i).get().getResult());
+      }
+      assertEquals(0, runtime.getStore().size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void unknownServiceTest() throws Exception {
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      var runtime = new ChoreographySagaRuntime(serviceDiscovery(), executor);
+      var result = runtime.start(Saga.create().chapter("init an order").setInValue("good_order")
+          .chapter("renting a Car"));
+      var failure = result.handle((saga, e) -> e).get(5, TimeUnit.SECONDS);
+
+      assertTrue(failure instanceof RuntimeException);
+      assertEquals(0, runtime.getStore().size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Saga newSaga(Object value) {
+    return Saga
+        .create()
+        .chapter("init an order").setInValue(value)
+        .chapter("booking a Fly")
+        .chapter("booking a Hotel")
+        .chapter("withdrawing Money");
+  }
+
+  private static ServiceDiscoveryService serviceDiscovery() {
+    var sd = new ServiceDiscoveryService();
+    return sd
+        .discover(new OrderService(sd))
+        .discover(new FlyBookingService(sd))
+        .discover(new HotelBookingService(sd))
+        .discover(new WithdrawMoneyService(sd));
+  }
+}
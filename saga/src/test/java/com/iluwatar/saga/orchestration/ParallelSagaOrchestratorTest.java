@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.orchestration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * test to check the dependency graph orchestration
+ */
+public class ParallelSagaOrchestratorTest {
+
+  private final List<String> records = new CopyOnWriteArrayList<>();
+  private final CyclicBarrier bookings = new CyclicBarrier(2);
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void executeTest() {
+    var orchestrator = new ParallelSagaOrchestrator(newSaga(), serviceDiscovery(), executor);
+
+    assertEquals(Saga.Result.FINISHED, orchestrator.execute("good_order"));
+    assertEquals(Saga.Result.ROLLBACK, orchestrator.execute("bad_order"));
+    assertEquals(Saga.Result.CRASHED, orchestrator.execute("crashed_order"));
+  }
+
+  @Test
+  public void compensatesInDependencyOrder() {
+    var orchestrator = new ParallelSagaOrchestrator(newSaga(), serviceDiscovery(), executor);
+
+    assertEquals(Saga.Result.ROLLBACK, orchestrator.execute("bad_order"));
+    assertEquals(8, records.size());
+    assertEquals(List.of("+init an order"), records.subList(0, 1));
+    assertEquals(List.of("+withdrawing Money", "-withdrawing Money"), records.subList(3, 5));
+    assertTrue(records.subList(5, 7).containsAll(List.of("-booking a Fly", "-booking a Hotel")));
+    assertEquals("-init an order", records.get(7));
+  }
+
+  @Test
+  public void compensatesWhenChapterThrows() {
+    var orchestrator = new ParallelSagaOrchestrator(newSaga(), serviceDiscovery(), executor);
+
+    assertEquals(Saga.Result.ROLLBACK, orchestrator.execute("throwing_order"));
+    assertTrue(records.containsAll(
+        List.of("-booking a Fly", "-booking a Hotel", "-init an order")));
+    assertEquals("-init an order", records.get(records.size() - 1));
+  }
+
+  @Test
+  public void crashesWhenCompensationThrows() {
+    var orchestrator = new ParallelSagaOrchestrator(newSaga(), serviceDiscovery(), executor);
+
+    assertEquals(Saga.Result.CRASHED, orchestrator.execute("throwing_rollback"));
+    assertEquals("-init an order", records.get(records.size() - 1));
+  }
+
+  @Test
+  public void sequentialOrchestratorStillAcceptsTheGraph() {
+    var orchestrator = new SagaOrchestrator(newSaga(), new ServiceDiscoveryService()
+        .discover(new OrderService())
+        .discover(new FlyBookingService())
+        .discover(new HotelBookingService())
+        .discover(new WithdrawMoneyService()));
+
+    assertEquals(Saga.Result.FINISHED, orchestrator.execute("good_order"));
+    assertEquals(Saga.Result.ROLLBACK, orchestrator.execute("bad_order"));
+  }
+
+  private static Saga newSaga() {
+    return Saga
+        .create()
+        .chapter("init an order")
+        .chapterAfter("booking a Fly", "init an order")
+        .chapterAfter("booking a Hotel", "init an order")
+        .chapterAfter("withdrawing Money", "booking a Fly", "booking a Hotel");
+  }
+
+  private ServiceDiscoveryService serviceDiscovery() {
+    return new ServiceDiscoveryService()
+        .discover(new Recorded(new OrderService()))
+        .discover(new Recorded(new FlyBookingService()))
+        .discover(new Recorded(new HotelBookingService()))
+        .discover(new Recorded(new WithdrawMoneyService()));
+  }
+
+  /**
+   * Records every step, and makes both bookings wait for each other so that the saga can only
+   * finish if they really run at the same time. The money withdrawal throws for the throwing
+   * orders, and so does the compensation of the fly booking for the throwing rollback.
+   */
+  private class Recorded implements OrchestrationChapter<String> {
+    private final Service<String> service;
+
+    Recorded(Service<String> service) {
+      this.service = service;
+    }
+
+    @Override
+    public String getName() {
+      return service.getName();
+    }
+
+    @Override
+    public ChapterResult<String> process(String value) {
+      if (getName().startsWith("booking")) {
+        try {
+          bookings.await(1, TimeUnit.SECONDS);
+        } catch (Exception e) {
+          return ChapterResult.failure(value);
+        }
+      }
+      records.add("+" + getName());
+      if (value.startsWith("throwing") && getName().startsWith("withdrawing")) {
+        throw new IllegalStateException("Withdrawal has thrown");
+      }
+      return service.process(value);
+    }
+
+    @Override
+    public ChapterResult<String> rollback(String value) {
+      records.add("-" + getName());
+      if (value.equals("throwing_rollback") && getName().equals("booking a Fly")) {
+        throw new IllegalStateException("Compensation has thrown");
+      }
+      return service.rollback(value);
+    }
+  }
+}
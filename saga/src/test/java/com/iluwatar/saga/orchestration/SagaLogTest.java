@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ * Copyright © 2014-2019 Ilkka Seppälä
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.iluwatar.saga.orchestration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * test to check the saga log and the recovery of interrupted sagas
+ */
+public class SagaLogTest {
+
+  @TempDir
+  Path dir;
+
+  private final List<String> records = new ArrayList<>();
+
+  @Test
+  public void finishedSagasAreNotRecoveredTest() throws IOException {
+    try (var log = new SagaLog(dir)) {
+      var orchestrator = new SagaOrchestrator(newSaga(), serviceDiscovery(Set.of()), log);
+      assertEquals(Saga.Result.FINISHED, orchestrator.execute("good_order"));
+      assertEquals(Saga.Result.ROLLBACK, orchestrator.execute("bad_order"));
+    }
+    try (var log = new SagaLog(dir)) {
+      assertTrue(log.incomplete().isEmpty());
+    }
+  }
+
+  @Test
+  public void resumeForwardTest() throws IOException {
+    try (var log = new SagaLog(dir)) {
+      var orchestrator = new SagaOrchestrator(newSaga(), serviceDiscovery(Set.of("+hotel")), log);
+      assertThrows(IllegalStateException.class, () -> orchestrator.execute("good_order"));
+    }
+    records.clear();
+
+    try (var log = new SagaLog(dir)) {
+      var orchestrator = new SagaOrchestrator(newSaga(), serviceDiscovery(Set.of()), log);
+      assertEquals(Map.of(1L, Saga.Result.FINISHED), orchestrator.recover());
+      assertEquals(List.of("+hotel", "+money"), records);
+    }
+    try (var log = new SagaLog(dir)) {
+      assertTrue(log.incomplete().isEmpty());
+    }
+  }
+
+  @Test
+  public void resumeCompensationTest() throws IOException {
+    try (var log = new SagaLog(dir)) {
+      var orchestrator = new SagaOrchestrator(newSaga(), serviceDiscovery(Set.of("-fly")), log);
+      assertThrows(IllegalStateException.class, () -> orchestrator.execute("bad_order"));
+    }
+    records.clear();
+
+    try (var log = new SagaLog(dir)) {
+      var orchestrator = new SagaOrchestrator(newSaga(), serviceDiscovery(Set.of()), log);
+      assertEquals(Map.of(1L, Saga.Result.ROLLBACK), orchestrator.recover());
+      assertEquals(List.of("-fly", "-order"), records);
+    }
+  }
+
+  @Test
+  public void tornRecordIsDiscardedTest() throws IOException {
+    try (var log = new SagaLog(dir)) {
+      var orchestrator = new SagaOrchestrator(newSaga(), serviceDiscovery(Set.of("+hotel")), log);
+      assertThrows(IllegalStateException.class, () -> orchestrator.execute("good_order"));
+      assertThrows(IllegalStateException.class, () -> orchestrator.execute("good_order"));
+    }
+    var file = dir.resolve("saga.log");
+    var size = Files.size(file);
+    try (var channel = Files.newByteChannel(file, StandardOpenOption.WRITE)) {
+      channel.truncate(size - 3);
+    }
+
+    try (var log = new SagaLog(dir)) {
+      assertEquals(Set.of(1L, 2L), log.incomplete().keySet());
+      assertEquals(1, log.incomplete().get(2L).getChapter());
+      assertEquals(3L, log.start("good_order"));
+    }
+  }
+
+  private static Saga newSaga() {
+    return Saga.create()
+        .chapter("init an order")
+        .chapter("booking a Fly")
+        .chapter("booking a Hotel")
+        .chapter("withdrawing Money");
+  }
+
+  private ServiceDiscoveryService serviceDiscovery(Set<String> crashes) {
+    return new ServiceDiscoveryService()
+        .discover(new RecordingService("init an order", "order", crashes))
+        .discover(new RecordingService("booking a Fly", "fly", crashes))
+        .discover(new RecordingService("booking a Hotel", "hotel", crashes))
+        .discover(new RecordingService("withdrawing Money", "money", crashes));
+  }
+
+  /**
+   * Records its calls, fails the money withdrawal of a bad order and crashes on demand.
+   */
+  private class RecordingService extends Service<String> {
+    private final String name;
+    private final String record;
+    private final Set<String> crashes;
+
+    RecordingService(String name, String record, Set<String> crashes) {
+      this.name = name;
+      this.record = record;
+      this.crashes = crashes;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ChapterResult<String> process(String value) {
+      return call("+" + record, value, !("money".equals(record) && "bad_order".equals(value)));
+    }
+
+    @Override
+    public ChapterResult<String> rollback(String value) {
+      return call("-" + record, value, true);
+    }
+
+    private ChapterResult<String> call(String call, String value, boolean success) {
+      if (crashes.contains(call)) {
+        throw new IllegalStateException("crash in " + call);
+      }
+      records.add(call);
+      return success ? ChapterResult.success(value) : ChapterResult.failure(value);
+    }
+  }
+}
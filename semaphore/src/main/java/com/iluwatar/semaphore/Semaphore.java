@@ -23,20 +23,58 @@
 
 package com.iluwatar.semaphore;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Semaphore is an implementation of a semaphore lock.
+ *
+ * <p>The available licenses are kept in an atomic counter, so acquiring and releasing a license
+ * that is available is a single compare-and-set. Only the threads that have to wait join a queue
+ * and park until a release hands them the licenses they need. A fair semaphore grants the
+ * licenses in the order the threads have asked for them; an unfair one lets an arriving thread
+ * take available licenses even if other threads are waiting, which is faster under contention.
  */
 public class Semaphore implements Lock {
 
   private final int licenses;
+  private final boolean fair;
   /**
    * The number of concurrent resource accesses which are allowed.
    */
-  private int counter;
+  private final AtomicInteger counter;
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+  /**
+   * A parked thread and the number of licenses it waits for.
+   */
+  private static class Waiter {
+    final Thread thread;
+    final int licenses;
+
+    Waiter(Thread thread, int licenses) {
+      this.thread = thread;
+      this.licenses = licenses;
+    }
+  }
 
   public Semaphore(int licenses) {
+    this(licenses, false);
+  }
+
+  /**
+   * Creates a semaphore.
+   *
+   * @param licenses number of licenses
+   * @param fair     whether the licenses are granted in the order they have been asked for
+   */
+  public Semaphore(int licenses, boolean fair) {
     this.licenses = licenses;
-    this.counter = licenses;
+    this.fair = fair;
+    this.counter = new AtomicInteger(licenses);
   }
 
   /**
@@ -50,28 +88,185 @@ public class Semaphore implements Lock {
    * Returns the number of available licenses.
    */
   public int getAvailableLicenses() {
-    return counter;
+    return counter.get();
+  }
+
+  public boolean isFair() {
+    return fair;
   }
 
   /**
    * Method called by a thread to acquire the lock. If there are no resources available this will
    * wait until the lock has been released to re-attempt the acquire.
    */
-  public synchronized void acquire() throws InterruptedException {
-    while (counter == 0) {
-      wait();
+  public void acquire() throws InterruptedException {
+    acquire(1);
+  }
+
+  /**
+   * Acquires the given number of licenses, waiting until they are all available at once.
+   *
+   * @param n number of licenses
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public void acquire(int n) throws InterruptedException {
+    checkLicenses(n);
+    if (!tryAcquireNow(n)) {
+      await(n, false, 0);
+    }
+  }
+
+  /**
+   * Acquires a license if one is available right now.
+   *
+   * @return true if the license has been acquired
+   */
+  public boolean tryAcquire() {
+    return tryAcquire(1);
+  }
+
+  /**
+   * Acquires the given number of licenses if they are all available right now. A fair semaphore
+   * does not grant them while other threads are waiting.
+   *
+   * @param n number of licenses
+   * @return true if the licenses have been acquired
+   */
+  public boolean tryAcquire(int n) {
+    checkLicenses(n);
+    return tryAcquireNow(n);
+  }
+
+  /**
+   * Acquires the given number of licenses, waiting at most the given time for them.
+   *
+   * @param n       number of licenses
+   * @param timeout maximum time to wait
+   * @param unit    unit of {@code timeout}
+   * @return true if the licenses have been acquired, false if the time has elapsed
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public boolean tryAcquire(int n, long timeout, TimeUnit unit) throws InterruptedException {
+    checkLicenses(n);
+    if (tryAcquireNow(n)) {
+      return true;
     }
-    counter = counter - 1;
+    return timeout > 0 && await(n, true, System.nanoTime() + unit.toNanos(timeout));
   }
 
   /**
    * Method called by a thread to release the lock.
    */
-  public synchronized void release() {
-    if (counter < licenses) {
-      counter = counter + 1;
-      notify();
+  public void release() {
+    release(1);
+  }
+
+  /**
+   * Releases the given number of licenses. The licenses are never raised above the number managed
+   * by the semaphore.
+   *
+   * @param n number of licenses
+   */
+  public void release(int n) {
+    if (n <= 0) {
+      throw new IllegalArgumentException("The number of licenses must be positive: " + n);
     }
+    int current;
+    do {
+      current = counter.get();
+      if (current == licenses) {
+        return;
+      }
+    } while (!counter.compareAndSet(current, Math.min(licenses, current + n)));
+    signal();
+  }
+
+  /**
+   * Acquires all the licenses available right now, for instance to stop handing out licenses
+   * while the resources are being shut down.
+   *
+   * @return number of licenses acquired
+   */
+  public int drainLicenses() {
+    return counter.getAndSet(0);
+  }
+
+  private void checkLicenses(int n) {
+    if (n <= 0 || n > licenses) {
+      throw new IllegalArgumentException(
+          "The number of licenses must be between 1 and " + licenses + ": " + n);
+    }
+  }
+
+  private boolean tryAcquireNow(int n) {
+    return (!fair || waiters.isEmpty()) && take(n);
   }
 
+  private boolean take(int n) {
+    while (true) {
+      var current = counter.get();
+      if (current < n) {
+        return false;
+      }
+      if (counter.compareAndSet(current, current - n)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Queues up the current thread and parks it until it can take the licenses. A thread woken
+   * without getting its licenses, or leaving the queue, passes the wake-up on, so no release is
+   * lost.
+   */
+  private boolean await(int n, boolean timed, long deadline) throws InterruptedException {
+    var waiter = new Waiter(Thread.currentThread(), n);
+    waiters.add(waiter);
+    try {
+      while (true) {
+        if ((!fair || waiters.peek() == waiter) && take(n)) {
+          return true;
+        }
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+        if (timed) {
+          var remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            return false;
+          }
+          LockSupport.parkNanos(this, remaining);
+        } else {
+          LockSupport.park(this);
+        }
+      }
+    } finally {
+      waiters.remove(waiter);
+      signal();
+    }
+  }
+
+  /**
+   * Wakes up the waiter that can be served with the available licenses: the first one in a fair
+   * semaphore, the first one asking for no more than available in an unfair one.
+   */
+  private void signal() {
+    var available = counter.get();
+    if (available == 0) {
+      return;
+    }
+    if (fair) {
+      var first = waiters.peek();
+      if (first != null) {
+        LockSupport.unpark(first.thread);
+      }
+      return;
+    }
+    for (var waiter : waiters) {
+      if (waiter.licenses <= available) {
+        LockSupport.unpark(waiter.thread);
+        return;
+      }
+    }
+  }
 }
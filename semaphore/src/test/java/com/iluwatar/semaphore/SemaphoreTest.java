@@ -24,8 +24,14 @@
 package com.iluwatar.semaphore;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -56,4 +62,112 @@ public class SemaphoreTest {
     sphore.release();
     assertEquals(3, sphore.getAvailableLicenses());
   }
+
+  @Test
+  public void batchAcquireReleaseTest() throws InterruptedException {
+    var sphore = new Semaphore(5);
+
+    sphore.acquire(3);
+    assertEquals(2, sphore.getAvailableLicenses());
+    assertFalse(sphore.tryAcquire(3));
+    assertTrue(sphore.tryAcquire(2));
+    assertEquals(0, sphore.getAvailableLicenses());
+
+    sphore.release(4);
+    assertEquals(4, sphore.getAvailableLicenses());
+    sphore.release(4);
+    assertEquals(5, sphore.getAvailableLicenses());
+    assertThrows(IllegalArgumentException.class, () -> sphore.acquire(6));
+  }
+
+  @Test
+  public void timedAcquireTest() throws InterruptedException {
+    var sphore = new Semaphore(2);
+    sphore.acquire(2);
+
+    var start = System.nanoTime();
+    assertFalse(sphore.tryAcquire(1, 50, TimeUnit.MILLISECONDS));
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+    var releaser = new Thread(() -> sphore.release(2));
+    releaser.start();
+    assertTrue(sphore.tryAcquire(2, 5, TimeUnit.SECONDS));
+    releaser.join();
+    assertEquals(0, sphore.getAvailableLicenses());
+  }
+
+  @Test
+  public void drainTest() {
+    var sphore = new Semaphore(3);
+    assertTrue(sphore.tryAcquire());
+
+    assertEquals(2, sphore.drainLicenses());
+    assertEquals(0, sphore.getAvailableLicenses());
+    assertFalse(sphore.tryAcquire());
+  }
+
+  @Test
+  public void fairnessTest() throws InterruptedException {
+    var sphore = new Semaphore(2, true);
+    sphore.acquire(2);
+    List<String> order = new CopyOnWriteArrayList<>();
+
+    var big = waitFor(sphore, 2, "big", order);
+    var small = waitFor(sphore, 1, "small", order);
+
+    // one license is not enough for the first waiter, so nobody gets it
+    sphore.release();
+    assertFalse(sphore.tryAcquire());
+    Thread.sleep(50);
+    assertTrue(order.isEmpty());
+
+    sphore.release();
+    big.join(5000);
+    sphore.release(2);
+    small.join(5000);
+    assertEquals(List.of("big", "small"), order);
+  }
+
+  @Test
+  public void interruptTest() throws InterruptedException {
+    var sphore = new Semaphore(1);
+    sphore.acquire();
+    var interrupted = new CopyOnWriteArrayList<Boolean>();
+    var waiter = new Thread(() -> {
+      try {
+        sphore.acquire();
+      } catch (InterruptedException e) {
+        interrupted.add(true);
+      }
+    });
+    waiter.start();
+    awaitParked(waiter);
+    waiter.interrupt();
+    waiter.join(5000);
+
+    assertEquals(List.of(true), interrupted);
+    sphore.release();
+    assertTrue(sphore.tryAcquire());
+  }
+
+  private static Thread waitFor(Semaphore sphore, int n, String name, List<String> order)
+      throws InterruptedException {
+    var thread = new Thread(() -> {
+      try {
+        sphore.acquire(n);
+        order.add(name);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    thread.start();
+    awaitParked(thread);
+    return thread;
+  }
+
+  private static void awaitParked(Thread thread) throws InterruptedException {
+    while (thread.getState() != Thread.State.WAITING) {
+      Thread.sleep(1);
+    }
+  }
 }
@@ -23,9 +23,6 @@
 
 package com.iluwatar.unitofwork;
 
-import java.util.HashMap;
-import java.util.List;
-
 /**
  * {@link App} Application for managing student data.
  */
@@ -41,9 +38,8 @@ public class App {
     var shyam = new Student(2, "Shyam", "Z bridge, Pune");
     var gopi = new Student(3, "Gopi", "Street 10, Mumbai");
 
-    var context = new HashMap<String, List<Student>>();
     var studentDatabase = new StudentDatabase();
-    var studentRepository = new StudentRepository(context, studentDatabase);
+    var studentRepository = new StudentRepository(studentDatabase);
 
     studentRepository.registerNew(ram);
     studentRepository.registerModified(shyam);
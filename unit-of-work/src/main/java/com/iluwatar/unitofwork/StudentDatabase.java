@@ -23,6 +23,8 @@
 
 package com.iluwatar.unitofwork;
 
+import java.util.Collection;
+
 /**
  * Act as Database for student records.
  */
@@ -39,4 +41,31 @@ public class StudentDatabase {
   public void delete(Student student) {
     //Some delete logic to DB
   }
+
+  /**
+   * Inserts the students in one round trip. By default calls {@link #insert(Student)} for each.
+   *
+   * @param students students to insert
+   */
+  public void insertAll(Collection<Student> students) {
+    students.forEach(this::insert);
+  }
+
+  /**
+   * Modifies the students in one round trip. By default calls {@link #modify(Student)} for each.
+   *
+   * @param students students to modify
+   */
+  public void modifyAll(Collection<Student> students) {
+    students.forEach(this::modify);
+  }
+
+  /**
+   * Deletes the students in one round trip. By default calls {@link #delete(Student)} for each.
+   *
+   * @param students students to delete
+   */
+  public void deleteAll(Collection<Student> students) {
+    students.forEach(this::delete);
+  }
 }
@@ -24,102 +24,164 @@
 package com.iluwatar.unitofwork;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * {@link StudentRepository} Student database repository. supports unit of work for student data.
+ *
+ * <p>Registered changes are kept in an identity map keyed by student id, so each student has at
+ * most one pending change. Registering another change for the same student merges the two:
+ * <ul>
+ *   <li>new, then modified: the student is inserted with its latest state;</li>
+ *   <li>new, then deleted: nothing is written;</li>
+ *   <li>modified several times: the student is written once, with its latest state;</li>
+ *   <li>modified, then deleted: the student is deleted;</li>
+ *   <li>deleted, then new: the student is modified to its new state.</li>
+ * </ul>
+ * Modifying a student registered for deletion is an error.
  */
 public class StudentRepository implements IUnitOfWork<Student> {
   private static final Logger LOGGER = LoggerFactory.getLogger(StudentRepository.class);
 
-  private final Map<String, List<Student>> context;
+  private final Map<Integer, Change> context = new LinkedHashMap<>();
   private final StudentDatabase studentDatabase;
 
+  private static final class Change {
+    private UnitActions action;
+    private Student student;
+
+    private Change(UnitActions action, Student student) {
+      this.action = action;
+      this.student = student;
+    }
+  }
+
   /**
    * Constructor.
    *
-   * @param context         set of operations to be perform during commit.
    * @param studentDatabase Database for student records.
    */
-  public StudentRepository(Map<String, List<Student>> context, StudentDatabase studentDatabase) {
-    this.context = context;
+  public StudentRepository(StudentDatabase studentDatabase) {
     this.studentDatabase = studentDatabase;
   }
 
   @Override
   public void registerNew(Student student) {
-    LOGGER.info("Registering {} for insert in context.", student.getName());
-    register(student, UnitActions.INSERT.getActionValue());
+    LOGGER.debug("Registering {} for insert in context.", student.getName());
+    register(student, UnitActions.INSERT);
   }
 
   @Override
   public void registerModified(Student student) {
-    LOGGER.info("Registering {} for modify in context.", student.getName());
-    register(student, UnitActions.MODIFY.getActionValue());
-
+    LOGGER.debug("Registering {} for modify in context.", student.getName());
+    register(student, UnitActions.MODIFY);
   }
 
   @Override
   public void registerDeleted(Student student) {
-    LOGGER.info("Registering {} for delete in context.", student.getName());
-    register(student, UnitActions.DELETE.getActionValue());
+    LOGGER.debug("Registering {} for delete in context.", student.getName());
+    register(student, UnitActions.DELETE);
   }
 
-  private void register(Student student, String operation) {
-    var studentsToOperate = context.get(operation);
-    if (studentsToOperate == null) {
-      studentsToOperate = new ArrayList<>();
+  private void register(Student student, UnitActions action) {
+    var id = Objects.requireNonNull(student.getId(), "student id");
+    var change = context.get(id);
+    if (change == null) {
+      context.put(id, new Change(action, student));
+      return;
+    }
+    change.student = student;
+    change.action = merge(change.action, action, student);
+    if (change.action == null) {
+      context.remove(id);
+    }
+  }
+
+  /**
+   * Returns the single change equivalent to {@code pending} followed by {@code next}, or null if
+   * they cancel out.
+   */
+  private static UnitActions merge(UnitActions pending, UnitActions next, Student student) {
+    switch (pending) {
+      case INSERT:
+        return next == UnitActions.DELETE ? null : UnitActions.INSERT;
+      case MODIFY:
+        return next == UnitActions.DELETE ? UnitActions.DELETE : UnitActions.MODIFY;
+      case DELETE:
+        if (next == UnitActions.MODIFY) {
+          throw new IllegalStateException(
+              "Student " + student.getId() + " is already registered for delete");
+        }
+        return next == UnitActions.INSERT ? UnitActions.MODIFY : UnitActions.DELETE;
+      default:
+        throw new IllegalArgumentException("Unknown action " + pending);
     }
-    studentsToOperate.add(student);
-    context.put(operation, studentsToOperate);
   }
 
   /**
-   * All UnitOfWork operations are batched and executed together on commit only.
+   * Returns the students whose pending change is the given action, in registration order.
+   *
+   * @param action the kind of change
+   * @return the students to be written by that action on commit
+   */
+  public List<Student> getPending(UnitActions action) {
+    return Collections.unmodifiableList(group().get(action));
+  }
+
+  /**
+   * All UnitOfWork operations are batched and executed together on commit only. Inserts are
+   * written first, then modifications, then deletions, each as a single batch. The context is
+   * empty afterwards.
    */
   @Override
   public void commit() {
-    if (context == null || context.size() == 0) {
+    if (context.isEmpty()) {
       return;
     }
     LOGGER.info("Commit started");
-    if (context.containsKey(UnitActions.INSERT.getActionValue())) {
-      commitInsert();
-    }
-
-    if (context.containsKey(UnitActions.MODIFY.getActionValue())) {
-      commitModify();
-    }
-    if (context.containsKey(UnitActions.DELETE.getActionValue())) {
-      commitDelete();
-    }
+    var changes = group();
+    commit(UnitActions.INSERT, changes.get(UnitActions.INSERT));
+    commit(UnitActions.MODIFY, changes.get(UnitActions.MODIFY));
+    commit(UnitActions.DELETE, changes.get(UnitActions.DELETE));
+    context.clear();
     LOGGER.info("Commit finished.");
   }
 
-  private void commitInsert() {
-    var studentsToBeInserted = context.get(UnitActions.INSERT.getActionValue());
-    for (var student : studentsToBeInserted) {
-      LOGGER.info("Saving {} to database.", student.getName());
-      studentDatabase.insert(student);
+  private void commit(UnitActions action, List<Student> students) {
+    if (students.isEmpty()) {
+      return;
     }
-  }
-
-  private void commitModify() {
-    var modifiedStudents = context.get(UnitActions.MODIFY.getActionValue());
-    for (var student : modifiedStudents) {
-      LOGGER.info("Modifying {} to database.", student.getName());
-      studentDatabase.modify(student);
+    LOGGER.info("Committing {} {} operations to database.", students.size(), action);
+    switch (action) {
+      case INSERT:
+        studentDatabase.insertAll(students);
+        break;
+      case MODIFY:
+        studentDatabase.modifyAll(students);
+        break;
+      case DELETE:
+        studentDatabase.deleteAll(students);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown action " + action);
     }
   }
 
-  private void commitDelete() {
-    var deletedStudents = context.get(UnitActions.DELETE.getActionValue());
-    for (var student : deletedStudents) {
-      LOGGER.info("Deleting {} to database.", student.getName());
-      studentDatabase.delete(student);
+  private Map<UnitActions, List<Student>> group() {
+    var groups = new EnumMap<UnitActions, List<Student>>(UnitActions.class);
+    for (var action : UnitActions.values()) {
+      groups.put(action, new ArrayList<>());
+    }
+    for (var change : context.values()) {
+      groups.get(change.action).add(change.student);
     }
+    return groups;
   }
 }
@@ -24,15 +24,13 @@
 package com.iluwatar.unitofwork;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -45,17 +43,16 @@ import org.mockito.runners.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class StudentRepositoryTest {
   private final Student student1 = new Student(1, "Ram", "street 9, cupertino");
-  private final Student student2 = new Student(1, "Sham", "Z bridge, pune");
+  private final Student student2 = new Student(2, "Sham", "Z bridge, pune");
+  private final Student student1Moved = new Student(1, "Ram", "Z bridge, pune");
 
-  private Map<String, List<Student>> context;
   @Mock
   private StudentDatabase studentDatabase;
   private StudentRepository studentRepository;
 
   @Before
   public void setUp() {
-    context = new HashMap<>();
-    studentRepository = new StudentRepository(context, studentDatabase);
+    studentRepository = new StudentRepository(studentDatabase);
   }
 
   @Test
@@ -63,7 +60,7 @@ public class StudentRepositoryTest {
     studentRepository.registerNew(student1);
     studentRepository.registerNew(student2);
 
-    assertEquals(2, context.get(UnitActions.INSERT.getActionValue()).size());
+    assertEquals(List.of(student1, student2), studentRepository.getPending(UnitActions.INSERT));
     verifyNoMoreInteractions(studentDatabase);
   }
 
@@ -72,7 +69,7 @@ public class StudentRepositoryTest {
     studentRepository.registerDeleted(student1);
     studentRepository.registerDeleted(student2);
 
-    assertEquals(2, context.get(UnitActions.DELETE.getActionValue()).size());
+    assertEquals(List.of(student1, student2), studentRepository.getPending(UnitActions.DELETE));
     verifyNoMoreInteractions(studentDatabase);
   }
 
@@ -81,68 +78,99 @@ public class StudentRepositoryTest {
     studentRepository.registerModified(student1);
     studentRepository.registerModified(student2);
 
-    assertEquals(2, context.get(UnitActions.MODIFY.getActionValue()).size());
+    assertEquals(List.of(student1, student2), studentRepository.getPending(UnitActions.MODIFY));
     verifyNoMoreInteractions(studentDatabase);
   }
 
   @Test
   public void shouldSaveAllLocalChangesToDb() {
-    context.put(UnitActions.INSERT.getActionValue(), List.of(student1));
-    context.put(UnitActions.MODIFY.getActionValue(), List.of(student1));
-    context.put(UnitActions.DELETE.getActionValue(), List.of(student1));
+    var student3 = new Student(3, "Gopi", "Street 10, Mumbai");
+    studentRepository.registerNew(student1);
+    studentRepository.registerModified(student2);
+    studentRepository.registerDeleted(student3);
+
+    studentRepository.commit();
 
+    verify(studentDatabase).insertAll(List.of(student1));
+    verify(studentDatabase).modifyAll(List.of(student2));
+    verify(studentDatabase).deleteAll(List.of(student3));
+    verifyNoMoreInteractions(studentDatabase);
+  }
+
+  @Test
+  public void shouldNotWriteToDbIfNothingToCommit() {
     studentRepository.commit();
 
-    verify(studentDatabase, times(1)).insert(student1);
-    verify(studentDatabase, times(1)).modify(student1);
-    verify(studentDatabase, times(1)).delete(student1);
+    verifyZeroInteractions(studentDatabase);
   }
 
   @Test
-  public void shouldNotWriteToDbIfContextIsNull() {
-    var studentRepository = new StudentRepository(null, studentDatabase);
+  public void shouldNotWriteTwiceIfCommittedTwice() {
+    studentRepository.registerModified(student1);
 
+    studentRepository.commit();
     studentRepository.commit();
 
+    verify(studentDatabase).modifyAll(List.of(student1));
     verifyNoMoreInteractions(studentDatabase);
   }
 
   @Test
-  public void shouldNotWriteToDbIfNothingToCommit() {
-    var studentRepository = new StudentRepository(new HashMap<>(), studentDatabase);
+  public void shouldWriteRepeatedlyModifiedStudentOnce() {
+    for (var i = 0; i < 10; i++) {
+      studentRepository.registerModified(student1);
+    }
+    studentRepository.registerModified(student1Moved);
 
     studentRepository.commit();
 
-    verifyZeroInteractions(studentDatabase);
+    verify(studentDatabase).modifyAll(List.of(student1Moved));
+    verifyNoMoreInteractions(studentDatabase);
   }
 
   @Test
-  public void shouldNotInsertToDbIfNoRegisteredStudentsToBeCommitted() {
-    context.put(UnitActions.MODIFY.getActionValue(), List.of(student1));
-    context.put(UnitActions.DELETE.getActionValue(), List.of(student1));
+  public void shouldNotWriteStudentInsertedThenDeleted() {
+    studentRepository.registerNew(student1);
+    studentRepository.registerModified(student1);
+    studentRepository.registerDeleted(student1);
 
     studentRepository.commit();
 
-    verify(studentDatabase, never()).insert(student1);
+    verifyZeroInteractions(studentDatabase);
   }
 
   @Test
-  public void shouldNotModifyToDbIfNotRegisteredStudentsToBeCommitted() {
-    context.put(UnitActions.INSERT.getActionValue(), List.of(student1));
-    context.put(UnitActions.DELETE.getActionValue(), List.of(student1));
+  public void shouldInsertLatestStateOfStudentInsertedThenModified() {
+    studentRepository.registerNew(student1);
+    studentRepository.registerModified(student1Moved);
 
     studentRepository.commit();
 
-    verify(studentDatabase, never()).modify(student1);
+    verify(studentDatabase).insertAll(List.of(student1Moved));
+    verify(studentDatabase, never()).modifyAll(List.of(student1Moved));
   }
 
   @Test
-  public void shouldNotDeleteFromDbIfNotRegisteredStudentsToBeCommitted() {
-    context.put(UnitActions.INSERT.getActionValue(), List.of(student1));
-    context.put(UnitActions.MODIFY.getActionValue(), List.of(student1));
+  public void shouldDeleteStudentModifiedThenDeleted() {
+    studentRepository.registerModified(student1);
+    studentRepository.registerDeleted(student1);
 
-    studentRepository.commit();
+    assertTrue(studentRepository.getPending(UnitActions.MODIFY).isEmpty());
+    assertEquals(List.of(student1), studentRepository.getPending(UnitActions.DELETE));
+  }
 
-    verify(studentDatabase, never()).delete(student1);
+  @Test
+  public void shouldModifyStudentDeletedThenInsertedAgain() {
+    studentRepository.registerDeleted(student1);
+    studentRepository.registerNew(student1Moved);
+
+    assertEquals(List.of(student1Moved), studentRepository.getPending(UnitActions.MODIFY));
+    assertTrue(studentRepository.getPending(UnitActions.DELETE).isEmpty());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldRejectModifyingDeletedStudent() {
+    studentRepository.registerDeleted(student1);
+    studentRepository.registerModified(student1);
   }
-}
\ No newline at end of file
+}